@@ -11,6 +11,7 @@ import org.io.Reader;
 import java.io.IOException;
 import java.time.Clock;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.LinkedList;
 
 
@@ -38,8 +39,9 @@ public class App {
         System.out.println(gDirected.convertDOT(true));
         System.out.println(gUndirected.convertDOT(false));
 
-        gDirected.createDataStructs();
-        gUndirected.createDataStructs();
+        // traversals only need the adjacency structures, matrices are built lazily when printed
+        gDirected.createDataStructs(EnumSet.of(Graph.Representation.ADJ_LIST, Graph.Representation.CSR));
+        gUndirected.createDataStructs(EnumSet.of(Graph.Representation.ADJ_LIST, Graph.Representation.CSR));
 
         gDirected.printEdgeList(true);
         gUndirected.printEdgeList(false);
@@ -56,20 +58,23 @@ public class App {
 
         /* BREADTH FIRST SEARCH UNDIRECTED */
         BreadthFirstSearch BFS = new BreadthFirstSearch(gUndirected); // UNDIRECTED
-        Vertex bfsRoot = BFS.initTree(1); // vertex with id: 1 is source/root
+        BFS.setVerbose(true); // show every visited vertex
+        int bfsRoot = BFS.initTree(1); // vertex with id: 1 is source/root
         BFS.buildTree(); // builds BFS tree
         BFS.showPath(bfsRoot, BFS.searchTree(bfsRoot, 2)); // shows the path, looks for vertex in BFS tree we specified
         System.out.println("BUILDING BFS TREE (UNDIRECTED GRAPH) AND SHOWING PATH DONE...\n");
 
         /* BREADTH FIRST SEARCH DIRECTED */
         BreadthFirstSearch BFSDIR = new BreadthFirstSearch(gDirected);
-        Vertex bfsRootDirected = BFSDIR.initTree(1);
+        BFSDIR.setVerbose(true);
+        int bfsRootDirected = BFSDIR.initTree(1);
         BFSDIR.buildTree();
         BFSDIR.showPath(bfsRootDirected, BFSDIR.searchTree(bfsRootDirected, 2));
         System.out.println("BUILDING BFS TREE (DIRECTED GRAPH) AND SHOWING PATH DONE...\n");
 
         /* DEPTH FIRST SEARCH DIRECTED */
         DepthFirstSearch DFSDIR = new DepthFirstSearch(gDirected);
+        DFSDIR.setVerbose(true); // show discovery & finishing steps
 
         /* NORMAL DEPTH SEARCH */
         // DFSDIR.depthSearch();
@@ -86,11 +91,13 @@ public class App {
 
         /* PRIM */
         Prim prim = new Prim();
+        prim.setVerbose(true); // show every extracted vertex
         if(gUndirected.hasWeights()) prim.printPrim(prim.MSTPrim(gUndirected, 1));
 
         /* BELLMAN FORD */
         if(gDirected.hasWeights()) {
             BellmannFord bellmannFord = new BellmannFord(gDirected, 1);
+            bellmannFord.setVerbose(true); // show phases & relaxations
             boolean bf = bellmannFord.bellmannFord(1);
             if (bf) System.out.println("\nBELLMAN-FORD HAD NO NEGATIVE CYCLE!");
             bellmannFord.printShortestPath();
@@ -99,6 +106,7 @@ public class App {
         /* DIJKSTRA */
         if(gDirected.hasWeights()) {
             Dijkstra dijkstra = new Dijkstra(gDirected, 1);
+            dijkstra.setVerbose(true); // show every relaxation
             dijkstra.dijkstra();
             dijkstra.printShortestPath();
         }
@@ -106,7 +114,8 @@ public class App {
         /* FLOYD-WARSHALL */
         if(gDirected.hasWeights()) {
             FloydWarshall floyd = new FloydWarshall(gDirected);
-            Integer[][] resultMat = floyd.floydwarshall();
+            floyd.setVerbose(true); // show every iteration k
+            WeightMatrix resultMat = floyd.floydwarshall();
             floyd.printMat(resultMat);
         }
 
@@ -0,0 +1,96 @@
+package org.algos;
+
+
+import org.ds.Graph;
+import org.ds.ReadOnlyGraph;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/* Dijkstra from many sources at once (e.g. every depot of a network) on one shared read-only graph
+ * - every worker thread pulls the next source from a shared counter and runs Dijkstra in its own
+ *   workspace, the graph is never written so no locking is needed
+ * - the result of a source goes to the sink right away and is overwritten by the next run of the thread,
+ *   memory stays at (threads x V) no matter how many sources there are
+ */
+public class BatchDijkstra {
+    private final ReadOnlyGraph g;
+    private final int threads;
+    private final Dijkstra dijkstra; // shared by all workers, the state of a run is in the workspace
+
+    public BatchDijkstra(Graph g){
+        this(g.exposeCSR());
+    }
+
+    public BatchDijkstra(ReadOnlyGraph g){
+        this(g, Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchDijkstra(ReadOnlyGraph g, int threads){
+        this.g = g;
+        this.threads = Math.max(threads, 1);
+        this.dijkstra = new Dijkstra(g, 1);
+        dijkstra.setVerbose(false);
+    }
+
+    /* Runs SSSP for every source and streams the results into sink, returns the number of runs
+     * The first failing sink call stops all workers, its exception is rethrown.
+     */
+    public int run(final int[] sources, final DistanceSink sink) throws IOException {
+        for(int s: sources)
+            if(s < 1 || s > g.getVertexCount()) throw new IllegalArgumentException("Source " + s + " is not a vertex of the graph");
+        dijkstra.getQueue(); // scan the weight range once, not in every worker
+        if(threads == 1 || sources.length <= 1){
+            for(int s: sources) runSource(s, sink);
+            return sources.length;
+        }
+        final AtomicInteger next = new AtomicInteger();
+        int workers = Math.min(threads, sources.length);
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+            for(int t = 0; t < workers; t++){
+                results.add(pool.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws IOException {
+                        int runs = 0;
+                        try {
+                            for(int i = next.getAndIncrement(); i < sources.length; i = next.getAndIncrement()){
+                                runSource(sources[i], sink);
+                                runs++;
+                            }
+                        } catch (IOException | RuntimeException e) {
+                            next.set(sources.length); // no new sources for the other workers
+                            throw e;
+                        }
+                        return runs;
+                    }
+                }));
+            }
+            int runs = 0;
+            for(Future<Integer> f: results) runs += f.get();
+            return runs;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch interrupted", e);
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            if(e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IOException("Shortest path run failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void runSource(int s, DistanceSink sink) throws IOException {
+        Workspace ws = dijkstra.run(s);
+        sink.accept(s, ws.dist, ws.parent);
+    }
+}
@@ -1,41 +1,72 @@
 package org.algos;
 
-import org.ds.Edge;
 import org.ds.Graph;
-import org.ds.Vertex;
+import org.ds.ReadOnlyGraph;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 public class BellmannFord {
 
-    private Graph g;
-    private LinkedList<Vertex>[] adjList;
-    private Integer source;
+    /* How bellmannFord runs its phases
+     *      CLASSIC:    all |V|-1 phases over all arcs (the textbook version)
+     *      EARLY_EXIT: stops after the first phase that changed no distance, nothing can change after it
+     *      SPFA:       only arcs of vertices whose distance dropped are relaxed again (queue + bitset)
+     *      PARALLEL:   every phase relaxes a flat arc array in chunks on all threads, stops early as well
+     */
+    public enum Mode { CLASSIC, EARLY_EXIT, SPFA, PARALLEL }
+
+    private static final int CHUNK = 1 << 14; // arcs a thread takes at a time in a parallel phase
+
+    private final ReadOnlyGraph g;
+    private final int source;
+    private Mode mode = Mode.CLASSIC;
+    private boolean verbose;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int[] arcFrom; // tail of every arc (in CSR order) for the parallel phases, built on first use
+    private int[] cycle = new int[0];
+    private int[] dist, parent; // results of the last run, copied out of the workspace
 
     /* BELLMANN-FORD
      * Calculate cost of shortest paths from a source node to all other nodes
      * Iteratively correct from bad cost estimation until we found a good one
      */
     public BellmannFord(Graph g, int source){
+        this(g.exposeCSR(), source);
+    }
+
+    /* Runs on any read-only graph, a run works in the workspace of the calling thread */
+    public BellmannFord(ReadOnlyGraph g, int source){
         this.g = g;
         this.source = source;
-        adjList = g.exposeAdjList();
-        initSingleSource();
     }
 
+    public void setMode(Mode mode){ this.mode = mode; }
+
+    // verbose = true prints phases & relaxations, off by default
+    public void setVerbose(boolean verbose){ this.verbose = verbose; }
+
+    public void setThreads(int threads){ this.threads = Math.max(threads, 1); }
+
     /* Init-Single-Source(G, s)
      * for each vertex
      *      v.d = infinity
      *      v.pred = nil
      * s.d = 0
      */
-    private int initSingleSource(){
-        for(int i = 1; i < adjList.length; i++){
-            adjList[i].getFirst().setDistance(Integer.MAX_VALUE);
-            adjList[i].getFirst().setParent(null);
-            if(adjList[i].getFirst().getId() == source) adjList[i].getFirst().setDistance(0);
-        }
+    private int initSingleSource(Workspace ws, int source){
+        int size = g.getVertexCount()+1;
+        Arrays.fill(ws.dist, 0, size, Integer.MAX_VALUE);
+        Arrays.fill(ws.parent, 0, size, 0); // 0 is nil, vertex ids start at 1
+        ws.dist[source] = 0;
         return source;
     }
 
@@ -48,35 +79,196 @@ public class BellmannFord {
      *       if v.d > u.d + w(u,v)
      *           return FALSE
      *  return TRUE
+     *
+     * FALSE comes with the negative cycle itself (see getNegativeCycle): a vertex that can still be relaxed
+     * in phase |V| is on or behind the cycle, following v.pred |V| times surely ends up on it.
      */
     public boolean bellmannFord(int source){
-        System.out.println("\nBELLMAN-FORD SHORTEST PATH ALGORITHM (DIGRAPH)");
-        for(int i = 2; i < adjList.length; i++){ // n-1 phases
-            System.out.println("\nPHASE " + (i-1));
-            for(int j = 1; j < adjList.length; j++){
-                for(int k = 1; k < adjList[j].size(); k++){
-                    Vertex u = adjList[j].getFirst();
-                    Vertex v = adjList[adjList[j].get(k).getId()].getFirst();
-                    int w = adjList[j].get(k).getEdge().getWeight();
-                    System.out.println("RELAX ON EDGE [U" + u.getId() + "] --(" + w + ")-> [V" + v.getId() + "]");
-                    relax(u, v, w);
+        if(verbose) System.out.println("\nBELLMAN-FORD SHORTEST PATH ALGORITHM (DIGRAPH)");
+        Workspace ws = Workspace.forCurrentThread(g.getVertexCount());
+        initSingleSource(ws, source);
+        cycle = new int[0];
+        int n = g.getVertexCount();
+        if(mode == Mode.SPFA){
+            cycle = spfa(ws, source);
+        } else {
+            if(mode == Mode.PARALLEL) parallelPhases(ws);
+            else phases(ws, mode == Mode.EARLY_EXIT);
+            int x = 0;
+            for(int u = 1; u <= n; u++) { // phase |V|, any change means a negative cycle
+                for (int k = g.begin(u); k < g.end(u); k++) {
+                    int v = g.target(k);
+                    int w = g.weight(k);
+                    if (ws.dist[u] != Integer.MAX_VALUE && ws.dist[v] > ws.dist[u] + w) {
+                        ws.dist[v] = ws.dist[u] + w;
+                        ws.parent[v] = u;
+                        x = v;
+                    }
+                }
+            }
+            if(x != 0) cycle = cycleFrom(ws.parent, x, n);
+        }
+        if(cycle.length > 0 && verbose){
+            System.out.println("\nNEGATIVE CYCLE DETECTED!!!!");
+            StringBuilder sb = new StringBuilder("CYCLE:");
+            for(int v: cycle) sb.append(" [").append(v).append("] ->");
+            System.out.println(sb.append(" [").append(cycle[0]).append("]"));
+        }
+        dist = Arrays.copyOf(ws.dist, n + 1);
+        parent = Arrays.copyOf(ws.parent, n + 1);
+        return cycle.length == 0;
+    }
+
+    // the n-1 phases, with earlyExit the first phase without a change is the last one
+    private void phases(Workspace ws, boolean earlyExit){
+        int n = g.getVertexCount();
+        for(int i = 2; i <= n; i++){ // n-1 phases
+            if(verbose) System.out.println("\nPHASE " + (i-1));
+            boolean changed = false;
+            for(int u = 1; u <= n; u++){
+                for(int k = g.begin(u); k < g.end(u); k++){
+                    int v = g.target(k);
+                    int w = g.weight(k);
+                    if(verbose) System.out.println("RELAX ON EDGE [U" + u + "] --(" + w + ")-> [V" + v + "]");
+                    changed |= relax(ws, u, v, w);
+                }
+            }
+            if(earlyExit && !changed) return;
+        }
+    }
+
+    /* SPFA (shortest path faster algorithm): Bellmann-Ford that only looks at arcs whose tail changed
+     * Q: FIFO ring of vertices whose distance dropped since they were last scanned, a bitset keeps
+     * every vertex at most once in Q. v.len counts the arcs of the path to v, a path with |V| arcs
+     * holds a cycle, and as it only exists because relaxing it paid off the cycle is negative.
+     * Returns the negative cycle, empty if there is none.
+     */
+    private int[] spfa(Workspace ws, int source){
+        int n = g.getVertexCount();
+        int[] queue = ws.queue; // ring of n+1 slots, at most n vertices are queued
+        long[] queued = new long[(n >> 6) + 1];
+        int[] len = new int[n+1];
+        int head = 0, tail = 0;
+        queue[tail++] = source;
+        queued[source >> 6] |= 1L << source;
+        while(head != tail){
+            int u = queue[head];
+            head = head == n ? 0 : head + 1;
+            queued[u >> 6] &= ~(1L << u);
+            for(int k = g.begin(u); k < g.end(u); k++){
+                int v = g.target(k);
+                int w = g.weight(k);
+                if(verbose) System.out.println("RELAX ON EDGE [U" + u + "] --(" + w + ")-> [V" + v + "]");
+                if(!relax(ws, u, v, w)) continue;
+                len[v] = len[u] + 1;
+                if(len[v] >= n){
+                    int[] c = cycleFrom(ws.parent, v, n);
+                    if(c.length > 0) return c;
+                }
+                if((queued[v >> 6] & (1L << v)) == 0){
+                    queued[v >> 6] |= 1L << v;
+                    queue[tail] = v;
+                    tail = tail == n ? 0 : tail + 1;
                 }
             }
         }
-        for(int i = 1; i < adjList.length; i++){
-            for(int j = 1; j < adjList.length; j++) {
-                for (int k = 1; k < adjList[j].size(); k++) {
-                    Vertex u = adjList[j].getFirst();
-                    Vertex v = adjList[adjList[j].get(k).getId()].getFirst();
-                    int w = adjList[j].get(k).getEdge().getWeight();
-                    if (u.getDistance() != Integer.MAX_VALUE && v.getDistance() > u.getDistance() + w) {
-                        System.out.println("\nNEGATIVE CYCLE DETECTED!!!!");
-                        return false;
+        return new int[0];
+    }
+
+    /* Phases over the flat arc arrays (tail from arcFrom, head & weight from the graph), split into chunks
+     * that all threads relax at once. v.d & v.pred are packed into one long (d << 32 | pred) and updated
+     * by compare & set, so a distance always comes with the predecessor that produced it.
+     * Stops after the first phase without a change (or after n-1 phases).
+     */
+    private void parallelPhases(Workspace ws){
+        final int n = g.getVertexCount();
+        final int[] from = arcFrom();
+        final AtomicLongArray state = new AtomicLongArray(n+1);
+        for(int v = 0; v <= n; v++) state.set(v, pack(ws.dist[v], ws.parent[v]));
+        ExecutorService pool = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+        try {
+            for(int i = 2; i <= n; i++){
+                boolean changed = false;
+                if(pool == null){
+                    changed = relaxArcs(state, from, 0, from.length);
+                } else {
+                    final AtomicInteger next = new AtomicInteger();
+                    List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+                    for(int t = 0; t < threads; t++){
+                        tasks.add(new Callable<Boolean>() {
+                            @Override
+                            public Boolean call() {
+                                boolean changed = false;
+                                for(int c = next.getAndAdd(CHUNK); c < from.length; c = next.getAndAdd(CHUNK))
+                                    changed |= relaxArcs(state, from, c, Math.min(c + CHUNK, from.length));
+                                return changed;
+                            }
+                        });
                     }
+                    for(Future<Boolean> f: pool.invokeAll(tasks)) changed |= f.get();
+                }
+                if(!changed) break;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Bellmann-Ford interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Relaxation failed", e.getCause());
+        } finally {
+            if(pool != null) pool.shutdown();
+        }
+        for(int v = 0; v <= n; v++){
+            long s = state.get(v);
+            ws.dist[v] = (int) (s >> 32);
+            ws.parent[v] = (int) s;
+        }
+    }
+
+    private static long pack(int dist, int parent){
+        return ((long) dist << 32) | (parent & 0xFFFFFFFFL);
+    }
+
+    private boolean relaxArcs(AtomicLongArray state, int[] from, int start, int end){
+        boolean changed = false;
+        for(int k = start; k < end; k++){
+            int u = from[k];
+            int du = (int) (state.get(u) >> 32);
+            if(du == Integer.MAX_VALUE) continue;
+            int v = g.target(k);
+            int d = du + g.weight(k);
+            long cur = state.get(v);
+            while(d < (int) (cur >> 32)){ // atomic min
+                if(state.compareAndSet(v, cur, pack(d, u))){
+                    changed = true;
+                    break;
                 }
+                cur = state.get(v);
             }
         }
-        return true;
+        return changed;
+    }
+
+    private synchronized int[] arcFrom(){
+        if(arcFrom == null){
+            int[] from = new int[g.getArcCount()];
+            for(int u = 1; u <= g.getVertexCount(); u++)
+                Arrays.fill(from, g.begin(u), g.end(u), u);
+            arcFrom = from;
+        }
+        return arcFrom;
+    }
+
+    /* walks v.pred n times (ending on the cycle) and returns the cycle in arc order, empty if a walk hits nil */
+    private static int[] cycleFrom(int[] parent, int v, int n){
+        for(int i = 0; i < n; i++){
+            v = parent[v];
+            if(v == 0) return new int[0];
+        }
+        int len = 1;
+        for(int x = parent[v]; x != v; x = parent[x]) len++;
+        int[] cycle = new int[len];
+        for(int i = len - 1, x = v; i >= 0; i--, x = parent[x]) cycle[i] = x; // pred comes first
+        return cycle;
     }
 
     /* Relax(u, v, w)
@@ -88,18 +280,29 @@ public class BellmannFord {
      *      v.d = u.d + w(u,v)
      *      v.pred = u;
      */
-    private void relax(Vertex u, Vertex v, Integer weight){
-        if(u.getDistance() != Integer.MAX_VALUE && v.getDistance() > u.getDistance() + weight){
-            v.setDistance(u.getDistance() + weight);
-            v.setParent(u);
-            System.out.println("\t[V"+ v.getId() + "] NEW DISTANCE: (" + u.getDistance() + " + " + weight + ")");
+    private boolean relax(Workspace ws, int u, int v, int weight){
+        int[] dist = ws.dist;
+        if(dist[u] != Integer.MAX_VALUE && dist[v] > dist[u] + weight){
+            dist[v] = dist[u] + weight;
+            ws.parent[v] = u;
+            if(verbose) System.out.println("\t[V"+ v + "] NEW DISTANCE: (" + dist[u] + " + " + weight + ")");
+            return true;
         }
+        return false;
     }
 
+    // results of the last run of this instance
+    public int getDistance(int v){ return dist[v]; }
+
+    public int getParent(int v){ return parent[v]; }
+
+    // negative cycle found by the last run (arcs cycle[i] -> cycle[i+1] and back to cycle[0]), empty if none
+    public int[] getNegativeCycle(){ return this.cycle; }
+
     public void printShortestPath(){
         System.out.println("\nBELLMANN-FORD SHORTEST PATH FOR SOURCE VERTEX [" + source + "]");
-        for(int i = 1; i < adjList.length; i++){
-           System.out.println("V[" + adjList[i].getFirst().getId() + "]\tDISTANCE: " + adjList[i].getFirst().getDistance());
+        for(int i = 1; i <= g.getVertexCount(); i++){
+           System.out.println("V[" + i + "]\tDISTANCE: " + dist[i]);
         }
     }
 }
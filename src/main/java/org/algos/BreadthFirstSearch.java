@@ -17,57 +17,64 @@ package org.algos;
  * Overall runtime is O(V+E) but E grows larger than V!
  */
 
+import org.ds.CompressedGraph;
 import org.ds.Graph;
-import org.ds.Vertex;
+import org.ds.ReadOnlyGraph;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.Stack;
+import java.util.Arrays;
 
 
 public class BreadthFirstSearch {
 
-    Stack workingQueue;
-    final LinkedList<Vertex>[] adjList;
-    Integer distance;
-    Vertex.Flag[] flags;
+    final ReadOnlyGraph g;
+    final CompressedGraph cg; // set instead of g when running on compressed adjacency
+    final int vertexCount;
+    boolean verbose;
+    private int[] dist, parent; // results of the last buildTree, copied out of the workspace
 
     public BreadthFirstSearch(Graph g){
-        this.adjList = g.exposeAdjList();
-        this.distance = 0;
-        this.flags = new Vertex.Flag[adjList.length];
+        this(g.exposeCSR());
     }
 
+    /* Runs on any read-only graph (in-heap CSR or memory-mapped store)
+     * The graph is never written, colours, distances, predecessors & the working queue of a run
+     * live in the workspace of the calling thread (see Workspace) until buildTree copies the results out.
+     */
+    public BreadthFirstSearch(ReadOnlyGraph g){
+        this.g = g;
+        this.cg = null;
+        this.vertexCount = g.getVertexCount();
+    }
+
+    // Runs on gap/varint compressed adjacency, neighbours are decoded while scanning
+    public BreadthFirstSearch(CompressedGraph cg){
+        this.g = null;
+        this.cg = cg;
+        this.vertexCount = cg.getVertexCount();
+    }
+
+    // verbose = true prints every visited vertex, off by default
+    public void setVerbose(boolean verbose){ this.verbose = verbose; }
+
     /*
      * Source s (node): color black, distance 0, pred: null ptr
      * all other nodes: color white, distance infinity, pred: null ptr
-     * init working queue Q (Stack), that only contains s at start
+     * init working queue Q, that only contains s at start
      */
-    public Vertex initTree(int s_id){
-        workingQueue = new Stack();
-        Vertex source = null;
-        if(s_id < 1 || s_id > adjList.length+1){
+    public int initTree(int s_id){
+        if(s_id < 1 || s_id > vertexCount){
             System.err.println("Check source node index!");
-        } else {
-            for(int i = 1; i < adjList.length; i++) {
-                for (Vertex v : adjList[i]) {
-                    if (v.getId() == s_id) {
-                        source = v;
-                        source.setDistance(distance);
-                        source.setParent(null);
-                        source.wipeChildren();
-                    } else {
-                        v.setDistance(Integer.MAX_VALUE);
-                        v.setParent(null);
-                        v.wipeChildren();
-                    }
-                }
-            }
-            for(int i = 1; i < flags.length; i++) flags[i] = Vertex.Flag.WHITE;
-            flags[s_id] = Vertex.Flag.BLACK;
+            return 0;
         }
-        workingQueue.push(source); // push to working queue
-        return source;
+        Workspace ws = Workspace.forCurrentThread(vertexCount);
+        int size = vertexCount+1;
+        Arrays.fill(ws.dist, 0, size, Integer.MAX_VALUE);
+        Arrays.fill(ws.parent, 0, size, 0); // 0 is nil, vertex ids start at 1
+        Arrays.fill(ws.color, 0, size, Workspace.WHITE);
+        ws.dist[s_id] = 0;
+        ws.color[s_id] = Workspace.BLACK;
+        ws.queue[0] = s_id; // push to working queue
+        return s_id;
     }
 
     /*
@@ -80,42 +87,63 @@ public class BreadthFirstSearch {
      * O(E) for each Edge exactly once O(E)
      */
     public void buildTree(){
-        Vertex current;
-        while(!workingQueue.empty()) {
-            current = (Vertex) workingQueue.pop();
-            for (Vertex v : adjList[current.getId()]) {
-                if (flags[v.getId()] == Vertex.Flag.BLACK) {/* do nothing */}
-                // also first vertex in linked list is vertex we are referencing by index, so skip it
-                else {
-                    flags[v.getId()] = Vertex.Flag.BLACK; // visited neighbouring node
-                    v.setDistance(current.getDistance()+1); // increment distance
-                    v.setParent(current);
-                    System.out.println("[V" + v.getId() + "]\t" + v +  "\tVISITED\n\t\tSETTING THE PARENT @[V"
-                            + current.getId() + "]\t" + current);
-                    current.addChild(v); // add v as child of current
-                    workingQueue.push(v); // add v to working queue
-                    System.out.println("[V" + v.getId() + "]\tADDED TO WORKING QUEUE");
+        Workspace ws = Workspace.forCurrentThread(vertexCount);
+        if(cg != null) {
+            buildTree(ws, cg.cursor());
+        } else {
+            int[] workingQueue = ws.queue; // FIFO queue, every vertex is enqueued at most once
+            int head = 0, tail = 1; // initTree left the source at the front
+            while(head < tail) {
+                int current = workingQueue[head++];
+                for (int i = g.begin(current); i < g.end(current); i++) {
+                    tail = visit(ws, current, g.target(i), tail);
                 }
             }
         }
+        dist = Arrays.copyOf(ws.dist, vertexCount + 1);
+        parent = Arrays.copyOf(ws.parent, vertexCount + 1);
     }
 
-    public Vertex searchTree(Vertex source, int index){
-        if (source.getId() == index) { // index same as source, done
-            return source;
-        }
-        else if(source.getChildCount() != 0) { // has children
-            ArrayList<Vertex> childList = source.getChildren();
-            Vertex result;
-            for(int i = 0; i < childList.size(); i++){ // loop through source children
-                result = searchTree(childList.get(i), index); // recursive call
-                if(result != null)
-                    return result; // if we found the node, return it!
+    // same loop on compressed adjacency, the cursor decodes the neighbours of current
+    private void buildTree(Workspace ws, CompressedGraph.Cursor neighbours){
+        int head = 0, tail = 1;
+        while(head < tail) {
+            int current = ws.queue[head++];
+            for (neighbours.reset(current); neighbours.hasNext(); ) {
+                tail = visit(ws, current, neighbours.next(), tail);
             }
         }
-        return null;
     }
 
+    // looks at neighbour v of current, returns the new tail of the working queue
+    private int visit(Workspace ws, int current, int v, int tail){
+        if (ws.color[v] == Workspace.BLACK) {/* do nothing */}
+        else {
+            ws.color[v] = Workspace.BLACK; // visited neighbouring node
+            ws.dist[v] = ws.dist[current]+1; // increment distance
+            ws.parent[v] = current;
+            if(verbose) System.out.println("[V" + v + "]\tVISITED\n\t\tSETTING THE PARENT @[V" + current + "]");
+            ws.queue[tail++] = v; // add v to working queue
+            if(verbose) System.out.println("[V" + v + "]\tADDED TO WORKING QUEUE");
+        }
+        return tail;
+    }
+
+    /* Looks for vertex index in the BFS tree of source,
+     * returns index when it was reached from source, else 0
+     */
+    public int searchTree(int source, int index){
+        for(int v = index; v != 0; v = parent[v]){ // walk up the tree
+            if(v == source) return index;
+        }
+        return 0;
+    }
+
+    // results of the last buildTree of this instance
+    public int getDistance(int v){ return dist[v]; }
+
+    public int getParent(int v){ return parent[v]; }
+
     /* Shows a path from source node to vertex v
      * s: source node, v: vertex we want to reach
      * if v == s
@@ -125,14 +153,14 @@ public class BreadthFirstSearch {
      * else printPath(s, v.pred)
      *  print v
      */
-    public void showPath(Vertex s, Vertex v){
+    public void showPath(int s, int v){
         if(v == s){
-            System.out.println("\nPATH TO VERTEX: [" + s.getId() + "] DONE!");
-        } else if(v.getParent() == null) { // no predecessor
+            System.out.println("\nPATH TO VERTEX: [" + s + "] DONE!");
+        } else if(v == 0 || parent[v] == 0) { // no predecessor
             System.out.println("NO PATH BETWEEN s & v!");
         } else {
-            showPath(s, v.getParent());
-            System.out.println("\tV[" + v.getId() + "] (DISTANCE " + v.getDistance() + ")");
+            showPath(s, parent[v]);
+            System.out.println("\tV[" + v + "] (DISTANCE " + dist[v] + ")");
         }
     }
 }
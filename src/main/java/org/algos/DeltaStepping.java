@@ -0,0 +1,217 @@
+package org.algos;
+
+
+import org.ds.Graph;
+import org.ds.ReadOnlyGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/* Delta-stepping (Meyer & Sanders): parallel single source shortest paths for non-negative weights
+ * Vertices wait in buckets of width delta, B[i] holds the vertices with i*delta <= v.d < (i+1)*delta.
+ * Arcs with w <= delta are light, all others heavy.
+ *
+ * DeltaStepping (G, w, s)
+ *      B[0] = [s]
+ *      while some bucket not empty
+ *          i = first non empty bucket
+ *          R = []
+ *          while B[i] not empty                    (light arcs may put vertices back into B[i])
+ *              F = B[i], B[i] = []
+ *              R = R U F
+ *              for each u e F in parallel: relax light arcs (u,v)
+ *          for each u e R in parallel: relax heavy arcs (u,v)   (they never end up in B[i])
+ *
+ * relax(u,v): atomic min of v.d and u.d + w (compare and set on a primitive array), if v.d dropped v is
+ * queued for B[v.d / delta]. Threads collect queued vertices in own buffers, which are merged into the
+ * buckets between phases. Stale entries (v.d dropped to a lower bucket since) are skipped.
+ * Buckets are kept in a ring of maxWeight / delta + 2 slots, no arc reaches further than that.
+ *
+ * delta = 1 degenerates to Dijkstra with buckets (little parallelism), delta = infinity to Bellmann-Ford
+ * (lots of repeated relaxations), a good delta is around maxWeight / average degree.
+ */
+public class DeltaStepping {
+    private static final int CHUNK = 256;        // vertices a thread takes from the frontier at a time
+    private static final int MIN_PARALLEL = 1024; // smaller frontiers are relaxed on the calling thread
+
+    private final ReadOnlyGraph g;
+    private final int threads;
+    private final int maxWeight;
+    private int delta;
+    private AtomicIntegerArray dist;
+
+    public DeltaStepping(Graph g){
+        this(g.exposeCSR());
+    }
+
+    public DeltaStepping(ReadOnlyGraph g){
+        this(g, Runtime.getRuntime().availableProcessors());
+    }
+
+    public DeltaStepping(ReadOnlyGraph g, int threads){
+        this.g = g;
+        this.threads = Math.max(threads, 1);
+        int max = 0;
+        for(int i = 0; i < g.getArcCount(); i++){
+            int w = g.weight(i);
+            if(w < 0) throw new IllegalArgumentException("Delta-stepping needs non-negative weights, arc " + i + " has " + w);
+            max = Math.max(max, w);
+        }
+        this.maxWeight = max;
+        int avgDegree = g.getVertexCount() == 0 ? 1 : Math.max(1, g.getArcCount() / g.getVertexCount());
+        this.delta = Math.max(1, maxWeight / avgDegree);
+    }
+
+    // bucket width, arcs of at most delta are light
+    public void setDelta(int delta){
+        if(delta < 1) throw new IllegalArgumentException("Delta must be positive, was " + delta);
+        this.delta = delta;
+    }
+
+    public int getDelta(){ return this.delta; }
+
+    /* growing int list, one per thread and one per bucket */
+    private static class IntList {
+        int[] a = new int[16];
+        int size;
+
+        void add(int v){
+            if(size == a.length) a = Arrays.copyOf(a, size * 2);
+            a[size++] = v;
+        }
+    }
+
+    public void run(int source){
+        final int n = g.getVertexCount();
+        if(source < 1 || source > n) throw new IllegalArgumentException("Source " + source + " is not a vertex of the graph");
+        final AtomicIntegerArray dist = new AtomicIntegerArray(n + 1);
+        for(int v = 0; v <= n; v++) dist.set(v, Integer.MAX_VALUE);
+        dist.set(source, 0);
+        this.dist = dist;
+
+        IntList[] ring = new IntList[maxWeight / delta + 2];
+        for(int b = 0; b < ring.length; b++) ring[b] = new IntList();
+        final IntList[] buffers = new IntList[threads];
+        for(int t = 0; t < threads; t++) buffers[t] = new IntList();
+        int[] inFrontier = new int[n + 1]; // phase stamp, every vertex once per frontier
+        int[] inSettled = new int[n + 1];  // bucket stamp, every vertex once in R
+        IntList frontier = new IntList();
+        IntList settled = new IntList();
+
+        ExecutorService pool = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+        try {
+            ring[0].add(source);
+            int pending = 1; // entries in the ring
+            int phase = 0;
+            for(int i = 0; pending > 0; i++){
+                IntList bucket = ring[i % ring.length];
+                if(bucket.size == 0) continue;
+                settled.size = 0;
+                while(bucket.size > 0){
+                    phase++;
+                    frontier.size = 0;
+                    for(int k = 0; k < bucket.size; k++){
+                        int u = bucket.a[k];
+                        if(dist.get(u) / delta != i || inFrontier[u] == phase) continue; // stale or twice
+                        inFrontier[u] = phase;
+                        frontier.add(u);
+                        if(inSettled[u] != i + 1){
+                            inSettled[u] = i + 1;
+                            settled.add(u);
+                        }
+                    }
+                    pending -= bucket.size;
+                    bucket.size = 0;
+                    relaxAll(pool, frontier, true, buffers);
+                    pending += collect(buffers, ring);
+                }
+                relaxAll(pool, settled, false, buffers);
+                pending += collect(buffers, ring);
+            }
+        } finally {
+            if(pool != null) pool.shutdown();
+        }
+    }
+
+    /* relaxes the light (or heavy) arcs of all vertices in the list, on all threads if it is large enough */
+    private void relaxAll(ExecutorService pool, final IntList list, final boolean light, final IntList[] buffers){
+        if(pool == null || list.size < MIN_PARALLEL){
+            relax(list.a, 0, list.size, light, buffers[0]);
+            return;
+        }
+        final AtomicInteger next = new AtomicInteger();
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for(int t = 0; t < threads; t++){
+            final IntList buffer = buffers[t];
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for(int from = next.getAndAdd(CHUNK); from < list.size; from = next.getAndAdd(CHUNK))
+                        relax(list.a, from, Math.min(from + CHUNK, list.size), light, buffer);
+                    return null;
+                }
+            });
+        }
+        try {
+            for(Future<Void> f: pool.invokeAll(tasks)) f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Delta-stepping interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Relaxation failed", e.getCause());
+        }
+    }
+
+    private void relax(int[] vertices, int from, int to, boolean light, IntList queued){
+        AtomicIntegerArray dist = this.dist;
+        for(int k = from; k < to; k++){
+            int u = vertices[k];
+            int du = dist.get(u);
+            for(int i = g.begin(u); i < g.end(u); i++){
+                int w = g.weight(i);
+                if((w <= delta) != light) continue;
+                int v = g.target(i);
+                int d = du + w;
+                int old = dist.get(v);
+                while(d < old){ // atomic min
+                    if(dist.compareAndSet(v, old, d)){
+                        queued.add(v);
+                        break;
+                    }
+                    old = dist.get(v);
+                }
+            }
+        }
+    }
+
+    // moves the queued vertices of all threads into their buckets, returns how many were moved
+    private int collect(IntList[] buffers, IntList[] ring){
+        int moved = 0;
+        for(IntList buffer: buffers){
+            for(int k = 0; k < buffer.size; k++){
+                int v = buffer.a[k];
+                ring[(dist.get(v) / delta) % ring.length].add(v);
+            }
+            moved += buffer.size;
+            buffer.size = 0;
+        }
+        return moved;
+    }
+
+    // distance of v after the last run, Integer.MAX_VALUE if not reachable
+    public int getDistance(int v){ return dist.get(v); }
+
+    public int[] getDistances(){
+        int[] d = new int[dist.length()];
+        for(int v = 0; v < d.length; v++) d[v] = dist.get(v);
+        return d;
+    }
+}
@@ -1,11 +1,12 @@
 package org.algos;
 
 
+import org.ds.CSR;
+import org.ds.CompressedGraph;
 import org.ds.Graph;
-import org.ds.Vertex;
+import org.ds.ReadOnlyGraph;
 
-import java.util.LinkedList;
-import java.util.Stack;
+import java.util.Arrays;
 
 
 /* Depth First Search
@@ -22,80 +23,179 @@ import java.util.Stack;
  * Define a DFS forest G' = (V, E') with E' = {(v.pred, v) | v element of V and v.pred != null} -> Tree edges
  */
 public class DepthFirstSearch {
-    Integer time;
-    LinkedList<Vertex>[] adjList;
-    Vertex.Flag[] flags;
+    final ReadOnlyGraph g;
+    final CompressedGraph cg; // set instead of g when running on compressed adjacency
+    final int vertexCount;
+    boolean verbose;
+    private int[] discovered, finished, parent; // results of the last depthSearch or topSort, copied out of the workspace
 
     public DepthFirstSearch(Graph g){
-        this.adjList = g.exposeAdjList();
-        this.flags = new Vertex.Flag[adjList.length];
+        this(g.exposeCSR());
     }
 
-    private void init(){
-        for(int i = 1; i < adjList.length; i++) {
-            for (Vertex v : adjList[i]) {
-                v.setParent(null);
-                v.setDiscoveryTime(null);
-                v.setFinishTime(null);
-            }
-        }
-        for(int i = 1; i < flags.length; i++) flags[i] = Vertex.Flag.WHITE;
+    /* Runs on any read-only graph, colours, predecessors, discovery & finishing times of a run
+     * live in the workspace of the calling thread (see Workspace) until they are copied out, the graph is never written.
+     */
+    public DepthFirstSearch(ReadOnlyGraph g){
+        this.g = g;
+        this.cg = null;
+        this.vertexCount = g.getVertexCount();
+    }
+
+    // Runs on gap/varint compressed adjacency, neighbours are decoded while scanning
+    public DepthFirstSearch(CompressedGraph cg){
+        this.g = null;
+        this.cg = cg;
+        this.vertexCount = cg.getVertexCount();
+    }
+
+    // verbose = true prints discovery & finishing steps, off by default
+    public void setVerbose(boolean verbose){ this.verbose = verbose; }
+
+    private Workspace init(){
+        Workspace ws = Workspace.forCurrentThread(vertexCount);
+        int size = vertexCount+1;
+        Arrays.fill(ws.parent, 0, size, 0); // 0 is nil, vertex ids start at 1
+        Arrays.fill(ws.discovered, 0, size, 0);
+        Arrays.fill(ws.finished, 0, size, 0);
+        Arrays.fill(ws.color, 0, size, Workspace.WHITE);
+        return ws;
     }
 
-    /* All nodes white (0), predecessor: NULL ptr, time var (global): 0 */
+    /* All nodes white (0), predecessor: NULL ptr, time var (per run): 0 */
     public void depthSearch(){
-        init();
-        time = 0;
-        System.out.println("\nDEPTH SEARCH (DIGRAPH):\n");
-        for(int i = 1; i < adjList.length; i++){
-            if(flags[adjList[i].getFirst().getId()] == Vertex.Flag.WHITE){ // if WHITE visit
-                visit(adjList, adjList[i], null, null, false);
+        Workspace ws = init();
+        int time = 0;
+        if(verbose) System.out.println("\nDEPTH SEARCH (DIGRAPH):\n");
+        for(int i = 1; i <= vertexCount; i++){
+            if(ws.color[i] == Workspace.WHITE){ // if WHITE visit
+                time = visitRoot(ws, i, time, null);
             }
         }
+        keep(ws);
+    }
+
+    private void keep(Workspace ws){
+        discovered = Arrays.copyOf(ws.discovered, vertexCount + 1);
+        finished = Arrays.copyOf(ws.finished, vertexCount + 1);
+        parent = Arrays.copyOf(ws.parent, vertexCount + 1);
     }
 
+    // results of the last depthSearch or topSort of this instance
+    public int getDiscovered(int v){ return discovered[v]; }
+
+    public int getFinished(int v){ return finished[v]; }
+
+    public int getParent(int v){ return parent[v]; }
+
     /*
      * First node, discovery time 1, then for each adjacent node:
      * If not visited (flag 0)
      *      set the predecessor of this node (current node)
-     *      then recursively call visit for this node
-     * After return of control, colour current node black
+     *      then visit this node
+     * After all adjacent nodes are done, colour current node black
      * increment time and save finish time
-     * Idea: do not program it recursively instead we could use a call stack, because sometimes it is more
-     * efficient than the runtime environment call stack of java.
      * The algorithm builds the tree from bottom up, we need to turn it to get our DFS forest
-     * !!! COULD BE written with local heap stack instead of recursion !!!
+     *
+     * Not recursive: the path from the root lives on an explicit stack in the workspace (ws.stack), every level
+     * remembers its vertex and the next arc to explore. Paths of millions of vertices need no thread stack,
+     * the order of discovery & finishing is the same as with recursion.
+     *
+     * order (optional): finished vertices are appended at order[0] (count) + 1, i.e. sorted by f(u)
+     * returns the time after root is finished
      */
-    public void visit(LinkedList<Vertex>[] adjList, LinkedList<Vertex> adj, Stack s, LinkedList<Vertex> topSort, boolean scc) {
-        Vertex u = adj.getFirst();
-        if(!scc) {
-            time = time + 1;
-            System.out.println("[V" + u.getId() + "]\tDISCOVERED ON STEP " + time);
-            u.setDiscoveryTime(time); // set discovery time for calling vertex
+    private int visit(ReadOnlyGraph g, Workspace ws, int root, int time, int[] order, boolean scc) {
+        long[] stack = ws.stack;
+        int top = 0;
+        time = discover(ws, root, time, scc);
+        stack[0] = level(root, g.begin(root));
+        while(top >= 0){
+            int u = (int) (stack[top] >>> 32);
+            int i = (int) stack[top];
+            int end = g.end(u);
+            while(i < end && ws.color[g.target(i)] != Workspace.WHITE) i++; // explore edge (u, v)
+            if(i < end){ // adjacent vertex white: go down, continue u after this arc later
+                int v = g.target(i);
+                stack[top] = level(u, i + 1);
+                if(!scc)
+                    ws.parent[v] = u; // set its parent
+                time = discover(ws, v, time, scc);
+                stack[++top] = level(v, g.begin(v));
+            } else {
+                time = finish(ws, u, time, order, scc);
+                top--;
+            }
         }
-        flags[u.getId()] = Vertex.Flag.GRAY; // set colour to GRAY (discovered)
-        if(scc)
-            System.out.print("[V" + u.getId() + "]\t");
-        for(int i = 0; i < adj.size(); i++){ // explore edge (u, v), skip first since its u node
-            // skip first since its calling node
-            if(flags[adj.get(i).getId()] == Vertex.Flag.WHITE){ // adjacent vertex white?
+        return time;
+    }
+
+    /* same visit on compressed adjacency, a level keeps the byte position of its cursor (-1: not started),
+     * one cursor decodes all levels (see CompressedGraph.Cursor.resume)
+     */
+    private int visit(CompressedGraph.Cursor neighbours, Workspace ws, int root, int time, int[] order, boolean scc) {
+        long[] stack = ws.stack;
+        int top = 0;
+        int child = 0; // vertex finished last, the neighbour its parent continues after
+        time = discover(ws, root, time, scc);
+        stack[0] = level(root, -1);
+        while(top >= 0){
+            int u = (int) (stack[top] >>> 32);
+            int pos = (int) stack[top];
+            if(pos == -1) neighbours.reset(u);
+            else neighbours.resume(u, pos, child);
+            int v = 0;
+            while(neighbours.hasNext()){ // explore edge (u, v)
+                int w = neighbours.next();
+                if(ws.color[w] == Workspace.WHITE){ v = w; break; }
+            }
+            if(v != 0){ // adjacent vertex white
+                stack[top] = level(u, neighbours.position());
                 if(!scc)
-                    adj.get(i).setParent(u); // set its parent
-                visit(adjList, adjList[adj.get(i).getId()], s, topSort, scc); // recursive call
+                    ws.parent[v] = u; // set its parent
+                time = discover(ws, v, time, scc);
+                stack[++top] = level(v, -1);
+            } else {
+                time = finish(ws, u, time, order, scc);
+                child = u;
+                top--;
             }
         }
-        flags[u.getId()] = Vertex.Flag.BLACK; // set to black after return of control
-        if(s != null) {
+        return time;
+    }
+
+    private static long level(int v, int position){
+        return ((long) v << 32) | (position & 0xffffffffL);
+    }
+
+    private int visitRoot(Workspace ws, int u, int time, int[] order){
+        if(cg != null) return visit(cg.cursor(), ws, u, time, order, false);
+        return visit(g, ws, u, time, order, false);
+    }
+
+    private int discover(Workspace ws, int u, int time, boolean scc){
+        if(!scc) {
+            time = time + 1;
+            if(verbose) System.out.println("[V" + u + "]\tDISCOVERED ON STEP " + time);
+            ws.discovered[u] = time; // set discovery time for calling vertex
+        }
+        ws.color[u] = Workspace.GRAY; // set colour to GRAY (discovered)
+        if(scc)
+            System.out.print("[V" + u + "]\t");
+        return time;
+    }
+
+    private int finish(Workspace ws, int u, int time, int[] order, boolean scc){
+        ws.color[u] = Workspace.BLACK; // set to black after return of control
+        if(order != null) {
             // after calling recursive DFS for adjacent vertices of a vertex, push vertex to stack (sorted by f(u))
-            s.push(u);
+            order[++order[0]] = u;
         }
         if(!scc){
             time = time + 1;
-            u.setFinishTime(time); // set finishing time
-            System.out.println("[V" + u.getId() + "]\tFINISHED ON STEP " + time);
-            if(topSort != null)
-                topSort.add(u);  // add to linked list if topological sort
+            ws.finished[u] = time; // set finishing time
+            if(verbose) System.out.println("[V" + u + "]\tFINISHED ON STEP " + time);
         }
+        return time;
     }
 
     /* Topological sort of a DAG (directed, acyclic graph) is a sort of all nodes,
@@ -112,25 +212,36 @@ public class DepthFirstSearch {
      * 3. return that list
      * A directed graph G is acyclic exactly then when DFS gives us no back edges
      */
-    public LinkedList<Vertex> topSort(){
-        LinkedList<Vertex> topSort;
-        topSort = new LinkedList<>();
-        init();
-        time = 0;
-        for(int i = 1; i < adjList.length; i++){
-            if(flags[adjList[i].getFirst().getId()] == Vertex.Flag.WHITE){ // if WHITE visit
-                visit(adjList, adjList[i], null, topSort, false);
+    public int[] topSort(){
+        Workspace ws = init();
+        int[] finishOrder = finishOrder(ws);
+        keep(ws);
+        int n = vertexCount;
+        int[] topSort = new int[n];
+        for(int i = 0; i < n; i++)
+            topSort[i] = finishOrder[n - i]; // add to the front: descending finishing times
+        return topSort;
+    }
+
+    // runs DFS(G) over all vertices, returns [count, vertices in ascending order of v.f]
+    private int[] finishOrder(Workspace ws){
+        int[] order = ws.queue;
+        order[0] = 0;
+        int time = 0;
+        for(int i = 1; i <= vertexCount; i++){
+            if(ws.color[i] == Workspace.WHITE){ // if WHITE visit
+                time = visitRoot(ws, i, time, order);
             }
         }
-        return topSort;
+        return order;
     }
 
-    public void printTopSort(LinkedList<Vertex> topSortList){
+    public void printTopSort(int[] topSortList){
         System.out.println("\nTOPOLOGICAL SORT (DIGRAPH):\n");
-        for(Vertex v: topSortList){
-            System.out.println("V[" + v.getId() + "]\tDISCOVERY: "
-                    + v.getDiscoveryTime() + "\tFINISHED: "
-                    + v.getFinishTime());
+        for(int v: topSortList){
+            System.out.println("V[" + v + "]\tDISCOVERY: "
+                    + discovered[v] + "\tFINISHED: "
+                    + finished[v]);
         }
         System.out.println("\nTOPOLOGICAL SORT (DIGRAPH) FINISHED...\n");
     }
@@ -144,54 +255,30 @@ public class DepthFirstSearch {
      */
     public void SCC(){
         System.out.println("STRONGLY CONNECTED COMPONENTS (DIGRAPH):");
-        Stack s = new Stack(); // Create empty stack S
-        init(); // reset adj list
-        time = 0;
+        Workspace ws = init(); // reset state
         System.out.println("DFS TRAVERSAL FOR G:");
-        for(int i = 1; i < adjList.length; i++){ // DFS traversal of graph G
-            if(flags[adjList[i].getFirst().getId()] == Vertex.Flag.WHITE){ // if WHITE visit
-                visit(adjList, adjList[i], s, null, false);
-            }
-        }
+        int[] s = finishOrder(ws); // DFS traversal of graph G, s acts as stack sorted by f(u)
         System.out.println("\nTRANSPOSING ADJACENCY LIST (CREATING G')");
         // Reverse directions of all arcs to obtain transpose graph
-        LinkedList<Vertex>[] transposedAdj = transpose(adjList); // create transposed G
+        CSR transposed = cg == null ? transpose(g) : null; // create transposed G
+        CompressedGraph.Cursor cursor = cg == null ? null : cg.transpose().cursor();
+        Arrays.fill(ws.color, 0, vertexCount+1, Workspace.WHITE);
 
         System.out.println("PRINTING STRONGLY CONNECTED COMPONENTS FOR G'");
-        while(!s.empty()) { // One by one pop vertex from S while S not empty
-            Vertex v = (Vertex) s.pop();
-            if(flags[v.getId()] == Vertex.Flag.WHITE) { // Let popped vertex be v, take v as source and do DFS
-                visit(transposedAdj, transposedAdj[v.getId()], null, null, true);
+        for(int top = s[0]; top > 0; top--) { // One by one pop vertex from S while S not empty
+            int v = s[top];
+            if(ws.color[v] == Workspace.WHITE) { // Let popped vertex be v, take v as source and do DFS
+                if(transposed != null) visit(transposed, ws, v, 0, null, true);
+                else visit(cursor, ws, v, 0, null, true);
                 System.out.println();
             }
         }
     }
 
-    /* create G' a transposed adjacency list with edges flipped (u,v) to (v,u) for each edge */
-    public LinkedList<Vertex>[] transpose(LinkedList<Vertex>[] adjList){
-        LinkedList<Vertex>[] transposedAdjList;
-        transposedAdjList = new LinkedList[adjList.length];
-        for(int i = 1; i < adjList.length; i++){
-            for(int j = 1; j < adjList[i].size(); j++){
-                if(transposedAdjList[adjList[i].get(j).getId()] == null){
-                    transposedAdjList[adjList[i].get(j).getId()] = new LinkedList<Vertex>();
-
-                    Vertex v = adjList[adjList[i].get(j).getId()].getFirst();
-                    flags[v.getId()] = Vertex.Flag.WHITE;
-                    transposedAdjList[adjList[i].get(j).getId()].add(v);
-                }
-                if(transposedAdjList[i] == null){
-                    transposedAdjList[i] = new LinkedList<Vertex>();
-
-                    Vertex v = adjList[i].getFirst();
-                    flags[v.getId()] = Vertex.Flag.WHITE;
-                    transposedAdjList[i].addFirst(v);
-                }
-                Vertex v = adjList[i].getFirst();
-                flags[v.getId()] = Vertex.Flag.WHITE;
-                transposedAdjList[adjList[i].get(j).getId()].add(v);
-            }
-        }
-        return transposedAdjList;
+    /* create G' a transposed adjacency list with edges flipped (u,v) to (v,u) for each edge
+     * Counting sort of all arcs by their head vertex, O(V+E)
+     */
+    public CSR transpose(ReadOnlyGraph g){
+        return CSR.transpose(g);
     }
 }
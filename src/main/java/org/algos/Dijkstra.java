@@ -1,29 +1,80 @@
 package org.algos;
 
+import org.ds.CSR;
 import org.ds.Graph;
-import org.ds.Vertex;
+import org.ds.IndexedHeap;
+import org.ds.IntPriorityQueue;
+import org.ds.ReadOnlyGraph;
 
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.PriorityQueue;
+import java.util.Arrays;
 
 public class Dijkstra {
-    private Graph g;
-    private LinkedList<Vertex>[] adjList;
-    private PriorityQueue<Vertex> pq;
-    private HashSet<Integer> solved;
-    private Integer source;
+
+    /* Priority queue Q of dijkstra()
+     *      HEAP:  indexed 4-ary heap, any weights (negative ones give wrong distances, but no error)
+     *      DIAL:  ring of maxWeight+1 buckets, for small non-negative integer weights (at most DIAL_MAX_WEIGHT)
+     *      RADIX: radix heap, non-negative weights of any size
+     *      AUTO:  DIAL if all weights are in [0, DIAL_MAX_WEIGHT], RADIX for larger ones, HEAP with negative ones
+     */
+    public enum Queue { AUTO, HEAP, DIAL, RADIX }
+
+    static final int DIAL_MAX_WEIGHT = 1 << 12; // ring of at most 4097 buckets
+
+    private final ReadOnlyGraph g;
+    private final int source;
+    private boolean verbose;
+    private ReadOnlyGraph reverse; // G' for backward searches, built on first use
+    private Queue queue = Queue.AUTO;
+    private int minWeight, maxWeight = -1; // weight range, scanned on first use
+    private int[] dist, parent; // results of dijkstra(), copied out of the workspace
 
     /* Different to Bellmann-Ford because it CAN NOT detect negative cycles,
      * thus not capable of handling negative weights correctly!
      * */
     public Dijkstra(Graph g, int source){
+        this(g.exposeCSR(), source);
+    }
+
+    /* Runs on any read-only graph (in-heap CSR or memory-mapped store)
+     * The graph is never written, a run works in the workspace of the calling thread,
+     * so several Dijkstra runs can share one graph concurrently.
+     */
+    public Dijkstra(ReadOnlyGraph g, int source){
         this.g = g;
         this.source = source;
-        adjList = g.exposeAdjList();
-        pq = new PriorityQueue<>(adjList.length-1, Vertex.getDistanceComp());
-        solved = new HashSet<>();
-        initSingleSource();
+    }
+
+    // verbose = true prints every relaxation (a string per arc), off by default
+    public void setVerbose(boolean verbose){ this.verbose = verbose; }
+
+    public void setQueue(Queue queue){ this.queue = queue; }
+
+    // queue dijkstra() runs on, AUTO resolved by the weight range of the graph
+    public synchronized Queue getQueue(){
+        if(maxWeight < 0){
+            int min = 0, max = 0;
+            for(int i = 0; i < g.getArcCount(); i++){
+                min = Math.min(min, g.weight(i));
+                max = Math.max(max, g.weight(i));
+            }
+            minWeight = min;
+            maxWeight = max;
+        }
+        if(queue != Queue.AUTO && queue != Queue.HEAP && minWeight < 0)
+            throw new IllegalStateException(queue + " queue needs non-negative weights, found " + minWeight);
+        if(queue == Queue.DIAL && maxWeight > DIAL_MAX_WEIGHT) // one bucket per weight
+            throw new IllegalStateException("DIAL queue needs weights up to " + DIAL_MAX_WEIGHT + ", found " + maxWeight);
+        if(queue != Queue.AUTO) return queue;
+        if(minWeight < 0) return Queue.HEAP;
+        return maxWeight <= DIAL_MAX_WEIGHT ? Queue.DIAL : Queue.RADIX;
+    }
+
+    private IntPriorityQueue queue(Workspace ws){
+        switch(getQueue()){
+            case DIAL: return ws.dial(g.getVertexCount(), maxWeight);
+            case RADIX: return ws.radix(g.getVertexCount());
+            default: return ws.heap(g.getVertexCount());
+        }
     }
 
     /* Init-Single-Source(G, s)
@@ -32,52 +83,185 @@ public class Dijkstra {
      *      v.pred = nil
      * s.d = 0
      */
-    private int initSingleSource(){
-        for(int i = 1; i < adjList.length; i++){
-            adjList[i].getFirst().setDistance(Integer.MAX_VALUE);
-            adjList[i].getFirst().setParent(null);
-        }
-        Vertex s = adjList[source].getFirst();
-        s.setDistance(0);
-        s.setParent(null);
-        pq.add(s);
+    private int initSingleSource(Workspace ws, int source){
+        int size = g.getVertexCount()+1;
+        Arrays.fill(ws.dist, 0, size, Integer.MAX_VALUE);
+        Arrays.fill(ws.parent, 0, size, 0); // 0 is nil, vertex ids start at 1
+        Arrays.fill(ws.color, 0, size, Workspace.WHITE); // BLACK: solved
+        ws.dist[source] = 0;
         return source;
     }
 
+    // heap key (distance << 32 | vertex id): ordered by distance, ties by vertex id
+    private static long key(int distance, int v){
+        return ((long) distance << 32) | v;
+    }
+
     /* Dijkstra (G, w, s)
      * while Q not empty
      *      u = extract-min(Q)
      *      S = S U [u]
      *      for each v e G.Adj[u]
      *          Relax(u,v,w)
+     *
+     * Q holds every vertex at most once, Relax lowers the key of v in place (decrease-key) instead of
+     * inserting a second entry. S is the colour BLACK in the workspace. Q is picked by setQueue (see Queue):
+     * with integer weights the bucket queues (Dial, radix heap) replace the O(log n) heap operations by
+     * O(1) bucket moves. Nothing is allocated per relaxation, Q & arrays come from the workspace of the thread.
      */
     public void dijkstra(){
-        System.out.println("\nDIJKSTRA SHORTEST PATH ALGORITHM (DIGRAPH)\n");
-        while(pq.size() != 0){
-            Vertex u = pq.poll(); // get min distance node
-            solved.add(u.getId());
-            for(int i = 1; i < adjList[u.getId()].size(); i++){ // get neighbours 'v'
-                Vertex v = adjList[adjList[u.getId()].get(i).getId()].getFirst();
-                int w = adjList[u.getId()].get(i).getEdge().getWeight(); // get weight of v
-                System.out.println("RELAX ON EDGE [U" + u.getId() + "] --(" + w + ")-> [V" + v.getId() + "]");
-                relax(u, v, w);
-                if(!solved.contains(v.getId())) pq.add(v); // add to Q if not done with node already
+        if(verbose) System.out.println("\nDIJKSTRA SHORTEST PATH ALGORITHM (DIGRAPH)\n");
+        Workspace ws = run(source);
+        dist = Arrays.copyOf(ws.dist, g.getVertexCount() + 1);
+        parent = Arrays.copyOf(ws.parent, g.getVertexCount() + 1);
+    }
+
+    // dijkstra() from any source, one instance can serve all threads (see BatchDijkstra), results stay in the workspace
+    Workspace run(int source){
+        Workspace ws = Workspace.forCurrentThread(g.getVertexCount());
+        initSingleSource(ws, source);
+        IntPriorityQueue q = queue(ws);
+        q.offer(source, 0);
+        while(!q.isEmpty()){
+            int u = q.poll(); // get min distance node
+            ws.color[u] = Workspace.BLACK;
+            for(int i = g.begin(u); i < g.end(u); i++){ // get neighbours 'v'
+                int v = g.target(i);
+                int w = g.weight(i); // get weight of v
+                if(verbose) System.out.println("RELAX ON EDGE [U" + u + "] --(" + w + ")-> [V" + v + "]");
+                if(relax(ws, u, v, w) && ws.color[v] != Workspace.BLACK)
+                    q.offer(v, ws.dist[v]); // add to Q or move up if not done with node already
+            }
+        }
+        return ws;
+    }
+
+    private boolean relax(Workspace ws, int u, int v, int weight){
+        int[] dist = ws.dist;
+        if(dist[u] != Integer.MAX_VALUE && dist[v] > dist[u] + weight){
+            dist[v] = dist[u] + weight;
+            ws.parent[v] = u;
+            if(verbose) System.out.println("\t[V"+ v + "] NEW DISTANCE: (" + dist[u] + " + " + weight + ")");
+            return true;
+        }
+        return false;
+    }
+
+    /* Single pair query s -> t, stops as soon as t is extracted from Q
+     * Only vertices closer to s than t are settled, the full tree is never built.
+     */
+    public ShortestPath shortestPath(int s, int t){
+        return search(s, t, null);
+    }
+
+    /* A*: Dijkstra with Q ordered by v.d + h(v), vertices towards t are extracted first
+     * With a consistent heuristic no vertex is settled twice, an admissible one may reopen vertices
+     * (a settled vertex whose distance still drops goes back into Q) but still returns a shortest path.
+     */
+    public ShortestPath shortestPathAStar(int s, int t, Heuristic h){
+        return search(s, t, h);
+    }
+
+    private ShortestPath search(int s, int t, Heuristic h){
+        Workspace ws = Workspace.forCurrentThread(g.getVertexCount());
+        initSingleSource(ws, s);
+        int[] dist = ws.dist;
+        IndexedHeap q = ws.heap(g.getVertexCount());
+        q.insert(s, key(h == null ? 0 : h.estimate(s, t), s));
+        int settled = 0;
+        while(!q.isEmpty()){
+            int u = q.extractMin();
+            ws.color[u] = Workspace.BLACK;
+            settled++;
+            if(u == t) break; // early exit, dist[t] is final
+            for(int i = g.begin(u); i < g.end(u); i++){
+                int v = g.target(i);
+                int d = dist[u] + g.weight(i);
+                if(d < dist[v] && (h != null || ws.color[v] != Workspace.BLACK)){
+                    dist[v] = d;
+                    ws.parent[v] = u;
+                    q.insertOrDecrease(v, key(h == null ? d : d + h.estimate(v, t), v));
+                }
             }
         }
+        if(dist[t] == Integer.MAX_VALUE) return new ShortestPath(s, t, Integer.MAX_VALUE, new int[0], settled);
+        int length = 1;
+        for(int v = t; v != s; v = ws.parent[v]) length++;
+        int[] path = new int[length];
+        for(int v = t, i = length - 1; i >= 0; v = ws.parent[v]) path[i--] = v;
+        return new ShortestPath(s, t, dist[t], path, settled);
     }
 
-    private void relax(Vertex u, Vertex v, Integer weight){
-        if(u.getDistance() != Integer.MAX_VALUE && v.getDistance() > u.getDistance() + weight){
-            v.setDistance(u.getDistance() + weight);
-            v.setParent(u);
-            System.out.println("\t[V"+ v.getId() + "] NEW DISTANCE: (" + u.getDistance() + " + " + weight + ")");
+    /* Bidirectional Dijkstra: one search forward from s on G, one backward from t on G'
+     * The side with the smaller Q settles the next vertex. Every scanned arc (u,v) checks whether v was
+     * reached by the other side, best = min(v.d + v.d') is the shortest s -> t path seen so far.
+     * Stop as soon as min(Q) + min(Q') >= best, no path through unsettled vertices can be shorter.
+     * Forward state lives in the workspace of the thread, backward state in its partner.
+     */
+    public ShortestPath shortestPathBidirectional(int s, int t){
+        int n = g.getVertexCount();
+        ReadOnlyGraph back = reverse();
+        Workspace fw = Workspace.forCurrentThread(n);
+        Workspace bw = fw.partner(n);
+        initSingleSource(fw, s);
+        initSingleSource(bw, t);
+        IndexedHeap qf = fw.heap(n);
+        IndexedHeap qb = bw.heap(n);
+        qf.insert(s, key(0, s));
+        qb.insert(t, key(0, t));
+        long best = s == t ? 0 : Long.MAX_VALUE;
+        int meet = s == t ? s : 0;
+        int settled = 0;
+        while(!qf.isEmpty() && !qb.isEmpty()){
+            if((qf.peekKey() >>> 32) + (qb.peekKey() >>> 32) >= best) break;
+            boolean forward = qf.size() <= qb.size();
+            Workspace ws = forward ? fw : bw;
+            Workspace other = forward ? bw : fw;
+            ReadOnlyGraph graph = forward ? g : back;
+            IndexedHeap q = forward ? qf : qb;
+            int u = q.extractMin();
+            ws.color[u] = Workspace.BLACK;
+            settled++;
+            for(int i = graph.begin(u); i < graph.end(u); i++){
+                int v = graph.target(i);
+                int d = ws.dist[u] + graph.weight(i);
+                if(d < ws.dist[v] && ws.color[v] != Workspace.BLACK){
+                    ws.dist[v] = d;
+                    ws.parent[v] = u;
+                    q.insertOrDecrease(v, key(d, v));
+                }
+                if(other.dist[v] != Integer.MAX_VALUE && (long) ws.dist[v] + other.dist[v] < best){
+                    best = (long) ws.dist[v] + other.dist[v]; // s -> v -> t
+                    meet = v;
+                }
+            }
         }
+        if(meet == 0) return new ShortestPath(s, t, Integer.MAX_VALUE, new int[0], settled);
+        int length = 1;
+        for(int v = meet; v != s; v = fw.parent[v]) length++;
+        int forwardLength = length;
+        for(int v = meet; v != t; v = bw.parent[v]) length++;
+        int[] path = new int[length];
+        for(int v = meet, i = forwardLength - 1; i >= 0; v = fw.parent[v]) path[i--] = v; // s .. meet
+        for(int v = meet, i = forwardLength; i < length; i++) path[i] = v = bw.parent[v]; // meet .. t
+        return new ShortestPath(s, t, (int) best, path, settled);
+    }
+
+    // G' (arcs flipped), an undirected graph is its own transpose
+    private synchronized ReadOnlyGraph reverse(){
+        if(reverse == null) reverse = g.isDirected() ? CSR.transpose(g) : g;
+        return reverse;
     }
 
+    // results of the last dijkstra() of this instance
+    public int getDistance(int v){ return dist[v]; }
+
+    public int getParent(int v){ return parent[v]; }
+
     public void printShortestPath(){
         System.out.println("\nDIJKSTRA SHORTEST PATH FOR SOURCE VERTEX [" + source + "]");
-        for(int i = 1; i < adjList.length; i++){
-            System.out.println("V[" + adjList[i].getFirst().getId() + "]\tDISTANCE: " + adjList[i].getFirst().getDistance());
+        for(int i = 1; i <= g.getVertexCount(); i++){
+            System.out.println("V[" + i + "]\tDISTANCE: " + dist[i]);
         }
     }
 }
@@ -0,0 +1,16 @@
+package org.algos;
+
+
+import java.io.IOException;
+
+/* Receiver of single source shortest path results (see BatchDijkstra)
+ *      accept(s, dist, parent)   once per source, as soon as its run is done
+ *
+ * dist[v] and parent[v] are valid for v = 1..n (Integer.MAX_VALUE / 0 when v is not reachable) and are
+ * the workspace arrays of the worker thread, overwritten by its next run: a sink must copy what it keeps.
+ * Worker threads call accept concurrently, in no particular order of the sources.
+ */
+public interface DistanceSink {
+
+    void accept(int source, int[] dist, int[] parent) throws IOException;
+}
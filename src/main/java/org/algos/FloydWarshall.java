@@ -1,68 +1,234 @@
 package org.algos;
 
 import org.ds.Graph;
+import org.ds.WeightMatrix;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class FloydWarshall {
+    private static final int INF = WeightMatrix.INF;
+    private static final int BLOCK = 64; // tile of 64 x 64 ints (16 KB) stays in L1/L2
 
-    private Integer[][] weightAdjMatrix;
-    int rowSize, colSize;
+    private final WeightMatrix weights;
+    private final int size;
+    private boolean verbose;
+    private boolean trackPaths;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int[] d;    // distance matrix of the last run, flat like WeightMatrix
+    private int[] next; // next[i*size + j]: vertex after i on a shortest i -> j path, 0 if none
 
     public FloydWarshall(Graph g){
-        weightAdjMatrix = g.exposeWeightAdjMatrix();
-        rowSize = g.getAdjRowSize();
-        colSize = g.getAdjColSize();
+        this(g.exposeWeightMatrix());
+    }
+
+    // the matrix is copied before the run, the graph's own matrix is never written
+    public FloydWarshall(WeightMatrix weights){
+        this.weights = weights;
+        this.size = weights.getSize();
     }
 
-    public Integer[][] floydwarshall(){
-        int n = rowSize-1;
-        Integer[][][] wMats = new Integer[n+1][rowSize][colSize];
-        wMats[0] = weightAdjMatrix; // init matrix here with input weight matrix
-        for(int k = 1; k <= n; k++){
-            // Create new matrix with same dimensions
-            wMats[k] = new Integer[rowSize][colSize];
-            System.out.println("\nWEIGHT MATRIX - ITERATION: " + k);
-            for(int i = 1; i <= n; i++){
-                for(int j = 1; j <= n; j++){
-                    // entry of current new matrix at index i,j (i is from, j is to) overwritten by min function
-                    wMats[k][i][j] = min(wMats[k-1][i][j], wMats[k-1][i][k], wMats[k-1][k][j]);
+    // verbose = true prints the matrix after every iteration k (plain k loop instead of the tiled one), off by default
+    public void setVerbose(boolean verbose){ this.verbose = verbose; }
+
+    /* keep the next matrix for getPath (one more int per cell), runs the plain k loop: in the tiled order the next
+     * pointers along a zero weight cycle can end up pointing in a circle, the distances are right either way
+     */
+    public void setTrackPaths(boolean trackPaths){ this.trackPaths = trackPaths; }
+
+    public void setThreads(int threads){ this.threads = Math.max(threads, 1); }
+
+    /* FLOYD-WARSHALL, in place on one flat matrix
+     * for k = 1 to n
+     *      for each i, j
+     *          d(i,j) = min(d(i,j), d(i,k) + d(k,j))
+     * Row & column k do not change in iteration k, so one matrix is enough instead of one per k.
+     *
+     * Tiled version (the default, verbose & path tracking off): the matrix is cut into BLOCK x BLOCK tiles, for each diagonal tile kk
+     *  1. tile (kk,kk) with the k of kk
+     *  2. all tiles in row kk and column kk, they only need tile (kk,kk)       (in parallel)
+     *  3. all other tiles (i,j), they only need tiles (i,kk) and (kk,j)       (in parallel)
+     * A tile is swept BLOCK times per round while it is in cache, instead of the whole matrix once per k.
+     */
+    public WeightMatrix floydwarshall(){
+        WeightMatrix result = new WeightMatrix(size);
+        d = result.getData();
+        System.arraycopy(weights.getData(), 0, d, 0, d.length);
+        next = trackPaths ? initNext() : null;
+        if(verbose){
+            PrintWriter out = stdout();
+            try {
+                for(int k = 1; k < size; k++){
+                    update(0, size, 0, size, k, k + 1);
+                    out.println("\nWEIGHT MATRIX - ITERATION: " + k);
+                    writeMat(result, out);
                 }
+            } catch (IOException e) {
+                throw new IllegalStateException(e); // a PrintWriter does not throw
             }
-            printMat(wMats[k]);
+            out.println("\nFLOYD-WARSHALL FINAL WEIGHT MATRIX RESULT");
+            out.flush();
+        } else if(trackPaths){
+            update(0, size, 0, size, 1, size);
+        } else {
+            tiled();
         }
-        System.out.println("\nFLOYD-WARSHALL FINAL WEIGHT MATRIX RESULT");
-        return wMats[n]; // return last version
+        return result;
     }
 
-    /* min(ij, ik, kj), basically the same like relax(u, v, w)
-     * ij: old entry
-     * ik:
-     * kj:
-     * We are looking if we can get there through adjacent edges with a lower cost
-     */
-    private Integer min(Integer ij, Integer ik, Integer kj){
-        //System.out.println("\tMIN ON [ij: " + ij +"\tik: "+ ik +"\tkj: "+ kj + "]");
-        if(ik == null || kj == null) return ij;
-        else {
-            if (ij == null) {
-                return ik + kj;
-            } else {
-                if (ij > ik + kj) return ik + kj;
-                else return ij;
+    private int[] initNext(){
+        int[] nx = new int[d.length];
+        for(int i = 1; i < size; i++)
+            for(int j = 1; j < size; j++)
+                if(d[i * size + j] != INF) nx[i * size + j] = i == j ? i : j;
+        return nx;
+    }
+
+    /* d(i,j) = min(d(i,j), d(i,k) + d(k,j)) for i in [i0,i1), j in [j0,j1), k in [k0,k1), k outermost */
+    private void update(int i0, int i1, int j0, int j1, int k0, int k1){
+        int n = size;
+        int[] d = this.d;
+        int[] nx = this.next;
+        for(int k = k0; k < k1; k++){
+            int rowK = k * n;
+            for(int i = i0; i < i1; i++){
+                int rowI = i * n;
+                int ik = d[rowI + k];
+                if(ik == INF) continue;
+                for(int j = j0; j < j1; j++){
+                    int kj = d[rowK + j];
+                    if(kj != INF && ik + kj < d[rowI + j]){
+                        d[rowI + j] = ik + kj;
+                        if(nx != null) nx[rowI + j] = nx[rowI + k];
+                    }
+                }
+            }
+        }
+    }
+
+    private void tiled(){
+        final int tiles = (size + BLOCK - 1) / BLOCK;
+        ExecutorService pool = threads > 1 && tiles > 1 ? Executors.newFixedThreadPool(threads) : null;
+        try {
+            for(int kk = 0; kk < tiles; kk++){
+                final int k0 = kk * BLOCK, k1 = Math.min(k0 + BLOCK, size);
+                final int kTile = kk;
+                update(k0, k1, k0, k1, k0, k1); // 1. diagonal tile
+                forEachTile(pool, 2 * (tiles - 1), new Tile() {
+                    @Override
+                    public void run(int t) { // 2. row kk (t < tiles-1) and column kk
+                        int other = t % (tiles - 1);
+                        other = other < kTile ? other : other + 1; // skip the diagonal tile
+                        int o0 = other * BLOCK, o1 = Math.min(o0 + BLOCK, size);
+                        if(t < tiles - 1) update(k0, k1, o0, o1, k0, k1);
+                        else update(o0, o1, k0, k1, k0, k1);
+                    }
+                });
+                forEachTile(pool, (tiles - 1) * (tiles - 1), new Tile() {
+                    @Override
+                    public void run(int t) { // 3. the rest
+                        int i = t / (tiles - 1), j = t % (tiles - 1);
+                        i = i < kTile ? i : i + 1;
+                        j = j < kTile ? j : j + 1;
+                        int i0 = i * BLOCK, j0 = j * BLOCK;
+                        update(i0, Math.min(i0 + BLOCK, size), j0, Math.min(j0 + BLOCK, size), k0, k1);
+                    }
+                });
             }
+        } finally {
+            if(pool != null) pool.shutdown();
         }
     }
 
-    public void printMat(Integer[][] mat){
-        String colIndexes = "";
-        for(int i = 1; i < colSize; i++)
-            colIndexes = colIndexes + "v" + i + "\t";
-        System.out.println("\t" + colIndexes);
-        for(int i = 1; i < rowSize; i++){
-            String colValues = "";
-            for(int j = 1; j < colSize; j++)
-                if(mat[i][j] == null) colValues = colValues + "X\t";
-                else colValues = colValues + mat[i][j] + "\t";
-            System.out.println("v" + i + "\t" + colValues);
+    /* work of one tile, t numbers the tiles of a phase */
+    private interface Tile {
+        void run(int t);
+    }
+
+    // runs tile 0..count-1, the threads take the next tile from a shared counter
+    private void forEachTile(ExecutorService pool, final int count, final Tile tile){
+        if(pool == null || count <= 1){
+            for(int t = 0; t < count; t++) tile.run(t);
+            return;
+        }
+        final AtomicInteger nextTile = new AtomicInteger();
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for(int w = 0; w < Math.min(threads, count); w++){
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for(int t = nextTile.getAndIncrement(); t < count; t = nextTile.getAndIncrement()) tile.run(t);
+                    return null;
+                }
+            });
+        }
+        try {
+            for(Future<Void> f: pool.invokeAll(tasks)) f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Floyd-Warshall interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Tile update failed", e.getCause());
+        }
+    }
+
+    // a negative entry on the diagonal of the last result: i reaches itself at negative cost
+    public boolean hasNegativeCycle(){
+        for(int i = 1; i < size; i++)
+            if(d[i * size + i] < 0) return true;
+        return false;
+    }
+
+    /* vertices of a shortest i -> j path of the last run (needs setTrackPaths(true)), empty if there is none */
+    public int[] getPath(int i, int j){
+        if(next == null) throw new IllegalStateException("Paths were not tracked, call setTrackPaths(true) before the run");
+        if(next[i * size + j] == 0) return new int[0];
+        int len = 1;
+        for(int u = i; u != j && len <= size; u = next[u * size + j]) len++;
+        if(len > size) throw new IllegalStateException("Path " + i + " -> " + j + " runs into a negative cycle");
+        int[] path = new int[len];
+        path[0] = i;
+        for(int p = 1, u = i; p < len; p++) path[p] = u = next[u * size + j];
+        return path;
+    }
+
+    public void printMat(WeightMatrix mat){
+        PrintWriter out = stdout();
+        try {
+            writeMat(mat, out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // a PrintWriter does not throw
+        }
+        out.flush();
+    }
+
+    private static PrintWriter stdout(){
+        return new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16));
+    }
+
+    // streams the matrix row by row, X for no path
+    public void writeMat(WeightMatrix mat, Appendable out) throws IOException {
+        int n = mat.getSize();
+        out.append('\t');
+        for(int i = 1; i < n; i++)
+            out.append('v').append(String.valueOf(i)).append('\t');
+        out.append('\n');
+        for(int i = 1; i < n; i++){
+            out.append('v').append(String.valueOf(i)).append('\t');
+            for(int j = 1; j < n; j++)
+                if(!mat.hasEdge(i, j)) out.append("X\t");
+                else out.append(String.valueOf(mat.get(i, j))).append('\t');
+            out.append('\n');
         }
     }
 }
@@ -0,0 +1,23 @@
+package org.algos;
+
+/* Manhattan distance on a grid graph (input/grid.txt) with vertex ids numbered row by row
+ *      id = row * width + column + 1
+ * scaled by the smallest arc weight, so it never overestimates as long as arcs only join
+ * horizontal or vertical neighbours (admissible & consistent).
+ */
+public class GridHeuristic implements Heuristic {
+    private final int width;
+    private final int minWeight;
+
+    public GridHeuristic(int width, int minWeight){
+        if(width < 1) throw new IllegalArgumentException("Grid width must be positive, was " + width);
+        this.width = width;
+        this.minWeight = Math.max(minWeight, 0);
+    }
+
+    @Override
+    public int estimate(int v, int target){
+        int a = v - 1, b = target - 1;
+        return (Math.abs(a / width - b / width) + Math.abs(a % width - b % width)) * minWeight;
+    }
+}
@@ -0,0 +1,10 @@
+package org.algos;
+
+/* Lower bound h(v) on the distance from v to the target of an A* query (see Dijkstra.shortestPathAStar)
+ * admissible: h(v) <= dist(v, target) for every v, otherwise A* may return a longer path
+ * consistent:  h(u) <= w(u,v) + h(v) for every arc, then every vertex is settled at most once
+ * A heuristic that is 0 everywhere turns A* into plain Dijkstra.
+ */
+public interface Heuristic {
+    int estimate(int v, int target);
+}
@@ -0,0 +1,168 @@
+package org.algos;
+
+
+import org.ds.CSR;
+import org.ds.Graph;
+import org.ds.ReadOnlyGraph;
+import org.io.DistanceMatrixFile;
+
+import java.io.File;
+import java.io.IOException;
+
+/* JOHNSON: all pairs shortest paths for sparse graphs with negative weights (no negative cycles)
+ *  1. add a vertex q with 0-weight arcs to all vertices, Bellmann-Ford from q gives potentials h(v) = d(q,v)
+ *  2. reweight every arc: w'(u,v) = w(u,v) + h(u) - h(v) >= 0, shortest paths stay the same
+ *  3. Dijkstra from every vertex on w' (in parallel, see BatchDijkstra), d(s,v) = d'(s,v) - h(s) + h(v)
+ * O(V E log V) instead of O(V^3) for Floyd-Warshall.
+ *
+ * The V x V result is never held in memory: rows go to a DistanceSink as soon as they are done,
+ * or into a memory-mapped DistanceMatrixFile.
+ */
+public class Johnson {
+    private final ReadOnlyGraph g;
+    private final int threads;
+    private int[] potentials;
+    private int[] cycle = new int[0];
+
+    public Johnson(Graph g){
+        this(g.exposeCSR());
+    }
+
+    public Johnson(ReadOnlyGraph g){
+        this(g, Runtime.getRuntime().availableProcessors());
+    }
+
+    public Johnson(ReadOnlyGraph g, int threads){
+        this.g = g;
+        this.threads = Math.max(threads, 1);
+    }
+
+    /* Streams row s = d(s, 1..n) for every vertex s into sink (rows arrive in any order, from several threads)
+     * returns false without calling the sink if the graph has a negative cycle (see getNegativeCycle)
+     */
+    public boolean run(DistanceSink sink) throws IOException {
+        int[] h = potentials();
+        if(h == null) return false;
+        allPairs(h, sink);
+        return true;
+    }
+
+    /* Same, but the rows go into a distance matrix file (created or overwritten), see DistanceMatrixFile
+     * The file is only created if there is no negative cycle.
+     */
+    public boolean run(File out) throws IOException {
+        int[] h = potentials();
+        if(h == null) return false;
+        final DistanceMatrixFile matrix = DistanceMatrixFile.create(out, g.getVertexCount());
+        try {
+            allPairs(h, new DistanceSink() {
+                @Override
+                public void accept(int s, int[] dist, int[] parent) {
+                    matrix.writeRow(s, dist);
+                }
+            });
+        } finally {
+            matrix.close();
+        }
+        return true;
+    }
+
+    private void allPairs(final int[] h, final DistanceSink sink) throws IOException {
+        int n = g.getVertexCount();
+        int[] sources = new int[n];
+        for(int v = 1; v <= n; v++) sources[v-1] = v;
+        new BatchDijkstra(reweight(h), threads).run(sources, new DistanceSink() {
+            @Override
+            public void accept(int s, int[] dist, int[] parent) throws IOException {
+                for(int v = 1; v < h.length; v++) // back to the original weights, in the worker's own array
+                    if(dist[v] != Integer.MAX_VALUE) dist[v] = dist[v] - h[s] + h[v];
+                sink.accept(s, dist, parent);
+            }
+        });
+    }
+
+    // h(v) of the last run (index 0 unused), null before a run or if there was a negative cycle
+    public int[] getPotentials(){ return this.potentials; }
+
+    // negative cycle found by the last run, empty if none
+    public int[] getNegativeCycle(){ return this.cycle; }
+
+    /* Bellmann-Ford (SPFA) from the virtual vertex q = n+1 */
+    private int[] potentials(){
+        int n = g.getVertexCount();
+        BellmannFord bf = new BellmannFord(new WithSource(g), n + 1);
+        bf.setVerbose(false);
+        bf.setMode(BellmannFord.Mode.SPFA);
+        potentials = null;
+        if(!bf.bellmannFord(n + 1)){
+            cycle = bf.getNegativeCycle(); // q has no incoming arcs, so it is never on the cycle
+            return null;
+        }
+        cycle = new int[0];
+        int[] h = new int[n + 1];
+        for(int v = 1; v <= n; v++) h[v] = bf.getDistance(v);
+        potentials = h;
+        return h;
+    }
+
+    // same arcs with w'(u,v) = w(u,v) + h(u) - h(v), the arrays of a CSR are shared instead of copied
+    private CSR reweight(int[] h){
+        int n = g.getVertexCount();
+        int m = g.getArcCount();
+        int[] weights = new int[m];
+        for(int u = 1; u <= n; u++)
+            for(int i = g.begin(u); i < g.end(u); i++)
+                weights[i] = g.weight(i) + h[u] - h[g.target(i)];
+        if(g instanceof CSR){
+            CSR csr = (CSR) g;
+            return new CSR(n, g.isDirected(), csr.getOffsets(), csr.getTargets(), weights, csr.getEdgeIds());
+        }
+        int[] offsets = new int[n + 2];
+        int[] targets = new int[m];
+        int[] edgeIds = new int[m];
+        for(int v = 1; v <= n; v++) offsets[v] = g.begin(v);
+        offsets[n + 1] = n == 0 ? 0 : g.end(n);
+        for(int i = 0; i < m; i++){
+            targets[i] = g.target(i);
+            edgeIds[i] = g.edgeId(i);
+        }
+        return new CSR(n, g.isDirected(), offsets, targets, weights, edgeIds);
+    }
+
+    /* G plus the vertex q = n+1 with a 0-weight arc to every vertex (arc slots m .. m+n-1), nothing is copied */
+    private static class WithSource implements ReadOnlyGraph {
+        private final ReadOnlyGraph g;
+        private final int n;
+        private final int m;
+
+        WithSource(ReadOnlyGraph g){
+            this.g = g;
+            this.n = g.getVertexCount();
+            this.m = g.getArcCount();
+        }
+
+        @Override
+        public int getVertexCount(){ return n + 1; }
+
+        @Override
+        public boolean isDirected(){ return true; }
+
+        @Override
+        public int getArcCount(){ return m + n; }
+
+        @Override
+        public int begin(int v){ return v <= n ? g.begin(v) : m; }
+
+        @Override
+        public int end(int v){ return v <= n ? g.end(v) : m + n; }
+
+        @Override
+        public int target(int arc){ return arc < m ? g.target(arc) : arc - m + 1; }
+
+        @Override
+        public int weight(int arc){ return arc < m ? g.weight(arc) : 0; }
+
+        @Override
+        public int edgeId(int arc){ return arc < m ? g.edgeId(arc) : 0; }
+    }
+}
@@ -1,24 +1,38 @@
 package org.algos;
 
+import org.ds.CSR;
 import org.ds.Edge;
 import org.ds.Graph;
-import org.ds.Vertex;
-import org.jgrapht.alg.util.UnionFind;
-import java.util.PriorityQueue;
+import org.ds.ReadOnlyGraph;
+import org.ds.UnionFind;
 
 import java.util.*;
 
 /* Kruskal MST
  * Visit edges in ascending order of weights, add only if two disconnected trees in forest get connected
- * Priority Queue: objects processed based on priority
+ * Edges are sorted once as packed primitive longs (see MSTKruskal(ReadOnlyGraph))
  * Run-time depends on implementation of union find data structure:
  *      |V| make-set operations
  *      |E| find-set operations
  *      |E| union operations
- * O(E*logV) using ordinary binary heaps
+ * O(E*logV) for the sort, the union-find part is almost linear (path halving + union by rank)
  */
 
 public class Kruskal{
+
+    /* How MSTKruskal orders the edges
+     *      SORT:   sort all candidate edges, then scan them
+     *      FILTER: Filter-Kruskal, partition around a pivot like quicksort, finish the light part first and
+     *              drop every heavy edge whose ends got connected before sorting it (see filterKruskal)
+     */
+    public enum Mode { SORT, FILTER }
+
+    private static final int FILTER_THRESHOLD = 1 << 12; // smaller ranges are just sorted & scanned
+
+    private Mode mode = Mode.SORT;
+
+    public void setMode(Mode mode){ this.mode = mode; }
+
     /* Pseudo code:
     *  init A (forest)
     *  for each v element of G vertex set
@@ -30,34 +44,145 @@ public class Kruskal{
     *          union(u,v)
     *  return A (forest)
     *
-    * Sort edgeList lo-high based on weight (implemented via priority-queue)
+    * Sort edgeList lo-high based on weight
     * take edge with lowest weight and add it to MST, if cycle gets created - reject it.
     * keep adding weights until we reached all vertices!
     */
     public ArrayList<Edge> MSTKruskal(Graph g){
-        // UnionFind is a disjoint-set DS, can find set a specific element is in, and merge two sets.
-        ArrayList<Edge> mst = new ArrayList<Edge>();
-        HashSet<Vertex> vertexSet = new HashSet<Vertex>();
-        for (Vertex v: g.getVertexArr()) {
-             vertexSet.add(v);
+        // run on the CSR view and map the chosen edge ids back to the edge objects (array indexed by id, no boxing)
+        int[] mstArcs = MSTKruskal(g.exposeCSR());
+        CSR csr = g.exposeCSR();
+        ArrayList<Edge> edges = g.returnEdgeList();
+        int maxId = 0;
+        for (int i = 0; i < edges.size(); i++) {
+            maxId = Math.max(maxId, edges.get(i).getId());
         }
-        // disjoint set implementation for find set and union operations
-        UnionFind uf = new UnionFind(vertexSet);
-        ArrayList el = g.returnEdgeList();
-        // create p-queue with weight comparator
-        PriorityQueue<Edge> pq = new PriorityQueue<>(el.size(), Edge.getComparator());
-        pq.addAll(el); // add all edges to q
-        // Any MST algorithm checks if adding an edge creates a loop or not (connects two unconnected trees if not)
-        while(pq.size() != 0){
-            Edge current = pq.poll();
-            if(!uf.inSameSet(current.getFromV(), current.getToV())){ // check if in same set
-                uf.union(current.getFromV(), current.getToV());
-                mst.add(current);
-            }
+        Edge[] edgesById = new Edge[maxId + 1];
+        for (int i = 0; i < edges.size(); i++) {
+            Edge e = edges.get(i);
+            edgesById[e.getId()] = e;
+        }
+        ArrayList<Edge> mst = new ArrayList<Edge>(mstArcs.length);
+        for (int arc: mstArcs) {
+            mst.add(edgesById[csr.edgeId(arc)]);
         }
         return mst;
     }
 
+    /* Same algorithm on any read-only graph (in-heap CSR or memory-mapped store)
+     * returns the arc slots of the MST edges in the order they were added
+     * An undirected edge is stored as the two arcs (u,v) and (v,u), only the one with u <= v is a candidate.
+     *
+     * Candidate arcs are packed as (weight << 32 | arc slot) into one long[], so sorting the longs sorts by
+     * weight (ties by slot) without any Edge/Integer objects or comparator calls. Find-set & union run on
+     * org.ds.UnionFind (int arrays, path halving, union by rank). Stops once |V|-1 edges are chosen.
+     */
+    public int[] MSTKruskal(ReadOnlyGraph g){
+        int n = g.getVertexCount();
+        int[] tails = new int[g.getArcCount()];
+        int count = 0;
+        for (int u = 1; u <= n; u++) {
+            for (int i = g.begin(u); i < g.end(u); i++) {
+                tails[i] = u;
+                if (g.isDirected() || u <= g.target(i)) count++;
+            }
+        }
+        long[] candidates = new long[count];
+        count = 0;
+        for (int u = 1; u <= n; u++)
+            for (int i = g.begin(u); i < g.end(u); i++)
+                if (g.isDirected() || u <= g.target(i)) candidates[count++] = ((long) g.weight(i) << 32) | i;
+
+        Forest forest = new Forest(g, tails, n);
+        if (mode == Mode.FILTER) {
+            filterKruskal(forest, candidates, 0, candidates.length, new Random(42));
+        } else {
+            Arrays.parallelSort(candidates);
+            forest.scan(candidates, 0, candidates.length);
+        }
+        return Arrays.copyOf(forest.mst, forest.size);
+    }
+
+    /* the growing forest A: union-find over the vertices and the chosen arcs */
+    private static class Forest {
+        final ReadOnlyGraph g;
+        final int[] tails;
+        final UnionFind uf;
+        final int[] mst;
+        int size;
+
+        Forest(ReadOnlyGraph g, int[] tails, int n){
+            this.g = g;
+            this.tails = tails;
+            this.uf = new UnionFind(n);
+            this.mst = new int[Math.max(n - 1, 0)];
+        }
+
+        boolean done(){ return size == mst.length; }
+
+        // for each (u,v) of the sorted range, A = A U {(u,v)} if it joins two trees
+        void scan(long[] edges, int from, int to){
+            for (int k = from; k < to && !done(); k++) { // |V|-1 edges: the tree is complete
+                int arc = (int) edges[k];
+                if (uf.union(tails[arc], g.target(arc))) mst[size++] = arc;
+            }
+        }
+
+        boolean joinsTrees(long edge){
+            int arc = (int) edge;
+            return uf.find(tails[arc]) != uf.find(g.target(arc));
+        }
+    }
+
+    /* Filter-Kruskal (Osipov, Sanders, Singler)
+     *  filterKruskal(E)
+     *      if E is small: sort E, scan E
+     *      pick pivot p, partition E into E<= (weight <= p) and E> (weight > p)
+     *      filterKruskal(E<=)
+     *      E> = edges of E> whose ends are still in different trees     (filter)
+     *      filterKruskal(E>)
+     * Most heavy edges close a cycle once the light ones are in, they are filtered out instead of sorted.
+     */
+    private void filterKruskal(Forest forest, long[] edges, int from, int to, Random rnd){
+        while (!forest.done()) {
+            if (to - from <= FILTER_THRESHOLD) {
+                Arrays.sort(edges, from, to);
+                forest.scan(edges, from, to);
+                return;
+            }
+            long pivot = edges[from + rnd.nextInt(to - from)];
+            int split = partition(edges, from, to, pivot);
+            if (split == to) { // pivot was the largest edge, take everything below it first
+                split = partition(edges, from, to, pivot - 1);
+                if (split == from) { // every edge is the pivot, nothing left to split
+                    forest.scan(edges, from, to);
+                    return;
+                }
+            }
+            filterKruskal(forest, edges, from, split, rnd); // recurse into the light part ...
+            if (forest.done()) return;
+            int kept = split;
+            for (int k = split; k < to; k++) // ... filter the heavy part and loop on what is left
+                if (forest.joinsTrees(edges[k])) edges[kept++] = edges[k];
+            from = split;
+            to = kept;
+        }
+    }
+
+    // moves the edges <= pivot to the front of [from, to), returns the index of the first edge > pivot
+    private static int partition(long[] edges, int from, int to, long pivot){
+        int i = from, j = to - 1;
+        while (i <= j) {
+            if (edges[i] <= pivot) i++;
+            else {
+                long tmp = edges[i];
+                edges[i] = edges[j];
+                edges[j--] = tmp;
+            }
+        }
+        return i;
+    }
+
     public void printKruskal(ArrayList<Edge> mst){
         System.out.println("\nPRINTING MIN SPANNING TREE VIA KRUSKAL'S ALGORITHM!\n");
         for (Edge e: mst) { System.out.println("[EDGE] " + e.getFromV().getId() + "---" + e.getToV().getId()); }
@@ -4,6 +4,8 @@ package org.algos;
 import java.util.*;
 
 import org.ds.*;
+import org.jheaps.tree.FibonacciHeap;
+import org.jheaps.tree.PairingHeap;
 
 
 /* Prim MST
@@ -27,8 +29,26 @@ import org.ds.*;
  *      |E| times adjust priority: E log V
  *      |V| times extract-min: V log V
  *  O(E+V*log*V) by using Fibonacci heaps, which improves over binary-heap implementation if |V| is much smaller than |E|
+ *  (in practice the constant factors decide, compare with org.bench.PrimBenchmark)
  */
 public class Prim {
+
+    /* Addressable heap for Q, all support decrease-key
+     *      INDEXED:   own indexed 4-ary heap on primitive arrays (IndexedHeap), O(log n) decrease-key
+     *      PAIRING:   jheaps pairing heap, o(log n) amortized decrease-key
+     *      FIBONACCI: jheaps Fibonacci heap, O(1) amortized decrease-key
+     */
+    public enum Heap { INDEXED, PAIRING, FIBONACCI }
+
+    private Heap heap = Heap.INDEXED;
+    private boolean verbose;
+    private int[] key, parent; // results of the last run, copied out of the workspace
+
+    public void setHeap(Heap heap){ this.heap = heap; }
+
+    // verbose = true prints every extracted vertex & updated key, off by default
+    public void setVerbose(boolean verbose){ this.verbose = verbose; }
+
     /* Pseudo-code:
      *  for each u element of G.V (G's vertex set)
      *      u.key = infinity
@@ -41,56 +61,72 @@ public class Prim {
      *          if v element of Q and w(u,v) < v.key
      *              v.pi = u
      *              v.key = w(u,v)
+     *
+     * Keys & predecessors are computed in the workspace of the calling thread (key in dist, v element of Q: not BLACK)
+     * and copied out at the end, the graph is never written. Q is an addressable heap (see Heap), a smaller key moves v up in place
+     * (decrease-key), every vertex is in Q exactly once. Equal keys come out by ascending vertex id.
+     * Returns the vertices in the order they were added to the MST.
      */
-     public LinkedList<Vertex> MSTPrim(Graph g, int rootId){
-         System.out.println("\nMST PRIM TRAVERSAL...");
-         LinkedList<Vertex>[] al = g.exposeAdjList();
-         LinkedList<Vertex> mstSet = new LinkedList<Vertex>();
-         Vertex root = null;
-         // create p-queue with (key) comparator including all vertices not added to MST yet
-         PriorityQueue<Vertex> pq = new PriorityQueue<>(g.getVertexCount(), Vertex.getComparator());
-         for(int i = 1; i < al.length; i++){
-             Vertex vertex = al[i].getFirst();
-             if(vertex.getId() == rootId) {
-                 vertex.setKey(0);
-                 vertex.setParent(null);
-                 root = vertex;
-             }
-             else {
-                 vertex.setKey(Integer.MAX_VALUE);
-                 vertex.setParent(null);
-             }
-             pq.add(vertex);
-         }
-         while(pq.size() != 0){ // pick vertex with lowest key value not added to mstSet yet
-             Vertex current = pq.poll();
-             System.out.println("[V" + current.getId() + "] CURRENT Q VERTEX");
-             mstSet.add(current);
-             for(int i = 0; i < al[current.getId()].size(); i++) { // go through all adjacent vertices
-                 Vertex adjVertex = al[current.getId()].get(i); // a vertex (v) connected to current (u)
+     public int[] MSTPrim(Graph g, int rootId){
+         return MSTPrim(g.exposeCSR(), rootId);
+     }
+
+     public int[] MSTPrim(ReadOnlyGraph g, int rootId){
+         if(verbose) System.out.println("\nMST PRIM TRAVERSAL...");
+         int n = g.getVertexCount();
+         Workspace ws = Workspace.forCurrentThread(n);
+         int[] key = ws.dist;
+         int[] mstSet = new int[n];
+         int mstSize = 0;
+         Arrays.fill(key, 0, n+1, Integer.MAX_VALUE);
+         Arrays.fill(ws.parent, 0, n+1, 0); // 0 is nil, vertex ids start at 1
+         Arrays.fill(ws.color, 0, n+1, Workspace.WHITE); // BLACK: added to MST
+         key[rootId] = 0;
+         // create p-queue ordered by key including all vertices not added to MST yet
+         IntPriorityQueue q = queue(ws, n);
+         for(int v = 1; v <= n; v++)
+             q.offer(v, key[v]);
+         while(!q.isEmpty()){ // pick vertex with lowest key value not added to mstSet yet
+             int current = q.poll();
+             ws.color[current] = Workspace.BLACK;
+             if(verbose) System.out.println("[V" + current + "] CURRENT Q VERTEX");
+             mstSet[mstSize++] = current;
+             for(int i = g.begin(current); i < g.end(current); i++) { // go through all adjacent vertices
                  // if v element of Q && w(u,v) < v.key
-                 Edge w = al[current.getId()].get(i).getEdge(); // get edge reference of adjacent vertex (v) connected to (u)
-                 //Edge w = g.findEdge(current, adjVertex);
-                 Vertex v = al[adjVertex.getId()].getFirst(); // need to always reference same object, since we made copies to save edge references
-                 if(adjVertex != null && w != null){
-                     if (pq.contains(v) && w.getWeight() < v.getKey()) {
-                         System.out.println("\tUPDATED ADJACENT [V" + v.getId() + "] WITH KEY: " + w.getWeight());
-                         v.setParent(current); // v.pred = u
-                         if(pq.remove(v)) pq.add(v); // have to remove and re-add to ensure priority sorting
-                         v.setKey(w.getWeight()); // v.key = w(u,v)
-                     }
+                 int w = g.weight(i); // weight of arc from current (u) to adjacent vertex (v)
+                 int v = g.target(i);
+                 if (ws.color[v] != Workspace.BLACK && w < key[v]) {
+                     if(verbose) System.out.println("\tUPDATED ADJACENT [V" + v + "] WITH KEY: " + w);
+                     ws.parent[v] = current; // v.pred = u
+                     key[v] = w; // v.key = w(u,v)
+                     q.offer(v, w); // decrease-key
                  }
              }
          }
-         return mstSet;
+         this.key = Arrays.copyOf(key, n + 1);
+         this.parent = Arrays.copyOf(ws.parent, n + 1);
+         return Arrays.copyOf(mstSet, mstSize);
+     }
+
+     private IntPriorityQueue queue(Workspace ws, int n){
+         switch(heap){
+             case PAIRING: return new AddressableHeapQueue(new PairingHeap<Long, Integer>(), n + 1);
+             case FIBONACCI: return new AddressableHeapQueue(new FibonacciHeap<Long, Integer>(), n + 1);
+             default: return ws.heap(n);
+         }
      }
 
-     public void printPrim(LinkedList<Vertex> mstSet){
+     // key of v from the last run of this instance
+     public int getKey(int v){ return key[v]; }
+
+     public int getParent(int v){ return parent[v]; }
+
+     public void printPrim(int[] mstSet){
          int weightSum = 0;
          System.out.println("PRINTING MIN SPANNING TREE VIA PRIM'S ALGORITHM!");
-         for(Vertex v : mstSet){
-             weightSum += v.getKey();
-             System.out.print("[V" + v.getId() + "] ");
+         for(int v : mstSet){
+             weightSum += getKey(v);
+             System.out.print("[V" + v + "] ");
          }
          System.out.println("OVERALL KEY SUM: " + weightSum);
      }
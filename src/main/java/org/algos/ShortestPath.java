@@ -0,0 +1,49 @@
+package org.algos;
+
+/* Answer to one s -> t query: distance, vertices on the path (s first, t last) and how many vertices
+ * the search settled to find it (to compare plain, bidirectional and A* searches).
+ * Unreachable targets have the distance Integer.MAX_VALUE and an empty path.
+ */
+public class ShortestPath {
+    private final int source;
+    private final int target;
+    private final int distance;
+    private final int[] path;
+    private final int settled;
+
+    ShortestPath(int source, int target, int distance, int[] path, int settled){
+        this.source = source;
+        this.target = target;
+        this.distance = distance;
+        this.path = path;
+        this.settled = settled;
+    }
+
+    public int getSource(){ return this.source; }
+
+    public int getTarget(){ return this.target; }
+
+    public int getDistance(){ return this.distance; }
+
+    public boolean isReachable(){ return this.path.length > 0; }
+
+    public int[] getPath(){ return this.path; }
+
+    // vertices extracted from the queue(s)
+    public int getSettled(){ return this.settled; }
+
+    public void print(){
+        System.out.println("\nSHORTEST PATH [" + source + "] -> [" + target + "]");
+        if(!isReachable()){
+            System.out.println("NOT REACHABLE (SETTLED: " + settled + ")");
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < path.length; i++){
+            if(i > 0) sb.append(" -> ");
+            sb.append('[').append(path[i]).append(']');
+        }
+        System.out.println(sb);
+        System.out.println("DISTANCE: " + distance + "\tSETTLED: " + settled);
+    }
+}
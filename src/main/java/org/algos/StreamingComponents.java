@@ -0,0 +1,46 @@
+package org.algos;
+
+
+import org.ds.UnionFind;
+import org.io.EdgeSink;
+
+
+/* Connected components of a streamed edge list in one pass (see org.io.EdgeStream)
+ * Only the union-find over the vertices is kept, edges are forgotten right after their union:
+ *      for each edge (u,v)
+ *          Union(u, v)
+ * O(V) memory however many edges pass by, directed edges are taken as undirected (weak components).
+ */
+public class StreamingComponents implements EdgeSink {
+    private UnionFind sets;
+    private long edgeCount;
+
+    @Override
+    public void begin(int vertexCount){
+        sets = new UnionFind(vertexCount);
+        edgeCount = 0;
+    }
+
+    @Override
+    public void edges(int[] from, int[] to, int[] weight, int count, int firstId){
+        for(int i = 0; i < count; i++)
+            sets.union(from[i], to[i]);
+        edgeCount += count;
+    }
+
+    @Override
+    public void end(){}
+
+    @Override
+    public void abort(){}
+
+    // number of components of the edges seen so far
+    public int getComponentCount(){ return sets.getSetCount(); }
+
+    public long getEdgeCount(){ return this.edgeCount; }
+
+    public boolean connected(int u, int v){ return sets.connected(u, v); }
+
+    // representative of the component of v
+    public int component(int v){ return sets.find(v); }
+}
@@ -0,0 +1,96 @@
+package org.algos;
+
+import org.ds.DialQueue;
+import org.ds.IndexedHeap;
+import org.ds.RadixHeap;
+
+/* Per-run state of the graph algorithms, kept out of the (shared) graph
+ * Every thread owns one workspace that is reused by all runs on that thread and only grows,
+ * so the graph itself is never written and many queries can run on it at the same time.
+ *
+ * Arrays are indexed by vertex id (index 0 unused):
+ *      dist:       distance estimate v.d (BFS, Dijkstra, Bellmann-Ford), key v.key (Prim)
+ *      parent:     predecessor v.pred, 0 is nil
+ *      color:      WHITE (unvisited), GRAY (discovered), BLACK (visited/finished)
+ *      discovered: discovery time v.d (DFS)
+ *      finished:   finishing time v.f (DFS)
+ *      queue:      working queue / stack / finishing order, at most one entry per vertex
+ *      stack:      DFS path, per level (vertex << 32 | where the scan of its neighbours continues)
+ *      heap:       indexed 4-ary heap over the vertex ids (Dijkstra, Prim), created on first use
+ *      dial, radix: bucket queues for Dijkstra with integer weights, created on first use
+ *      partner:    second workspace for searches from both ends (bidirectional Dijkstra)
+ *
+ * Scratch space only: all algorithms on a thread share it, a run copies its results out before it returns.
+ */
+class Workspace {
+    static final byte WHITE = 0;
+    static final byte GRAY = 1;
+    static final byte BLACK = 2;
+
+    private static final ThreadLocal<Workspace> PER_THREAD = new ThreadLocal<Workspace>() {
+        @Override
+        protected Workspace initialValue() {
+            return new Workspace();
+        }
+    };
+
+    int[] dist = new int[0];
+    int[] parent = new int[0];
+    byte[] color = new byte[0];
+    int[] discovered = new int[0];
+    int[] finished = new int[0];
+    int[] queue = new int[0];
+    long[] stack = new long[0];
+    private IndexedHeap heap;
+    private DialQueue dial;
+    private RadixHeap radix;
+    private Workspace partner;
+
+    /* workspace of the calling thread with room for vertex ids 1..vertexCount */
+    static Workspace forCurrentThread(int vertexCount){
+        Workspace ws = PER_THREAD.get();
+        ws.ensureCapacity(vertexCount + 1);
+        return ws;
+    }
+
+    /* the empty heap of this thread with room for vertex ids 1..vertexCount */
+    IndexedHeap heap(int vertexCount){
+        if(heap == null) heap = new IndexedHeap(vertexCount + 1, 4);
+        heap.clear();
+        heap.ensureCapacity(vertexCount + 1);
+        return heap;
+    }
+
+    /* the empty Dial queue of this thread for weights up to maxWeight, a new one if the ring is too small */
+    DialQueue dial(int vertexCount, int maxWeight){
+        if(dial == null || dial.getMaxWeight() < maxWeight) dial = new DialQueue(vertexCount + 1, maxWeight);
+        dial.clear();
+        dial.ensureCapacity(vertexCount + 1);
+        return dial;
+    }
+
+    RadixHeap radix(int vertexCount){
+        if(radix == null) radix = new RadixHeap(vertexCount + 1);
+        radix.clear();
+        radix.ensureCapacity(vertexCount + 1);
+        return radix;
+    }
+
+    /* the second workspace of this thread, with room for vertex ids 1..vertexCount */
+    Workspace partner(int vertexCount){
+        if(partner == null) partner = new Workspace();
+        partner.ensureCapacity(vertexCount + 1);
+        return partner;
+    }
+
+    private void ensureCapacity(int size){
+        if(dist.length >= size) return;
+        dist = new int[size];
+        parent = new int[size];
+        color = new byte[size];
+        discovered = new int[size];
+        finished = new int[size];
+        queue = new int[size];
+        stack = new long[size];
+    }
+}
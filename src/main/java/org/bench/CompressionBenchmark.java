@@ -0,0 +1,102 @@
+package org.bench;
+
+
+import org.algos.BreadthFirstSearch;
+import org.algos.DepthFirstSearch;
+import org.ds.CSR;
+import org.ds.CompressedGraph;
+import org.ds.Edge;
+import org.ds.Vertex;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+
+/* Compares CSR against the gap/varint compressed adjacency (CompressedGraph)
+ * on a synthetic road-like graph: a side x side grid with random weights.
+ *
+ *  java org.bench.CompressionBenchmark [side] [rounds]
+ *
+ * Reports bytes per arc of both layouts and the traversal time of BFS (several sources) & DFS.
+ */
+public class CompressionBenchmark {
+
+    public static void main(String[] args){
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 700;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        CSR csr = grid(side, new Random(42));
+        long t = System.nanoTime();
+        CompressedGraph cg = CompressedGraph.compress(csr, false);
+        long compressMs = (System.nanoTime() - t) / 1000000;
+        CompressedGraph cgWeighted = CompressedGraph.compress(csr, true);
+
+        int n = csr.getVertexCount();
+        int arcs = csr.getArcCount();
+        long csrBytes = 4L * csr.getOffsets().length + 12L * arcs; // offsets + targets, weights, edge ids
+        long csrTopologyBytes = 4L * csr.getOffsets().length + 4L * arcs; // offsets + targets
+        System.out.println("\nCOMPRESSION BENCHMARK: " + side + "x" + side + " GRID, |V| = " + n + ", ARCS = " + arcs);
+        System.out.println("CSR (TOPOLOGY):\t\t" + csrTopologyBytes + " BYTES\t" + perArc(csrTopologyBytes, arcs) + " BYTES/ARC");
+        System.out.println("COMPRESSED:\t\t\t" + cg.getByteCount() + " BYTES\t" + perArc(cg.getByteCount(), arcs) + " BYTES/ARC");
+        System.out.println("CSR (WEIGHTED):\t\t" + csrBytes + " BYTES\t" + perArc(csrBytes, arcs) + " BYTES/ARC");
+        System.out.println("COMPRESSED (WEIGHTED):\t" + cgWeighted.getByteCount() + " BYTES\t" + perArc(cgWeighted.getByteCount(), arcs) + " BYTES/ARC");
+        System.out.println("COMPRESSING TOOK (ms): " + compressMs);
+
+        BreadthFirstSearch bfsPlain = new BreadthFirstSearch(csr);
+        BreadthFirstSearch bfsCompressed = new BreadthFirstSearch(cg);
+        bfsPlain.setVerbose(false);
+        bfsCompressed.setVerbose(false);
+        DepthFirstSearch dfsPlain = new DepthFirstSearch(csr);
+        DepthFirstSearch dfsCompressed = new DepthFirstSearch(cg);
+        dfsPlain.setVerbose(false);
+        dfsCompressed.setVerbose(false);
+
+        int[] sources = {1, n / 2, n, 1 + side / 2, n - side / 2};
+        for(int round = 0; round <= rounds; round++){ // round 0 warms up the JIT
+            long plainBfs = timeBfs(bfsPlain, sources);
+            long compressedBfs = timeBfs(bfsCompressed, sources);
+            long plainDfs = timeDfs(dfsPlain);
+            long compressedDfs = timeDfs(dfsCompressed);
+            if(round == 0) continue;
+            System.out.println("[ROUND " + round + "]\tBFS CSR: " + plainBfs + " ms\tBFS COMPRESSED: " + compressedBfs
+                    + " ms\tDFS CSR: " + plainDfs + " ms\tDFS COMPRESSED: " + compressedDfs + " ms");
+        }
+    }
+
+    private static String perArc(long bytes, int arcs){
+        return String.format("%.2f", (double) bytes / arcs);
+    }
+
+    private static long timeBfs(BreadthFirstSearch bfs, int[] sources){
+        long t = System.nanoTime();
+        for(int s: sources){
+            bfs.initTree(s);
+            bfs.buildTree();
+        }
+        return (System.nanoTime() - t) / 1000000;
+    }
+
+    // one topological sort over the whole graph, shared with ReorderingBenchmark
+    static long timeDfs(DepthFirstSearch dfs){
+        long t = System.nanoTime();
+        dfs.topSort();
+        return (System.nanoTime() - t) / 1000000;
+    }
+
+    /* side x side grid, vertex (r, c) gets id r * side + c + 1, edges to the right & lower neighbour */
+    static CSR grid(int side, Random rnd){
+        ArrayList<Edge> edges = new ArrayList<Edge>(2 * side * side);
+        Vertex[] vertices = new Vertex[side * side + 1];
+        for(int i = 1; i < vertices.length; i++)
+            vertices[i] = new Vertex(i);
+        int id = 1;
+        for(int r = 0; r < side; r++){
+            for(int c = 0; c < side; c++){
+                int v = r * side + c + 1;
+                if(c + 1 < side) edges.add(new Edge(vertices[v], vertices[v + 1], false, id++, 1 + rnd.nextInt(100)));
+                if(r + 1 < side) edges.add(new Edge(vertices[v], vertices[v + side], false, id++, 1 + rnd.nextInt(100)));
+            }
+        }
+        return CSR.fromEdgeList(side * side, false, edges);
+    }
+}
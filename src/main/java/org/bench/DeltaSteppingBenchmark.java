@@ -0,0 +1,65 @@
+package org.bench;
+
+
+import org.algos.DeltaStepping;
+import org.algos.Dijkstra;
+import org.ds.CSR;
+import org.ds.ReadOnlyGraph;
+
+import java.util.Random;
+
+
+/* Scaling of delta-stepping from 1 to N threads against sequential Dijkstra (see DeltaStepping)
+ * Inputs: a random sparse digraph (weights 1..1000) and a side x side grid (weights 1..100).
+ * Every run is checked against the Dijkstra distances.
+ *
+ *  java org.bench.DeltaSteppingBenchmark [vertices] [arcs] [maxThreads] [delta]
+ */
+public class DeltaSteppingBenchmark {
+
+    public static void main(String[] args){
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 10000000;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int delta = args.length > 3 ? Integer.parseInt(args[3]) : 0; // 0: default of DeltaStepping
+
+        Random rnd = new Random(42);
+        int[] from = new int[m], to = new int[m], weight = new int[m];
+        for(int i = 0; i < m; i++){
+            from[i] = 1 + rnd.nextInt(n);
+            to[i] = 1 + rnd.nextInt(n);
+            weight[i] = 1 + rnd.nextInt(1000);
+        }
+        bench("RANDOM", CSR.fromArrays(n, true, from, to, weight, m), maxThreads, delta);
+        int side = (int) Math.sqrt(n);
+        bench("GRID " + side + "x" + side, CompressionBenchmark.grid(side, rnd), maxThreads, delta);
+    }
+
+    private static void bench(String name, ReadOnlyGraph g, int maxThreads, int delta){
+        System.out.println("\nDELTA-STEPPING BENCHMARK: " + name + ", |V| = " + g.getVertexCount() + ", ARCS = " + g.getArcCount());
+        Dijkstra dijkstra = new Dijkstra(g, 1);
+        dijkstra.setVerbose(false);
+        long best = Long.MAX_VALUE;
+        for(int round = 0; round < 3; round++){ // best of 3, the first one warms up the JIT
+            long t = System.nanoTime();
+            dijkstra.dijkstra();
+            best = Math.min(best, System.nanoTime() - t);
+        }
+        System.out.println("DIJKSTRA (1 THREAD) TOOK (ms): " + best / 1000000);
+
+        for(int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(threads * 2, maxThreads) : threads + 1){
+            DeltaStepping ds = new DeltaStepping(g, threads);
+            if(delta > 0) ds.setDelta(delta);
+            best = Long.MAX_VALUE;
+            for(int round = 0; round < 3; round++){
+                long t = System.nanoTime();
+                ds.run(1);
+                best = Math.min(best, System.nanoTime() - t);
+            }
+            for(int v = 1; v <= g.getVertexCount(); v++)
+                if(ds.getDistance(v) != dijkstra.getDistance(v))
+                    throw new IllegalStateException("Delta-stepping differs from Dijkstra at vertex " + v);
+            System.out.println("DELTA = " + ds.getDelta() + "\tTHREADS: " + threads + "\tTOOK (ms): " + best / 1000000);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.bench;
+
+
+import org.algos.Prim;
+import org.ds.CSR;
+
+import java.util.Random;
+
+
+/* Prim with the different addressable heaps (see Prim.Heap) on a sparse and a dense graph
+ * Sparse: random connected graph with |E| = 4|V|, dense: complete graph, both with weights 1..1000.
+ * The MST weight of every heap is checked against the first one.
+ *
+ *  java org.bench.PrimBenchmark [sparse vertices] [dense vertices] [rounds]
+ */
+public class PrimBenchmark {
+
+    public static void main(String[] args){
+        int sparseN = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int denseN = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        Random rnd = new Random(42);
+
+        int m = 4 * sparseN;
+        int[] from = new int[m], to = new int[m], weight = new int[m];
+        for(int i = 0; i < m; i++){
+            from[i] = i < sparseN - 1 ? i + 1 : 1 + rnd.nextInt(sparseN); // a path keeps it connected
+            to[i] = i < sparseN - 1 ? i + 2 : 1 + rnd.nextInt(sparseN);
+            weight[i] = 1 + rnd.nextInt(1000);
+        }
+        bench("SPARSE", CSR.fromArrays(sparseN, false, from, to, weight, m), rounds);
+
+        m = denseN * (denseN - 1) / 2;
+        from = new int[m];
+        to = new int[m];
+        weight = new int[m];
+        int e = 0;
+        for(int u = 1; u <= denseN; u++){
+            for(int v = u + 1; v <= denseN; v++){
+                from[e] = u;
+                to[e] = v;
+                weight[e++] = 1 + rnd.nextInt(1000);
+            }
+        }
+        bench("DENSE", CSR.fromArrays(denseN, false, from, to, weight, m), rounds);
+    }
+
+    private static void bench(String name, CSR g, int rounds){
+        System.out.println("\nPRIM BENCHMARK: " + name + ", |V| = " + g.getVertexCount() + ", ARCS = " + g.getArcCount());
+        long expected = -1;
+        for(Prim.Heap heap: Prim.Heap.values()){
+            Prim prim = new Prim();
+            prim.setVerbose(false);
+            prim.setHeap(heap);
+            long best = Long.MAX_VALUE;
+            long weight = 0;
+            for(int round = 0; round <= rounds; round++){ // round 0 warms up the JIT
+                long t = System.nanoTime();
+                int[] mst = prim.MSTPrim(g, 1);
+                long elapsed = System.nanoTime() - t;
+                if(round > 0) best = Math.min(best, elapsed);
+                weight = 0;
+                for(int v: mst) weight += prim.getKey(v);
+            }
+            if(expected == -1) expected = weight;
+            else if(weight != expected)
+                throw new IllegalStateException(heap + " heap found an MST of weight " + weight + " instead of " + expected);
+            System.out.println(heap + "\tMST WEIGHT: " + weight + "\tBEST OF " + rounds + " (ms): " + best / 1000000);
+        }
+    }
+}
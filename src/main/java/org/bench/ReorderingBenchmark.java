@@ -0,0 +1,79 @@
+package org.bench;
+
+
+import org.algos.BreadthFirstSearch;
+import org.algos.DepthFirstSearch;
+import org.ds.CSR;
+import org.ds.ReadOnlyGraph;
+import org.ds.Relabeling;
+
+import java.util.Random;
+
+
+/* Traversal speed of a road-like graph before and after vertex relabeling (see Relabeling)
+ * The input is a side x side grid whose vertex ids are shuffled, like ids coming from a file
+ * without any locality.
+ *
+ *  java org.bench.ReorderingBenchmark [side] [rounds]
+ */
+public class ReorderingBenchmark {
+
+    public static void main(String[] args){
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 700;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        CSR scrambled = shuffledGrid(side, new Random(42));
+        long t = System.nanoTime();
+        Relabeling bfs = Relabeling.bfs(scrambled);
+        long bfsMs = (System.nanoTime() - t) / 1000000;
+        t = System.nanoTime();
+        Relabeling rcm = Relabeling.rcm(scrambled);
+        long rcmMs = (System.nanoTime() - t) / 1000000;
+        Relabeling degree = Relabeling.byDegree(scrambled);
+
+        String[] names = {"SHUFFLED", "BFS", "RCM", "DEGREE"};
+        ReadOnlyGraph[] graphs = {scrambled, bfs.apply(scrambled), rcm.apply(scrambled), degree.apply(scrambled)};
+        Relabeling[] labels = {null, bfs, rcm, degree};
+
+        System.out.println("\nREORDERING BENCHMARK: " + side + "x" + side + " GRID, |V| = " + scrambled.getVertexCount()
+                + ", ARCS = " + scrambled.getArcCount());
+        System.out.println("BFS ORDER TOOK (ms): " + bfsMs + "\tRCM ORDER TOOK (ms): " + rcmMs);
+        for(int i = 0; i < graphs.length; i++)
+            System.out.println(names[i] + "\tBANDWIDTH: " + Relabeling.bandwidth(graphs[i]));
+
+        int[] sources = {1, 2, 3, 4, 5}; // original ids, translated for the relabeled graphs
+        for(int round = 0; round <= rounds; round++){ // round 0 warms up the JIT
+            StringBuilder line = new StringBuilder("[ROUND " + round + "]");
+            for(int i = 0; i < graphs.length; i++){
+                long bfsTime = timeBfs(graphs[i], labels[i], sources);
+                long dfsTime = timeDfs(graphs[i]);
+                line.append("\t").append(names[i]).append(" BFS: ").append(bfsTime)
+                        .append(" ms DFS: ").append(dfsTime).append(" ms");
+            }
+            if(round > 0) System.out.println(line);
+        }
+    }
+
+    private static long timeBfs(ReadOnlyGraph g, Relabeling labels, int[] sources){
+        BreadthFirstSearch bfs = new BreadthFirstSearch(g);
+        bfs.setVerbose(false);
+        long t = System.nanoTime();
+        for(int s: sources){
+            bfs.initTree(labels == null ? s : labels.toNew(s));
+            bfs.buildTree();
+        }
+        return (System.nanoTime() - t) / 1000000;
+    }
+
+    private static long timeDfs(ReadOnlyGraph g){
+        DepthFirstSearch dfs = new DepthFirstSearch(g);
+        dfs.setVerbose(false);
+        return CompressionBenchmark.timeDfs(dfs);
+    }
+
+    /* side x side grid with random weights (see CompressionBenchmark.grid), ids randomly permuted */
+    static CSR shuffledGrid(int side, Random rnd){
+        CSR grid = CompressionBenchmark.grid(side, rnd);
+        return Relabeling.random(grid.getVertexCount(), rnd).apply(grid);
+    }
+}
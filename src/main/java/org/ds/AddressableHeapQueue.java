@@ -0,0 +1,61 @@
+package org.ds;
+
+
+import org.jheaps.AddressableHeap;
+
+import java.util.Arrays;
+
+/* IntPriorityQueue on top of an addressable heap of the jheaps library (pairing heap, Fibonacci heap, ...)
+ * One handle per queued id, offer on a queued id is the heap's decreaseKey on that handle.
+ * Keys are (key << 32 | id) like in IndexedHeap, so equal keys come out by ascending id as well.
+ * The library heaps are generic: every entry is a boxed Long/Integer plus a node object, use IndexedHeap
+ * where allocation matters and these to compare heap types (see org.bench.PrimBenchmark).
+ */
+public class AddressableHeapQueue implements IntPriorityQueue {
+    private final AddressableHeap<Long, Integer> heap;
+    private AddressableHeap.Handle<Long, Integer>[] handles;
+
+    public AddressableHeapQueue(AddressableHeap<Long, Integer> heap, int capacity){
+        this.heap = heap;
+        this.handles = newHandles(Math.max(capacity, 1));
+    }
+
+    // generic arrays cannot be created directly
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static AddressableHeap.Handle<Long, Integer>[] newHandles(int capacity){
+        AddressableHeap.Handle[] handles = new AddressableHeap.Handle[capacity];
+        return handles;
+    }
+
+    // room for the ids 0..capacity-1
+    public void ensureCapacity(int capacity){
+        if(handles.length < capacity) handles = Arrays.copyOf(handles, capacity);
+    }
+
+    @Override
+    public void offer(int id, int key){
+        long k = ((long) key << 32) | id;
+        AddressableHeap.Handle<Long, Integer> h = handles[id];
+        if(h == null) handles[id] = heap.insert(k, id);
+        else if(k < h.getKey()) h.decreaseKey(k);
+    }
+
+    @Override
+    public int poll(){
+        int id = heap.deleteMin().getValue();
+        handles[id] = null;
+        return id;
+    }
+
+    @Override
+    public boolean isEmpty(){ return heap.isEmpty(); }
+
+    @Override
+    public boolean contains(int id){ return handles[id] != null; }
+
+    @Override
+    public void clear(){
+        heap.clear();
+        Arrays.fill(handles, null);
+    }
+}
@@ -0,0 +1,108 @@
+package org.ds;
+
+
+/* Adjacency matrix packed into bits, entry a(i,j) is bit j of row i
+ * Row i occupies words[i*wordsPerRow] .. words[(i+1)*wordsPerRow-1], 64 columns per long
+ *
+ * Example (row v1 of a graph with v1 adjacent to v2, v3):
+ *    bits 63..0 of first word: ...0000 1100   (bit 0 unused, we index v from 1)
+ *
+ * - 1 bit per entry instead of 32 for an int[][] matrix
+ * - Row operations (and, or, popcount) touch wordsPerRow longs, e.g. |N(u) n N(v)| = popcount(row u & row v)
+ */
+public class BitMatrix {
+    private final int size;
+    private final int wordsPerRow;
+    private final long[] words;
+
+    public BitMatrix(int size){
+        this.size = size;
+        this.wordsPerRow = (size + 63) >>> 6;
+        long wordCount = (long) size * wordsPerRow;
+        if(wordCount > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Bit matrix with " + size + " rows does not fit into a single array");
+        this.words = new long[(int) wordCount];
+    }
+
+    // copy with newSize rows & columns, entries of the old matrix are kept
+    public BitMatrix resize(int newSize){
+        BitMatrix m = new BitMatrix(newSize);
+        int rows = Math.min(size, newSize);
+        int words = Math.min(wordsPerRow, m.wordsPerRow);
+        for(int i = 0; i < rows; i++)
+            System.arraycopy(this.words, i * wordsPerRow, m.words, i * m.wordsPerRow, words);
+        return m;
+    }
+
+    public int getSize(){ return this.size; }
+
+    public int getWordsPerRow(){ return this.wordsPerRow; }
+
+    public boolean get(int i, int j){
+        return (words[i * wordsPerRow + (j >>> 6)] & (1L << j)) != 0;
+    }
+
+    public void set(int i, int j){
+        words[i * wordsPerRow + (j >>> 6)] |= (1L << j);
+    }
+
+    public void clear(int i, int j){
+        words[i * wordsPerRow + (j >>> 6)] &= ~(1L << j);
+    }
+
+    // number of 1s in row i, for the adjacency matrix this is deg(v_i) without parallel edges
+    public int popcount(int i){
+        int count = 0;
+        int base = i * wordsPerRow;
+        for(int w = 0; w < wordsPerRow; w++)
+            count += Long.bitCount(words[base + w]);
+        return count;
+    }
+
+    // |row i AND row j|, e.g. number of common neighbours of v_i and v_j
+    public int andCount(int i, int j){
+        int count = 0;
+        int a = i * wordsPerRow, b = j * wordsPerRow;
+        for(int w = 0; w < wordsPerRow; w++)
+            count += Long.bitCount(words[a + w] & words[b + w]);
+        return count;
+    }
+
+    // |row i OR row j|, e.g. size of the union of both neighbourhoods
+    public int orCount(int i, int j){
+        int count = 0;
+        int a = i * wordsPerRow, b = j * wordsPerRow;
+        for(int w = 0; w < wordsPerRow; w++)
+            count += Long.bitCount(words[a + w] | words[b + w]);
+        return count;
+    }
+
+    // dst = row i AND row j, dst needs wordsPerRow longs
+    public void and(int i, int j, long[] dst){
+        int a = i * wordsPerRow, b = j * wordsPerRow;
+        for(int w = 0; w < wordsPerRow; w++)
+            dst[w] = words[a + w] & words[b + w];
+    }
+
+    // dst = row i OR row j, dst needs wordsPerRow longs
+    public void or(int i, int j, long[] dst){
+        int a = i * wordsPerRow, b = j * wordsPerRow;
+        for(int w = 0; w < wordsPerRow; w++)
+            dst[w] = words[a + w] | words[b + w];
+    }
+
+    /* next column >= from with a 1 in row i, -1 if there is none
+     * for(int j = m.nextSetBit(i, 0); j >= 0; j = m.nextSetBit(i, j+1)) visits all neighbours of v_i
+     */
+    public int nextSetBit(int i, int from){
+        if(from >= size) return -1;
+        int base = i * wordsPerRow;
+        int w = from >>> 6;
+        long word = words[base + w] & (-1L << from);
+        while(true){
+            if(word != 0) return (w << 6) + Long.numberOfTrailingZeros(word);
+            if(++w == wordsPerRow) return -1;
+            word = words[base + w];
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.ds;
+
+
+import java.util.Arrays;
+
+/* Common part of the bucket based queues (DialQueue, RadixHeap): ids sit in doubly linked bucket lists
+ * kept in primitive arrays, so moving an id to another bucket (decrease-key) is O(1)
+ *      head[b]:   first id of bucket b, -1 if empty
+ *      next/prev: neighbours of an id in its bucket list, -1 at the ends
+ *      bucket:    bucket of an id, -1 if it is not queued
+ *      keys:      key of an id
+ */
+abstract class BucketQueue implements IntPriorityQueue {
+    final int[] head;
+    int[] next;
+    int[] prev;
+    int[] bucket;
+    int[] keys;
+    int size;
+
+    BucketQueue(int capacity, int buckets){
+        this.head = new int[buckets];
+        Arrays.fill(head, -1);
+        this.next = new int[Math.max(capacity, 1)];
+        this.prev = new int[Math.max(capacity, 1)];
+        this.bucket = new int[Math.max(capacity, 1)];
+        this.keys = new int[Math.max(capacity, 1)];
+        Arrays.fill(bucket, -1);
+    }
+
+    // room for the ids 0..capacity-1, the queue must be empty
+    public void ensureCapacity(int capacity){
+        if(bucket.length >= capacity) return;
+        int old = bucket.length;
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        bucket = Arrays.copyOf(bucket, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        Arrays.fill(bucket, old, capacity, -1);
+    }
+
+    public int size(){ return this.size; }
+
+    @Override
+    public boolean isEmpty(){ return size == 0; }
+
+    @Override
+    public boolean contains(int id){ return bucket[id] != -1; }
+
+    public int getKey(int id){ return keys[id]; }
+
+    // empties the queue, O(buckets + size)
+    @Override
+    public void clear(){
+        for(int b = 0; b < head.length; b++){
+            for(int id = head[b]; id != -1; id = next[id]) bucket[id] = -1;
+            head[b] = -1;
+        }
+        size = 0;
+    }
+
+    void link(int id, int b){
+        prev[id] = -1;
+        next[id] = head[b];
+        if(head[b] != -1) prev[head[b]] = id;
+        head[b] = id;
+        bucket[id] = b;
+    }
+
+    void unlink(int id){
+        int b = bucket[id];
+        if(prev[id] != -1) next[prev[id]] = next[id];
+        else head[b] = next[id];
+        if(next[id] != -1) prev[next[id]] = prev[id];
+        bucket[id] = -1;
+    }
+}
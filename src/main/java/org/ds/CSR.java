@@ -0,0 +1,181 @@
+package org.ds;
+
+
+import java.util.List;
+
+/* Compressed Sparse Row (CSR) view of a graph G = (V,E)
+ * All adjacency lists are packed back to back into flat arrays:
+ *      - offsets[v] .. offsets[v+1]-1 are the arc slots of vertex v
+ *      - targets[i]: head vertex of arc i
+ *      - weights[i]: weight of arc i (1 for unweighted edges)
+ *      - edgeIds[i]: id of the edge in the edge list that arc i was created from
+ *
+ * Example (undirected, edges e1 = {1,2}, e2 = {1,3}):
+ *      offsets: [0, 0, 2, 3, 4]     (index 0 unused, vertices start at id 1)
+ *      targets: [2, 3, 1, 1]
+ *      edgeIds: [1, 2, 1, 2]
+ *
+ * - Undirected edges create two arcs (u,v) and (v,u), directed edges one
+ * - Arcs of a vertex keep the order of the edge list, same as the adjacency list
+ * - Immutable after construction, scanning neighbours is an allocation free loop over a contiguous array
+ */
+public class CSR implements ReadOnlyGraph {
+    private final int vertexCount;
+    private final boolean isDirected;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final int[] edgeIds;
+
+    public CSR(int vertexCount, boolean isDirected, int[] offsets, int[] targets, int[] weights, int[] edgeIds){
+        this.vertexCount = vertexCount;
+        this.isDirected = isDirected;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.edgeIds = edgeIds;
+    }
+
+    /* Two passes over the edge list (counting sort by tail vertex):
+     *  1) count out-degree of every vertex, prefix sum gives offsets
+     *  2) place every arc at the next free slot of its tail vertex
+     * O(V+E) time, 4 ints per arc
+     */
+    public static CSR fromEdgeList(int vertexCount, boolean isDirected, List<Edge> edgeList){
+        int[] offsets = new int[vertexCount+2]; // +1 bc we index v from 1, +1 for end of last row
+        for (Edge e: edgeList) {
+            offsets[e.getFromV().getId()+1]++;
+            if(!e.isDirected()) offsets[e.getToV().getId()+1]++;
+        }
+        for(int v = 1; v < offsets.length; v++)
+            offsets[v] += offsets[v-1];
+
+        int arcCount = offsets[vertexCount+1];
+        int[] targets = new int[arcCount];
+        int[] weights = new int[arcCount];
+        int[] edgeIds = new int[arcCount];
+        int[] next = new int[vertexCount+1];
+        System.arraycopy(offsets, 0, next, 0, vertexCount+1);
+
+        for (Edge e: edgeList) {
+            int from = e.getFromV().getId();
+            int to = e.getToV().getId();
+            int w = e.getWeight() == null ? 1 : e.getWeight();
+
+            int slot = next[from]++;
+            targets[slot] = to;
+            weights[slot] = w;
+            edgeIds[slot] = e.getId();
+            if(!e.isDirected()){ // Edge undirected, add arc back as well
+                slot = next[to]++;
+                targets[slot] = from;
+                weights[slot] = w;
+                edgeIds[slot] = e.getId();
+            }
+        }
+        return new CSR(vertexCount, isDirected, offsets, targets, weights, edgeIds);
+    }
+
+    /* Same two passes on primitive edge arrays (e.g. from org.io.EdgeListParser), edge i gets the id i+1
+     * weights may be null (all 1), a weight of Integer.MIN_VALUE stands for an unweighted edge (weight 1)
+     */
+    public static CSR fromArrays(int vertexCount, boolean isDirected, int[] from, int[] to, int[] weights, int edgeCount){
+        int[] offsets = new int[vertexCount+2];
+        for(int i = 0; i < edgeCount; i++){
+            offsets[from[i]+1]++;
+            if(!isDirected) offsets[to[i]+1]++;
+        }
+        for(int v = 1; v < offsets.length; v++)
+            offsets[v] += offsets[v-1];
+
+        int arcCount = offsets[vertexCount+1];
+        int[] targets = new int[arcCount];
+        int[] arcWeights = new int[arcCount];
+        int[] edgeIds = new int[arcCount];
+        int[] next = new int[vertexCount+1];
+        System.arraycopy(offsets, 0, next, 0, vertexCount+1);
+
+        for(int i = 0; i < edgeCount; i++){
+            int w = weights == null || weights[i] == GraphUpdate.NO_WEIGHT ? 1 : weights[i];
+            int slot = next[from[i]]++;
+            targets[slot] = to[i];
+            arcWeights[slot] = w;
+            edgeIds[slot] = i + 1;
+            if(!isDirected){ // Edge undirected, add arc back as well
+                slot = next[to[i]]++;
+                targets[slot] = from[i];
+                arcWeights[slot] = w;
+                edgeIds[slot] = i + 1;
+            }
+        }
+        return new CSR(vertexCount, isDirected, offsets, targets, arcWeights, edgeIds);
+    }
+
+    /* create G' with every arc (u,v) flipped to (v,u), weights and edge ids stay with their arc */
+    public CSR transpose(){
+        return transpose(this);
+    }
+
+    public static CSR transpose(ReadOnlyGraph g){
+        int n = g.getVertexCount();
+        int arcCount = g.getArcCount();
+        int[] tOffsets = new int[n+2];
+        for(int i = 0; i < arcCount; i++)
+            tOffsets[g.target(i)+1]++;
+        for(int v = 1; v < tOffsets.length; v++)
+            tOffsets[v] += tOffsets[v-1];
+
+        int[] tTargets = new int[arcCount];
+        int[] tWeights = new int[arcCount];
+        int[] tEdgeIds = new int[arcCount];
+        int[] next = new int[n+1];
+        System.arraycopy(tOffsets, 0, next, 0, n+1);
+
+        for(int u = 1; u <= n; u++){
+            for(int i = g.begin(u); i < g.end(u); i++){
+                int slot = next[g.target(i)]++;
+                tTargets[slot] = u;
+                tWeights[slot] = g.weight(i);
+                tEdgeIds[slot] = g.edgeId(i);
+            }
+        }
+        return new CSR(n, g.isDirected(), tOffsets, tTargets, tWeights, tEdgeIds);
+    }
+
+    @Override
+    public int getVertexCount(){ return this.vertexCount; }
+
+    @Override
+    public boolean isDirected(){ return this.isDirected; }
+
+    @Override
+    public int getArcCount(){ return this.targets.length; }
+
+    // first arc slot of vertex v
+    @Override
+    public int begin(int v){ return offsets[v]; }
+
+    // one past the last arc slot of vertex v
+    @Override
+    public int end(int v){ return offsets[v+1]; }
+
+    public int degree(int v){ return offsets[v+1] - offsets[v]; }
+
+    @Override
+    public int target(int arc){ return targets[arc]; }
+
+    @Override
+    public int weight(int arc){ return weights[arc]; }
+
+    @Override
+    public int edgeId(int arc){ return edgeIds[arc]; }
+
+    // raw arrays are handed out without copying, callers must not modify them
+    public int[] getOffsets(){ return this.offsets; }
+
+    public int[] getTargets(){ return this.targets; }
+
+    public int[] getWeights(){ return this.weights; }
+
+    public int[] getEdgeIds(){ return this.edgeIds; }
+}
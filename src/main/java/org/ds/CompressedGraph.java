@@ -0,0 +1,213 @@
+package org.ds;
+
+
+import java.util.Arrays;
+
+/* Compressed adjacency (gap + varint encoding, in the style of WebGraph)
+ * Every neighbour list is sorted and stored as a byte stream from offsets[v] to offsets[v+1] (no degree needed):
+ *      zigzag(t0 - v) | t1 - t0 | t2 - t1 | ...      (all as varints)
+ * With weights every target is followed by zigzag(weight).
+ *
+ * Example (v = 100, neighbours 98, 101, 105):
+ *      zigzag(-2) = 3 | 3 | 4   ->  3 bytes instead of 12
+ *
+ * - varint: 7 bits per byte, high bit set on all but the last byte
+ * - zigzag maps signed to unsigned (0,-1,1,-2,.. -> 0,1,2,3,..) so small negative gaps stay 1 byte
+ * - neighbours of real graphs are close to each other (locality), so most gaps fit into a single byte
+ * - no random access to arcs, neighbours are decoded on the fly through a Cursor
+ * - one byte array with int offsets: at most 2 GB of encoded lists, compress fails beyond that
+ */
+public class CompressedGraph {
+    private static final int MAX_BYTES = Integer.MAX_VALUE - 8; // largest byte[] the VM hands out
+    private final int vertexCount;
+    private final boolean isDirected;
+    private final boolean hasWeights;
+    private final int arcCount;
+    private final int[] offsets; // byte position of the list of v, offsets[v+1] ends it
+    private final byte[] data;
+
+    private CompressedGraph(int vertexCount, boolean isDirected, boolean hasWeights, int arcCount, int[] offsets, byte[] data){
+        this.vertexCount = vertexCount;
+        this.isDirected = isDirected;
+        this.hasWeights = hasWeights;
+        this.arcCount = arcCount;
+        this.offsets = offsets;
+        this.data = data;
+    }
+
+    /* Encodes a read-only graph, withWeights = false drops the weights (enough for BFS/DFS) */
+    public static CompressedGraph compress(ReadOnlyGraph g, boolean withWeights){
+        int n = g.getVertexCount();
+        int[] offsets = new int[n+2];
+        byte[] data = new byte[(int) Math.min(MAX_BYTES, Math.max(16, g.getArcCount() * 2L))];
+        long[] sorted = new long[16];
+        int pos = 0;
+        for(int v = 1; v <= n; v++){
+            offsets[v] = pos;
+            int deg = g.end(v) - g.begin(v);
+            if(sorted.length < deg) sorted = new long[Math.max(deg, sorted.length * 2)];
+            for(int i = 0; i < deg; i++){ // (target, weight) packed, sorting orders by target first
+                int arc = g.begin(v) + i;
+                sorted[i] = ((long) g.target(arc) << 32) | (g.weight(arc) & 0xffffffffL);
+            }
+            Arrays.sort(sorted, 0, deg);
+
+            // worst case 5 bytes per varint, the exact size is only counted when that does not fit
+            if(pos + deg * 10L > data.length){
+                long needed = pos + listBytes(sorted, deg, v, withWeights);
+                if(needed > MAX_BYTES)
+                    throw new IllegalArgumentException("Compressed neighbour lists exceed 2 GB at vertex " + v + " of " + n);
+                data = Arrays.copyOf(data, (int) Math.min(MAX_BYTES, Math.max(needed, data.length + (data.length >> 1))));
+            }
+            int prev = v;
+            for(int i = 0; i < deg; i++){
+                int target = (int) (sorted[i] >>> 32);
+                pos = writeVarint(data, pos, i == 0 ? zigzag(target - v) : target - prev);
+                if(withWeights) pos = writeVarint(data, pos, zigzag((int) sorted[i]));
+                prev = target;
+            }
+        }
+        offsets[n+1] = pos;
+        return new CompressedGraph(n, g.isDirected(), withWeights, g.getArcCount(), offsets, Arrays.copyOf(data, pos));
+    }
+
+    // encoded size of the sorted neighbour list of v
+    private static long listBytes(long[] sorted, int deg, int v, boolean withWeights){
+        long bytes = 0;
+        int prev = v;
+        for(int i = 0; i < deg; i++){
+            int target = (int) (sorted[i] >>> 32);
+            bytes += varintBytes(i == 0 ? zigzag(target - v) : target - prev);
+            if(withWeights) bytes += varintBytes(zigzag((int) sorted[i]));
+            prev = target;
+        }
+        return bytes;
+    }
+
+    private static int varintBytes(int value){
+        int bytes = 1;
+        while((value & ~0x7F) != 0){
+            value >>>= 7;
+            bytes++;
+        }
+        return bytes;
+    }
+
+    private static int zigzag(int x){ return (x << 1) ^ (x >> 31); }
+
+    private static int unzigzag(int x){ return (x >>> 1) ^ -(x & 1); }
+
+    private static int writeVarint(byte[] data, int pos, int value){
+        while((value & ~0x7F) != 0){
+            data[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[pos++] = (byte) value;
+        return pos;
+    }
+
+    /* Decodes back into a CSR (neighbour lists stay sorted, edge ids are not stored and become 0) */
+    public CSR toCSR(){
+        int[] csrOffsets = new int[vertexCount+2];
+        int[] targets = new int[arcCount];
+        int[] weights = new int[arcCount];
+        Cursor c = cursor();
+        int arc = 0;
+        for(int v = 1; v <= vertexCount; v++){
+            csrOffsets[v] = arc;
+            for(c.reset(v); c.hasNext(); arc++){
+                targets[arc] = c.next();
+                weights[arc] = c.weight();
+            }
+        }
+        csrOffsets[vertexCount+1] = arc;
+        return new CSR(vertexCount, isDirected, csrOffsets, targets, weights, new int[arcCount]);
+    }
+
+    /* G' with all arcs flipped, goes through a temporary CSR */
+    public CompressedGraph transpose(){
+        return compress(toCSR().transpose(), hasWeights);
+    }
+
+    public int getVertexCount(){ return this.vertexCount; }
+
+    public boolean isDirected(){ return this.isDirected; }
+
+    public boolean hasWeights(){ return this.hasWeights; }
+
+    public int getArcCount(){ return this.arcCount; }
+
+    // size of the encoded neighbour lists plus the offsets
+    public long getByteCount(){ return data.length + 4L * offsets.length; }
+
+    // a new cursor, reuse it with reset(v) for every vertex
+    public Cursor cursor(){ return new Cursor(); }
+
+    /* Decoding iterator over the neighbours of one vertex, allocation free after creation
+     *  for(c.reset(u); c.hasNext(); )
+     *      int v = c.next(); int w = c.weight();
+     * A scan can be put aside and continued later with the same or another cursor:
+     *      pos = c.position(); last = v;  ...  c.resume(u, pos, last)
+     * (DFS keeps one int per stack level this way instead of one cursor per level)
+     */
+    public final class Cursor {
+        private int pos;
+        private int end; // the list of source ends where the list of source+1 starts
+        private int source;
+        private int current;
+        private int weight = 1;
+        private boolean first;
+
+        public Cursor reset(int v){
+            pos = offsets[v];
+            end = offsets[v + 1];
+            source = v;
+            first = true;
+            return this;
+        }
+
+        // continues the list of v at a position from position(), last is the neighbour next() returned before it
+        public Cursor resume(int v, int position, int last){
+            pos = position;
+            end = offsets[v + 1];
+            source = v;
+            current = last;
+            first = false;
+            return this;
+        }
+
+        // byte position of the next neighbour (only valid after at least one next())
+        public int position(){ return pos; }
+
+        public boolean hasNext(){ return pos < end; }
+
+        public int next(){
+            int x = readVarint();
+            if(first){
+                current = source + unzigzag(x);
+                first = false;
+            } else {
+                current += x;
+            }
+            if(hasWeights) weight = unzigzag(readVarint());
+            return current;
+        }
+
+        // weight of the neighbour returned by the last next() (1 without weights)
+        public int weight(){ return weight; }
+
+        private int readVarint(){
+            byte[] d = data;
+            int b = d[pos++];
+            if(b >= 0) return b; // single byte, the common case
+            int value = b & 0x7F;
+            int shift = 7;
+            do {
+                b = d[pos++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while(b < 0);
+            return value;
+        }
+    }
+}
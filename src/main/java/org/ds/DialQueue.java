@@ -0,0 +1,48 @@
+package org.ds;
+
+/* Dial's algorithm: a ring of maxWeight+1 buckets, one per key, for Dijkstra with small integer weights
+ * While u (key d) is relaxed every queued key lies in [d, d + maxWeight], so key % (maxWeight+1) never
+ * mixes two keys in one bucket. poll() walks the ring from the last polled key to the next non empty
+ * bucket, over a whole run the cursor moves at most (largest distance) steps.
+ *      offer: O(1)     poll: O(1) amortized + empty buckets skipped
+ */
+public class DialQueue extends BucketQueue {
+    private final int maxWeight;
+    private int cursor; // key polled last, lower bound of all queued keys
+
+    public DialQueue(int capacity, int maxWeight){
+        super(capacity, maxWeight + 1);
+        this.maxWeight = maxWeight;
+    }
+
+    public int getMaxWeight(){ return this.maxWeight; }
+
+    @Override
+    public void offer(int id, int key){
+        if(bucket[id] != -1){
+            if(key >= keys[id]) return;
+            unlink(id);
+            size--;
+        }
+        if(key < cursor || key - cursor > maxWeight)
+            throw new IllegalArgumentException("Key " + key + " is outside [" + cursor + ", " + (cursor + maxWeight) + "]");
+        keys[id] = key;
+        link(id, key % head.length);
+        size++;
+    }
+
+    @Override
+    public int poll(){
+        while(head[cursor % head.length] == -1) cursor++;
+        int id = head[cursor % head.length];
+        unlink(id);
+        size--;
+        return id;
+    }
+
+    @Override
+    public void clear(){
+        super.clear();
+        cursor = 0;
+    }
+}
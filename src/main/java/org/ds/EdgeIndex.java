@@ -0,0 +1,206 @@
+package org.ds;
+
+
+import java.util.Arrays;
+import java.util.List;
+
+/* Hash index (u,v) -> edges between u and v
+ * Open addressing with linear probing on primitive arrays, the key is the pair packed into a long:
+ *      key = u << 32 | v
+ * For undirected graphs the pair is stored as (min(u,v), max(u,v)), so both directions hit the same slot.
+ *
+ * Every slot keeps two positions in the edge list:
+ *      - first:    head of a chain over all parallel edges of the pair (chained through next[])
+ *      - lightest: the parallel edge with the smallest weight
+ * Lookups are O(1) expected, no Long/Integer boxing on insert or lookup.
+ */
+public class EdgeIndex {
+    private static final long EMPTY = 0L; // vertex ids start at 1, so no pair packs to 0
+
+    private final boolean isDirected;
+    private long[] keys;
+    private int[] first;
+    private int[] lightest;
+    private int[] next;      // next[i]: next parallel edge after edge list position i, -1 ends the chain
+    private int[] weights;   // weights[i]: weight of the edge at edge list position i
+    private int mask;
+    private int size;
+
+    public EdgeIndex(int expectedPairs, boolean isDirected){
+        this.isDirected = isDirected;
+        int capacity = Integer.highestOneBit(Math.max(expectedPairs, 4) * 2 - 1) << 1; // load factor <= 0.5
+        this.keys = new long[capacity];
+        this.first = new int[capacity];
+        this.lightest = new int[capacity];
+        this.mask = capacity - 1;
+        this.next = new int[Math.max(expectedPairs, 4)];
+        this.weights = new int[Math.max(expectedPairs, 4)];
+    }
+
+    public static EdgeIndex fromEdgeList(List<Edge> edgeList, boolean isDirected){
+        EdgeIndex index = new EdgeIndex(edgeList.size(), isDirected);
+        for(int i = 0; i < edgeList.size(); i++){
+            Edge e = edgeList.get(i);
+            index.add(e.getFromV().getId(), e.getToV().getId(), i, e.getWeight() == null ? 1 : e.getWeight());
+        }
+        return index;
+    }
+
+    private long key(int u, int v){
+        if(!isDirected && u > v) return ((long) v << 32) | u;
+        return ((long) u << 32) | v;
+    }
+
+    private int hash(long key){
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask; // fibonacci hashing, spreads neighbouring ids
+    }
+
+    // slot of key, or the empty slot where it would be inserted
+    private int slot(long key){
+        int s = hash(key);
+        while(keys[s] != EMPTY && keys[s] != key)
+            s = (s + 1) & mask;
+        return s;
+    }
+
+    /* registers the edge at edge list position pos between u and v */
+    public void add(int u, int v, int pos, int weight){
+        if(pos >= next.length){
+            next = Arrays.copyOf(next, Math.max(pos + 1, next.length * 2));
+            weights = Arrays.copyOf(weights, next.length);
+        }
+        weights[pos] = weight;
+        long key = key(u, v);
+        int s = slot(key);
+        if(keys[s] == EMPTY){
+            keys[s] = key;
+            first[s] = pos;
+            lightest[s] = pos;
+            next[pos] = -1;
+            if(++size * 2 > keys.length) grow();
+        } else {
+            next[pos] = first[s]; // prepend to chain of parallel edges
+            first[s] = pos;
+            if(weight < weights[lightest[s]]) lightest[s] = pos;
+        }
+    }
+
+    private void grow(){
+        long[] oldKeys = keys;
+        int[] oldFirst = first;
+        int[] oldLightest = lightest;
+        keys = new long[oldKeys.length * 2];
+        first = new int[keys.length];
+        lightest = new int[keys.length];
+        mask = keys.length - 1;
+        for(int i = 0; i < oldKeys.length; i++){
+            if(oldKeys[i] == EMPTY) continue;
+            int s = slot(oldKeys[i]);
+            keys[s] = oldKeys[i];
+            first[s] = oldFirst[i];
+            lightest[s] = oldLightest[i];
+        }
+    }
+
+    /* unregisters the edge at edge list position pos between u and v */
+    public void remove(int u, int v, int pos){
+        long key = key(u, v);
+        int s = slot(key);
+        if(keys[s] == EMPTY) return;
+        if(first[s] == pos){
+            first[s] = next[pos];
+        } else {
+            int prev = first[s];
+            while(prev != -1 && next[prev] != pos) prev = next[prev];
+            if(prev == -1) return; // pos is not an edge of this pair
+            next[prev] = next[pos];
+        }
+        if(first[s] == -1) deleteSlot(s);
+        else if(lightest[s] == pos) lightest[s] = findLightest(first[s]);
+    }
+
+    /* the edge between u and v moved from edge list position oldPos to newPos (e.g. swap-remove) */
+    public void move(int u, int v, int oldPos, int newPos){
+        if(newPos >= next.length){
+            next = Arrays.copyOf(next, Math.max(newPos + 1, next.length * 2));
+            weights = Arrays.copyOf(weights, next.length);
+        }
+        int s = slot(key(u, v));
+        if(keys[s] == EMPTY) return;
+        next[newPos] = next[oldPos];
+        weights[newPos] = weights[oldPos];
+        if(first[s] == oldPos){
+            first[s] = newPos;
+        } else {
+            int prev = first[s];
+            while(prev != -1 && next[prev] != oldPos) prev = next[prev];
+            if(prev != -1) next[prev] = newPos;
+        }
+        if(lightest[s] == oldPos) lightest[s] = newPos;
+    }
+
+    /* the edge at edge list position pos between u and v got a new weight */
+    public void setWeight(int u, int v, int pos, int weight){
+        weights[pos] = weight;
+        int s = slot(key(u, v));
+        if(keys[s] != EMPTY) lightest[s] = findLightest(first[s]);
+    }
+
+    private int findLightest(int head){
+        int best = head;
+        for(int i = next[head]; i != -1; i = next[i])
+            if(weights[i] < weights[best]) best = i;
+        return best;
+    }
+
+    /* Backward shift deletion for linear probing: entries after the freed slot that would no longer
+     * be reachable from their home slot are moved up, so no tombstones are needed
+     */
+    private void deleteSlot(int s){
+        keys[s] = EMPTY;
+        size--;
+        int j = s;
+        while(true){
+            j = (j + 1) & mask;
+            if(keys[j] == EMPTY) return;
+            int home = hash(keys[j]);
+            // entry at j stays if its home lies cyclically in (s, j]
+            if(s <= j ? (s < home && home <= j) : (s < home || home <= j)) continue;
+            keys[s] = keys[j];
+            first[s] = first[j];
+            lightest[s] = lightest[j];
+            keys[j] = EMPTY;
+            s = j;
+        }
+    }
+
+    public boolean hasEdge(int u, int v){
+        return keys[slot(key(u, v))] != EMPTY;
+    }
+
+    // edge list position of the lightest edge between u and v, -1 if there is none
+    public int find(int u, int v){
+        int s = slot(key(u, v));
+        return keys[s] == EMPTY ? -1 : lightest[s];
+    }
+
+    // weight of the lightest edge between u and v, WeightMatrix.INF if there is none
+    public int getWeight(int u, int v){
+        int s = slot(key(u, v));
+        return keys[s] == EMPTY ? WeightMatrix.INF : weights[lightest[s]];
+    }
+
+    // edge list positions of all (parallel) edges between u and v
+    public int[] findAll(int u, int v){
+        int s = slot(key(u, v));
+        if(keys[s] == EMPTY) return new int[0];
+        int count = 0;
+        for(int i = first[s]; i != -1; i = next[i]) count++;
+        int[] result = new int[count];
+        count = 0;
+        for(int i = first[s]; i != -1; i = next[i]) result[count++] = i;
+        return result;
+    }
+
+    public int size(){ return this.size; }
+}
@@ -1,16 +1,45 @@
 package org.ds;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 
 public class Graph {
-    private String dotFormat;
+    /* Representations that can be derived from the edge list.
+     * Each one is built on first access (expose/print) or explicitly through createDataStructs(EnumSet),
+     * so memory and start-up time only grow with what an algorithm actually uses.
+     * Creation is synchronized, so concurrent queries can share one loaded graph, the algorithms only read it.
+     *
+     * Updates (addEdge, removeEdge, updateWeight, addVertex, applyBatch) keep the adjacency list, the adjacency
+     * matrices and the edge index in sync incrementally. CSR, compressed & incidence structures are immutable snapshots,
+     * they are dropped and rebuilt on next access; queries still running on an old snapshot are not affected.
+     */
+    public enum Representation {
+        INC_MATRIX, // dense |V| x |E| incidence matrix
+        INC_LIST,   // sparse incidence structure, see IncidenceList
+        ADJ_MATRIX, // dense |V| x |V| adjacency matrix & weight matrix
+        ADJ_BITS,   // adjacency matrix packed into bits, see BitMatrix
+        WEIGHT_MATRIX, // flat primitive weight matrix with INF sentinel, see WeightMatrix
+        ADJ_LIST,   // adjacency list of vertex copies
+        CSR,        // compressed sparse row arrays, see CSR
+        EDGE_INDEX, // hash index (u,v) -> edges, see EdgeIndex
+        COMPRESSED  // gap/varint encoded neighbour lists, see CompressedGraph
+    };
+
     private boolean isDirected;
     private boolean hasWeights;
 
     private ArrayList<Edge> edgeList;
+    private int maxEdgeId;
     private int vertexCount;
     private Vertex[] vertexArr;
+    private int[] degree; // edges incident to v (self loops twice), v without edges has no list & no matrix diagonal
 
     private int[][] incMat;
     private int incRowSize;
@@ -18,34 +47,70 @@ public class Graph {
 
     private int[][] adjMat;
     private Integer[][] weightAdjMat;
+    private BitMatrix adjBits;
+    private WeightMatrix weightMat;
     private int adjRowSize;
     private int adjColSize;
 
+    private IncidenceList incList;
+
     private LinkedList<Vertex>[] adjList;
 
+    private CSR csr;
+
+    private CompressedGraph compressed;
+
+    private EdgeIndex edgeIndex;
+
     public Graph(int vertexCount, boolean isDirected){
         this.vertexCount = vertexCount;
         this.isDirected = isDirected;
         this.hasWeights = false;
 
         this.edgeList = new ArrayList<Edge>();
+        this.adjRowSize = this.adjColSize = vertexCount+1; // +1 bc we index v from 1
         this.vertexArr = new Vertex[vertexCount+1];
+        this.degree = new int[vertexCount+1];
         for(int i = 1; i <= vertexCount; i++)
-            vertexArr[i] = new Vertex(i, null);
+            vertexArr[i] = new Vertex(i);
     }
 
+    // eagerly builds every representation
     public void createDataStructs(){
-        createIncMatrix();
-        createAdjMatrix();
-        createAdjList();
+        createDataStructs(EnumSet.allOf(Representation.class));
+    }
+
+    // eagerly builds only the given representations, the rest stays lazy
+    public void createDataStructs(EnumSet<Representation> representations){
+        for (Representation r: representations) {
+            switch (r) {
+                case INC_MATRIX: exposeIncMatrix(); break;
+                case INC_LIST: exposeIncList(); break;
+                case ADJ_MATRIX: exposeAdjMatrix(); break;
+                case ADJ_BITS: exposeAdjBitMatrix(); break;
+                case WEIGHT_MATRIX: exposeWeightMatrix(); break;
+                case ADJ_LIST: exposeAdjList(); break;
+                case CSR: exposeCSR(); break;
+                case EDGE_INDEX: exposeEdgeIndex(); break;
+                case COMPRESSED: exposeCompressed(); break;
+            }
+        }
+    }
+
+    // drops the immutable snapshots, they get rebuilt from the edge list on next access
+    private void invalidateSnapshots(){
+        incMat = null;
+        incList = null;
+        csr = null;
+        compressed = null;
     }
 
     public ArrayList<Edge> returnEdgeList(){
         return this.edgeList;
     }
 
-    public void addEdge(int first, int second, int id, boolean isDirected, Integer weight){
-        edgeList.add(new Edge
+    public synchronized void addEdge(int first, int second, int id, boolean isDirected, Integer weight){
+        insertEdge(new Edge
                 (       vertexArr[first],
                         vertexArr[second],
                         isDirected,
@@ -53,6 +118,207 @@ public class Graph {
                         weight
                 )
         );
+        invalidateSnapshots();
+    }
+
+    // adds an edge with the next free id and returns that id
+    public synchronized int addEdge(int first, int second, Integer weight){
+        int id = maxEdgeId + 1;
+        addEdge(first, second, id, isDirected, weight);
+        return id;
+    }
+
+    // removes the (lightest) edge between the two vertices and returns it, null if there is none
+    public synchronized Edge removeEdge(int from, int to){
+        int pos = exposeEdgeIndex().find(from, to);
+        if(pos == -1) return null;
+        Edge e = deleteEdge(pos);
+        invalidateSnapshots();
+        return e;
+    }
+
+    // sets the weight of the (lightest) edge between the two vertices, false if there is none
+    public synchronized boolean updateWeight(int from, int to, Integer weight){
+        int pos = exposeEdgeIndex().find(from, to);
+        if(pos == -1) return false;
+        reweightEdge(pos, weight);
+        invalidateSnapshots();
+        return true;
+    }
+
+    // adds an isolated vertex and returns its id
+    public synchronized int addVertex(){
+        growVertices(1);
+        invalidateSnapshots();
+        return vertexCount;
+    }
+
+    /* Applies all changes of the batch in one pass (see GraphUpdate)
+     *  - vertices are created up front, so matrices & arrays grow once per batch
+     *  - edge list, edge index and matrices are updated per change, O(1) each
+     *  - the adjacency list is updated per change unless the batch is large compared to |E|,
+     *    then it is dropped and rebuilt once on next access (O(V+E) instead of O(batch * deg))
+     *  - snapshots (CSR, incidence) are dropped once at the end
+     * Returns the number of changes that were applied (removing/updating a missing edge is skipped).
+     */
+    public synchronized int applyBatch(GraphUpdate batch){
+        int newVertices = 0;
+        for(int i = 0; i < batch.size; i++)
+            if(batch.ops[i] == GraphUpdate.ADD_VERTEX) newVertices++;
+        if(newVertices > 0) growVertices(newVertices);
+        if(adjList != null && batch.size > edgeList.size() / 16) adjList = null;
+
+        int applied = newVertices;
+        for(int i = 0; i < batch.size; i++){
+            int u = batch.from[i], v = batch.to[i];
+            Integer w = batch.weight[i] == GraphUpdate.NO_WEIGHT ? null : batch.weight[i];
+            switch (batch.ops[i]) {
+                case GraphUpdate.ADD_EDGE:
+                    insertEdge(new Edge(vertexArr[u], vertexArr[v], isDirected, maxEdgeId + 1, w));
+                    applied++;
+                    break;
+                case GraphUpdate.REMOVE_EDGE: {
+                    int pos = exposeEdgeIndex().find(u, v);
+                    if(pos != -1){ deleteEdge(pos); applied++; }
+                    break;
+                }
+                case GraphUpdate.UPDATE_WEIGHT: {
+                    int pos = exposeEdgeIndex().find(u, v);
+                    if(pos != -1){ reweightEdge(pos, w); applied++; }
+                    break;
+                }
+            }
+        }
+        invalidateSnapshots();
+        return applied;
+    }
+
+    private static int weightOf(Edge e){ return e.getWeight() == null ? 1 : e.getWeight(); }
+
+    // appends e to the edge list and every built representation that is kept in sync
+    private void insertEdge(Edge e){
+        int from = e.getFromV().getId();
+        int to = e.getToV().getId();
+        edgeList.add(e);
+        maxEdgeId = Math.max(maxEdgeId, e.getId());
+        if(e.getWeight() != null) hasWeights = true; // savers & printers trust the flag
+        degree[from]++;
+        degree[to]++;
+
+        if(edgeIndex != null) edgeIndex.add(from, to, edgeList.size()-1, weightOf(e));
+        if(adjList != null) addToAdjList(e);
+        if(adjMat != null){
+            adjMat[from][to] = 1;
+            adjMat[to][from] = 1;
+            setWeightAdjEntry(from, to, e.getWeight());
+            weightAdjMat[from][from] = 0;
+            weightAdjMat[to][to] = 0;
+            if(!isDirected && from != to) setWeightAdjEntry(to, from, e.getWeight()); // diagonal stays 0
+        }
+        if(adjBits != null){
+            adjBits.set(from, to);
+            adjBits.set(to, from);
+        }
+        if(weightMat != null){
+            int w = weightOf(e);
+            if(w < weightMat.get(from, to)) weightMat.set(from, to, w);
+            weightMat.set(from, from, 0);
+            weightMat.set(to, to, 0);
+            if(!isDirected && from != to && w < weightMat.get(to, from)) weightMat.set(to, from, w);
+        }
+    }
+
+    // removes the edge at edge list position pos by moving the last edge into its place
+    private Edge deleteEdge(int pos){
+        Edge e = edgeList.get(pos);
+        int from = e.getFromV().getId();
+        int to = e.getToV().getId();
+        int last = edgeList.size()-1;
+
+        edgeIndex.remove(from, to, pos);
+        if(pos != last){
+            Edge moved = edgeList.get(last);
+            edgeIndex.move(moved.getFromV().getId(), moved.getToV().getId(), last, pos);
+            edgeList.set(pos, moved);
+        }
+        edgeList.remove(last);
+
+        if(adjList != null) removeFromAdjList(e);
+        refreshMatrixEntries(from, to);
+        if(--degree[from] == 0) dropVertexEntries(from);
+        if(--degree[to] == 0) dropVertexEntries(to);
+        return e;
+    }
+
+    // v lost its last edge: back to the state of a rebuild, where only endpoints get a list & a 0 diagonal
+    private void dropVertexEntries(int v){
+        if(adjList != null) adjList[v] = null;
+        if(weightAdjMat != null) weightAdjMat[v][v] = null;
+        if(weightMat != null) weightMat.set(v, v, WeightMatrix.INF);
+    }
+
+    private void reweightEdge(int pos, Integer weight){
+        Edge e = edgeList.get(pos);
+        int from = e.getFromV().getId();
+        int to = e.getToV().getId();
+        e.setWeight(weight);
+        if(weight != null) hasWeights = true;
+        edgeIndex.setWeight(from, to, pos, weightOf(e));
+        refreshMatrixEntries(from, to);
+    }
+
+    /* recomputes the matrix entries of the pair (from, to) from the edge index,
+     * weight entries hold the lightest of parallel edges
+     */
+    private void refreshMatrixEntries(int from, int to){
+        boolean adjacent = edgeIndex.hasEdge(from, to) || edgeIndex.hasEdge(to, from);
+        if(adjMat != null){
+            adjMat[from][to] = adjMat[to][from] = adjacent ? 1 : 0;
+            if(from != to){ // diagonal stays 0
+                int pos = edgeIndex.find(from, to);
+                weightAdjMat[from][to] = pos == -1 ? null : edgeList.get(pos).getWeight();
+                if(!isDirected) weightAdjMat[to][from] = weightAdjMat[from][to];
+            }
+        }
+        if(adjBits != null){
+            if(adjacent){ adjBits.set(from, to); adjBits.set(to, from); }
+            else { adjBits.clear(from, to); adjBits.clear(to, from); }
+        }
+        if(weightMat != null && from != to){
+            weightMat.set(from, to, edgeIndex.getWeight(from, to));
+            if(!isDirected) weightMat.set(to, from, edgeIndex.getWeight(from, to));
+        }
+    }
+
+    // keeps the lightest weight for parallel edges, null weights (unweighted) leave the entry as is
+    private void setWeightAdjEntry(int from, int to, Integer weight){
+        if(weight != null && (weightAdjMat[from][to] == null || weight < weightAdjMat[from][to]))
+            weightAdjMat[from][to] = weight;
+    }
+
+    // adds count isolated vertices, grows vertex array, adjacency list & matrices once
+    private void growVertices(int count){
+        int oldSize = vertexCount+1;
+        vertexCount += count;
+        adjRowSize = adjColSize = vertexCount+1;
+        vertexArr = Arrays.copyOf(vertexArr, vertexCount+1);
+        degree = Arrays.copyOf(degree, vertexCount+1);
+        for(int i = oldSize; i <= vertexCount; i++)
+            vertexArr[i] = new Vertex(i);
+
+        if(adjList != null) adjList = Arrays.copyOf(adjList, vertexCount+1);
+        if(adjMat != null){
+            int[][] grownAdj = new int[adjRowSize][];
+            Integer[][] grownWeights = new Integer[adjRowSize][];
+            for(int i = 0; i < adjRowSize; i++){
+                grownAdj[i] = i < oldSize ? Arrays.copyOf(adjMat[i], adjColSize) : new int[adjColSize];
+                grownWeights[i] = i < oldSize ? Arrays.copyOf(weightAdjMat[i], adjColSize) : new Integer[adjColSize];
+            }
+            adjMat = grownAdj;
+            weightAdjMat = grownWeights;
+        }
+        if(adjBits != null) adjBits = adjBits.resize(adjRowSize);
+        if(weightMat != null) weightMat = weightMat.resize(adjRowSize);
     }
 
     public int getVertexCount(){ return this.vertexCount; }
@@ -63,47 +329,112 @@ public class Graph {
 
     public void setHasWeights(boolean hasWeights){ this.hasWeights = hasWeights; }
 
-    // Finds an edge with two given vertices for an undirected graph and returns it when found
+    // Finds an edge with two given vertices and returns it when found, honors direction for directed graphs
     public Edge findEdge(Vertex from, Vertex to){
-        for (Edge e: this.edgeList) {
-            if(e.getFromV().equals(from) && e.getToV().equals(to) || e.getFromV().equals(to) && e.getToV().equals(from)){
-                return e;
-            }
-        }
-        return null;
+        return findEdge(from.getId(), to.getId());
+    }
+
+    // O(1) lookup through the edge index, returns the lightest of parallel edges or null
+    public Edge findEdge(int from, int to){
+        int pos = exposeEdgeIndex().find(from, to);
+        return pos == -1 ? null : edgeList.get(pos);
+    }
+
+    // ids of all (parallel) edges between the two vertices
+    public int[] findEdgeIds(int from, int to){
+        int[] positions = exposeEdgeIndex().findAll(from, to);
+        int[] ids = new int[positions.length];
+        for(int i = 0; i < positions.length; i++)
+            ids[i] = edgeList.get(positions[i]).getId();
+        return ids;
+    }
+
+    public boolean hasEdge(int from, int to){
+        return exposeEdgeIndex().hasEdge(from, to);
+    }
+
+    // weight of the lightest edge between the two vertices (1 if unweighted), WeightMatrix.INF if there is none
+    public int getWeight(int from, int to){
+        return exposeEdgeIndex().getWeight(from, to);
+    }
+
+    /* Hash index over the edge list keyed by the packed pair (from, to), see EdgeIndex
+     * built once with O(E) work, afterwards every edge lookup is O(1) instead of a scan over the edge list
+     */
+    private void createEdgeIndex(){
+        edgeIndex = EdgeIndex.fromEdgeList(edgeList, isDirected);
+    }
+
+    public synchronized EdgeIndex exposeEdgeIndex(){
+        if(edgeIndex == null) createEdgeIndex();
+        return edgeIndex;
     }
 
     public Vertex[] getVertexArr(){ return this.vertexArr; }
 
+    /* Exporters
+     * write*(.., out) stream a representation into any Appendable (Writer, PrintStream, StringBuilder),
+     * one row/edge at a time, so exports run in O(output) time and need no extra memory.
+     * Wrap files in a buffer:
+     *      try (Writer out = new BufferedWriter(new FileWriter(file))) { g.writeDOT(true, out); }
+     * print*() write the same text buffered to stdout.
+     */
+
+    // stdout through a buffer, flushed (not closed) after each dump
+    private static PrintWriter stdout(){
+        return new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16));
+    }
+
     public String convertDOT(boolean isDirected){
         System.out.println("\nDOT FORMAT");
-        if(isDirected) {
-            dotFormat = "digraph {\n";
-            for(int i = 0; i < edgeList.size(); i++){
-                dotFormat = dotFormat + "\t" + edgeList.get(i).getFromV().getId() + " -> "
-                        + edgeList.get(i).getToV().getId()+ ";\n";
-            }
-        } else {
-            dotFormat = "graph {\n";
-            for(int i = 0; i < edgeList.size(); i++){
-                dotFormat = dotFormat + "\t" + edgeList.get(i).getFromV().getId() + " -- "
-                        + edgeList.get(i).getToV().getId()+ ";\n";
-            }
+        StringBuilder dotFormat = new StringBuilder(16 * edgeList.size() + 16);
+        try {
+            writeDOT(isDirected, dotFormat);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // a StringBuilder does not throw
         }
-        dotFormat = dotFormat + "}";
+        return dotFormat.toString();
+    }
 
-        return dotFormat;
+    public void writeDOT(boolean isDirected, Appendable out) throws IOException {
+        String arrow = isDirected ? " -> " : " -- ";
+        out.append(isDirected ? "digraph {\n" : "graph {\n");
+        for(int i = 0; i < edgeList.size(); i++){
+            Edge e = edgeList.get(i);
+            out.append('\t').append(String.valueOf(e.getFromV().getId())).append(arrow)
+                    .append(String.valueOf(e.getToV().getId())).append(";\n");
+        }
+        out.append('}');
     }
 
     public void printEdgeList(boolean directed) {
         System.out.println("\nEDGELIST");
-        String arrow = "";
-        if(directed) arrow = "-> ";
-                else arrow = "- ";
+        PrintWriter out = stdout();
+        try {
+            writeEdgeList(directed, out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // a PrintWriter does not throw
+        }
+        out.flush();
+    }
+
+    public void writeEdgeList(boolean directed, Appendable out) throws IOException {
+        String arrow = directed ? ")-> v" : ")- v";
         for (int i = 0; i < edgeList.size(); i++) {
             Edge e = edgeList.get(i);
-            System.out.println("Edge " + e.getId() + "\t"
-                    + "v" + e.getFromV().getId() + " -(" + e.getWeight() + ")" + arrow + "v" + e.getToV().getId());
+            out.append("Edge ").append(String.valueOf(e.getId())).append("\tv").append(String.valueOf(e.getFromV().getId()))
+                    .append(" -(").append(String.valueOf(e.getWeight())).append(arrow)
+                    .append(String.valueOf(e.getToV().getId())).append('\n');
+        }
+    }
+
+    /* Edge list in the input format (first line |V|, then "u v" or "u w v"), reads back in through Reader */
+    public void exportEdgeList(Appendable out) throws IOException {
+        out.append(String.valueOf(vertexCount)).append('\n');
+        for (Edge e: edgeList) {
+            out.append(String.valueOf(e.getFromV().getId())).append(' ');
+            if(e.getWeight() != null) out.append(String.valueOf(e.getWeight())).append(' ');
+            out.append(String.valueOf(e.getToV().getId())).append('\n');
         }
     }
 
@@ -123,41 +454,62 @@ public class Graph {
      *       through permutation of rows & columns
      */
     private void createIncMatrix(){
-        incRowSize = vertexCount+1; // +1 bc we index v,e from id 1
-        incColSize = edgeList.size()+1;
-        incMat = new int[incRowSize][incColSize];
+        IncidenceList inc = exposeIncList();
+        incMat = new int[incRowSize][incColSize]; // java zero-initializes
 
-        for(int i = 0; i < incRowSize; i++){
-            for(int j = 0; j < incColSize; j++){
-                incMat[i][j] = 0; // init
-            }
+        for(int e = 1; e < incColSize; e++){
+            if(inc.getFrom(e) == 0) continue; // no edge with this id
+            incMat[inc.getFrom(e)][e] = 1;
+            incMat[inc.getTo(e)][e] = 1;
         }
+    }
 
-        for(int i = 0; i < edgeList.size(); i++){
-            Edge e = edgeList.get(i);
-            Vertex fromV = edgeList.get(i).getFromV();
-            Vertex toV = edgeList.get(i).getToV();
+    public synchronized int[][] exposeIncMatrix(){
+        if(incMat == null) createIncMatrix();
+        return incMat;
+    }
 
-            incMat[fromV.getId()][e.getId()] = 1;
-            incMat[toV.getId()][e.getId()] = 1;
-        }
+    /* Graph G = (V,E)
+     * Sparse counterpart of the incidence matrix, O(V+E) instead of O(V*E) memory
+     * edge -> endpoints and vertex -> incident edges (see IncidenceList)
+     */
+    private void createIncList(){
+        incList = IncidenceList.fromEdgeList(vertexCount, edgeList);
+        incRowSize = vertexCount+1; // +1 bc we index v,e from id 1
+        incColSize = incList.getMaxEdgeId()+1;
     }
 
-    public int[][] exposeIncMatrix(){
-        return incMat;
+    public synchronized IncidenceList exposeIncList(){
+        if(incList == null) createIncList();
+        return incList;
     }
 
+    // prints the matrix row by row from the sparse incidence list, the dense matrix is never built
     public void printIncMatrix(){
         System.out.println("\nINCIDENCE MATRIX");
-        String colIndexes = "";
+        PrintWriter out = stdout();
+        try {
+            writeIncMatrix(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // a PrintWriter does not throw
+        }
+        out.flush();
+    }
+
+    public void writeIncMatrix(Appendable out) throws IOException {
+        IncidenceList inc = exposeIncList();
+        out.append('\t');
         for(int i = 1; i < incColSize; i++)
-            colIndexes = colIndexes + "e" + i + "\t";
-        System.out.println("\t" + colIndexes);
+            out.append('e').append(String.valueOf(i)).append('\t');
+        out.append('\n');
+        int[] row = new int[incColSize];
         for(int i = 1; i < incRowSize; i++){
-            String colValues = "";
+            for(int k = inc.begin(i); k < inc.end(i); k++) row[inc.edgeId(k)] = 1;
+            out.append('v').append(String.valueOf(i)).append('\t');
             for(int j = 1; j < incColSize; j++)
-                colValues = colValues + incMat[i][j] + "\t";
-            System.out.println("v" + i + "\t" + colValues);
+                out.append(row[j] == 1 ? '1' : '0').append('\t');
+            out.append('\n');
+            for(int k = inc.begin(i); k < inc.end(i); k++) row[inc.edgeId(k)] = 0;
         }
     }
 
@@ -175,7 +527,6 @@ public class Graph {
      *      resulting entry a(i,j) becomes the nr. of paths of length k from i to j.
      */
     private void createAdjMatrix(){
-        adjRowSize = adjColSize = vertexCount+1; // +1 bc we index v,e from 1
         adjMat = new int[adjRowSize][adjColSize];
         weightAdjMat = new Integer[adjRowSize][adjColSize];
         // init with 0s
@@ -192,33 +543,85 @@ public class Graph {
             adjMat[fromV.getId()][toV.getId()] = 1;
             adjMat[toV.getId()][fromV.getId()] = 1;
 
-            weightAdjMat[fromV.getId()][toV.getId()] = edgeList.get(i).getWeight();
+            setWeightAdjEntry(fromV.getId(), toV.getId(), edgeList.get(i).getWeight());
             weightAdjMat[fromV.getId()][fromV.getId()] = 0;
             weightAdjMat[toV.getId()][toV.getId()] = 0;
-            if(!isDirected)
-                weightAdjMat[toV.getId()][fromV.getId()] = edgeList.get(i).getWeight();
+            if(!isDirected && !fromV.getId().equals(toV.getId())) // diagonal stays 0, as for directed self loops
+                setWeightAdjEntry(toV.getId(), fromV.getId(), edgeList.get(i).getWeight());
         }
     }
 
-    public int[][] exposeAdjMatrix(){
+    public synchronized int[][] exposeAdjMatrix(){
+        if(adjMat == null) createAdjMatrix();
         return adjMat;
     }
 
     public void printAdjMatrix(){
         System.out.println("\nADJACENCY MATRIX");
-        String colIndexes = "";
+        PrintWriter out = stdout();
+        try {
+            writeAdjMatrix(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // a PrintWriter does not throw
+        }
+        out.flush();
+    }
+
+    public void writeAdjMatrix(Appendable out) throws IOException {
+        int[][] adjMat = exposeAdjMatrix();
+        out.append('\t');
         for(int i = 1; i < adjColSize; i++)
-            colIndexes = colIndexes + "v" + i + "\t";
-        System.out.println("\t" + colIndexes);
+            out.append('v').append(String.valueOf(i)).append('\t');
+        out.append('\n');
         for(int i = 1; i < adjRowSize; i++){
-            String colValues = "";
+            out.append('v').append(String.valueOf(i)).append('\t');
             for(int j = 1; j < adjColSize; j++)
-                colValues = colValues + adjMat[i][j] + "\t";
-            System.out.println("v" + i + "\t" + colValues);
+                out.append(String.valueOf(adjMat[i][j])).append('\t');
+            out.append('\n');
+        }
+    }
+
+    public synchronized Integer[][] exposeWeightAdjMatrix(){
+        if(weightAdjMat == null) createAdjMatrix();
+        return this.weightAdjMat;
+    }
+
+    /* Same entries as the adjacency matrix, 1 bit per entry (see BitMatrix) */
+    private void createAdjBitMatrix(){
+        adjBits = new BitMatrix(adjRowSize);
+        for (Edge e: edgeList) {
+            int from = e.getFromV().getId();
+            int to = e.getToV().getId();
+            adjBits.set(from, to);
+            adjBits.set(to, from);
+        }
+    }
+
+    public synchronized BitMatrix exposeAdjBitMatrix(){
+        if(adjBits == null) createAdjBitMatrix();
+        return adjBits;
+    }
+
+    /* Same entries as the weight adjacency matrix, but INF instead of null (see WeightMatrix) */
+    private void createWeightMatrix(){
+        weightMat = new WeightMatrix(adjRowSize);
+        for (Edge e: edgeList) {
+            int from = e.getFromV().getId();
+            int to = e.getToV().getId();
+            int w = e.getWeight() == null ? 1 : e.getWeight();
+
+            if(w < weightMat.get(from, to)) weightMat.set(from, to, w); // lightest of parallel edges
+            weightMat.set(from, from, 0);
+            weightMat.set(to, to, 0);
+            if(!isDirected && from != to && w < weightMat.get(to, from))
+                weightMat.set(to, from, w);
         }
     }
 
-    public Integer[][] exposeWeightAdjMatrix(){ return this.weightAdjMat; }
+    public synchronized WeightMatrix exposeWeightMatrix(){
+        if(weightMat == null) createWeightMatrix();
+        return weightMat;
+    }
 
     public int getAdjRowSize(){ return this.adjRowSize; }
 
@@ -233,24 +636,47 @@ public class Graph {
         adjList = new LinkedList[vertexCount+1]; // +1 again since we skip index 0....
 
         for (Edge e: edgeList) {
-            Vertex from = new Vertex(e.getFromV()); // create copies
-            Vertex to = new Vertex(e.getToV());
+            addToAdjList(e);
+        }
+    }
 
-            if(adjList[from.getId()] == null){
-                adjList[from.getId()] = new LinkedList<Vertex>();
-                adjList[from.getId()].add(new Vertex(from)); // add it as first element because we need the vertex object later
-            }
-            if(adjList[to.getId()] == null) {
-                adjList[to.getId()] = new LinkedList<Vertex>();
-                adjList[to.getId()].add(new Vertex(to)); // add it as first element because we need the vertex object later
-            }
-            if(!e.isDirected()){ // Edge undirected, add adjacent vertices for both
-                adjList[from.getId()].add(to);
-                to.setEdge(e); // set edge references for nodes
-                adjList[to.getId()].add(from);
-            } else { // Edge directed, so only create for one direction
-                adjList[from.getId()].add(to);
-                to.setEdge(e); // set edge references for nodes
+    private void addToAdjList(Edge e){
+        Vertex from = new Vertex(e.getFromV()); // create copies
+        Vertex to = new Vertex(e.getToV());
+
+        if(adjList[from.getId()] == null){
+            adjList[from.getId()] = new LinkedList<Vertex>();
+            adjList[from.getId()].add(new Vertex(from)); // add it as first element because we need the vertex object later
+        }
+        if(adjList[to.getId()] == null) {
+            adjList[to.getId()] = new LinkedList<Vertex>();
+            adjList[to.getId()].add(new Vertex(to)); // add it as first element because we need the vertex object later
+        }
+        if(!e.isDirected()){ // Edge undirected, add adjacent vertices for both
+            adjList[from.getId()].add(to);
+            to.setEdge(e); // set edge references for nodes
+            adjList[to.getId()].add(from);
+            from.setEdge(e);
+        } else { // Edge directed, so only create for one direction
+            adjList[from.getId()].add(to);
+            to.setEdge(e); // set edge references for nodes
+        }
+    }
+
+    // removes the vertex copies that reference e, O(deg)
+    private void removeFromAdjList(Edge e){
+        removeEdgeCopy(adjList[e.getFromV().getId()], e);
+        if(!e.isDirected()) removeEdgeCopy(adjList[e.getToV().getId()], e);
+    }
+
+    private static void removeEdgeCopy(LinkedList<Vertex> list, Edge e){
+        if(list == null) return;
+        Iterator<Vertex> it = list.iterator();
+        it.next(); // first element is the vertex itself
+        while(it.hasNext()){
+            if(it.next().getEdge() == e){
+                it.remove();
+                return;
             }
         }
     }
@@ -260,18 +686,56 @@ public class Graph {
         if(isDirected) dir = "(DIRECTED)";
         else dir = "(UNDIRECTED)";
         System.out.println("\nADJACENCY LIST " + dir);
+        PrintWriter out = stdout();
+        try {
+            writeAdjList(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // a PrintWriter does not throw
+        }
+        out.flush();
+    }
 
+    public void writeAdjList(Appendable out) throws IOException {
+        LinkedList<Vertex>[] adjList = exposeAdjList();
         for(int i = 1; i < adjList.length; i++){
-            System.out.print("\n[V" + i + "]: ");
+            out.append("\n[V").append(String.valueOf(i)).append("]: ");
             if(adjList[i] != null) {
                 for (Vertex v : adjList[i]) {
-                    System.out.print("V" + v.getId() + "->");
+                    out.append('V').append(String.valueOf(v.getId())).append("->");
                 }
             }
         }
     }
 
-    public LinkedList<Vertex>[] exposeAdjList(){
+    public synchronized LinkedList<Vertex>[] exposeAdjList(){
+        if(adjList == null) createAdjList();
         return adjList;
     }
+
+    /* Graph G = (V,E)
+     * Same neighbourhoods as the adjacency list, but packed into flat int arrays (see CSR).
+     * Neighbours of v are targets[offsets[v]] .. targets[offsets[v+1]-1], no Vertex copies are created.
+     */
+    private void createCSR(){
+        csr = CSR.fromEdgeList(vertexCount, isDirected, edgeList);
+    }
+
+    public synchronized CSR exposeCSR(){
+        if(csr == null) createCSR();
+        return csr;
+    }
+
+    /* Graph G = (V,E)
+     * Same neighbourhoods as the CSR, but sorted and gap/varint encoded (see CompressedGraph),
+     * typically 3-5x less memory per arc. Edge ids are not kept, weights are.
+     * A CSR that is not cached yet is only built temporarily.
+     */
+    private void createCompressed(){
+        compressed = CompressedGraph.compress(csr != null ? csr : CSR.fromEdgeList(vertexCount, isDirected, edgeList), true);
+    }
+
+    public synchronized CompressedGraph exposeCompressed(){
+        if(compressed == null) createCompressed();
+        return compressed;
+    }
 }
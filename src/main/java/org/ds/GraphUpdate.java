@@ -0,0 +1,70 @@
+package org.ds;
+
+
+import java.util.Arrays;
+
+/* Batch of changes for Graph.applyBatch(), recorded in primitive arrays (no object per change)
+ *
+ *  GraphUpdate batch = new GraphUpdate()
+ *          .addVertex()
+ *          .addEdge(1, 10, 4)
+ *          .updateWeight(2, 3, 7)
+ *          .removeEdge(4, 5);
+ *  g.applyBatch(batch);
+ *
+ * Changes are applied in the order they were recorded. Vertices created by addVertex() get the ids
+ * vertexCount+1, vertexCount+2, ... so later edges of the same batch can already reference them.
+ */
+public class GraphUpdate {
+    static final byte ADD_EDGE = 0;
+    static final byte REMOVE_EDGE = 1;
+    static final byte UPDATE_WEIGHT = 2;
+    static final byte ADD_VERTEX = 3;
+    static final int NO_WEIGHT = Integer.MIN_VALUE; // stands for a null weight (unweighted edge)
+
+    byte[] ops;
+    int[] from;
+    int[] to;
+    int[] weight;
+    int size;
+
+    public GraphUpdate(){
+        this(16);
+    }
+
+    public GraphUpdate(int expectedSize){
+        int capacity = Math.max(expectedSize, 1);
+        ops = new byte[capacity];
+        from = new int[capacity];
+        to = new int[capacity];
+        weight = new int[capacity];
+    }
+
+    private GraphUpdate record(byte op, int u, int v, Integer w){
+        if(size == ops.length){
+            int capacity = size * 2;
+            ops = Arrays.copyOf(ops, capacity);
+            from = Arrays.copyOf(from, capacity);
+            to = Arrays.copyOf(to, capacity);
+            weight = Arrays.copyOf(weight, capacity);
+        }
+        ops[size] = op;
+        from[size] = u;
+        to[size] = v;
+        weight[size] = w == null ? NO_WEIGHT : w;
+        size++;
+        return this;
+    }
+
+    public GraphUpdate addEdge(int from, int to, Integer weight){ return record(ADD_EDGE, from, to, weight); }
+
+    public GraphUpdate removeEdge(int from, int to){ return record(REMOVE_EDGE, from, to, null); }
+
+    public GraphUpdate updateWeight(int from, int to, Integer weight){ return record(UPDATE_WEIGHT, from, to, weight); }
+
+    public GraphUpdate addVertex(){ return record(ADD_VERTEX, 0, 0, null); }
+
+    public int size(){ return this.size; }
+
+    public void clear(){ this.size = 0; }
+}
@@ -0,0 +1,85 @@
+package org.ds;
+
+
+import java.util.List;
+
+/* Sparse incidence structure of a graph G = (V,E), same information as the |V| x |E| incidence matrix
+ * but only O(V+E) memory:
+ *      - edge -> endpoints: fromIds[e], toIds[e] for edge id e
+ *      - vertex -> incident edges: edgeIds[offsets[v]] .. edgeIds[offsets[v+1]-1]
+ *
+ * Example:
+ *    e1 = {v1,v2}, e2 = {v1,v3}
+ *    fromIds: [-, 1, 1]    toIds: [-, 2, 3]
+ *    v1: e1 e2   v2: e1   v3: e2
+ *
+ * - Every edge is incident to both endpoints, direction does not matter (like the matrix)
+ * - A self edge is listed once for its vertex, the matrix column also only has a single 1
+ */
+public class IncidenceList {
+    private final int vertexCount;
+    private final int maxEdgeId;
+    private final int[] fromIds;
+    private final int[] toIds;
+    private final int[] offsets;
+    private final int[] edgeIds;
+
+    private IncidenceList(int vertexCount, int maxEdgeId, int[] fromIds, int[] toIds, int[] offsets, int[] edgeIds){
+        this.vertexCount = vertexCount;
+        this.maxEdgeId = maxEdgeId;
+        this.fromIds = fromIds;
+        this.toIds = toIds;
+        this.offsets = offsets;
+        this.edgeIds = edgeIds;
+    }
+
+    public static IncidenceList fromEdgeList(int vertexCount, List<Edge> edgeList){
+        int maxEdgeId = 0;
+        for (Edge e: edgeList)
+            maxEdgeId = Math.max(maxEdgeId, e.getId());
+
+        int[] fromIds = new int[maxEdgeId+1]; // +1 bc we index e from id 1
+        int[] toIds = new int[maxEdgeId+1];
+        int[] offsets = new int[vertexCount+2];
+        for (Edge e: edgeList) {
+            int from = e.getFromV().getId();
+            int to = e.getToV().getId();
+            fromIds[e.getId()] = from;
+            toIds[e.getId()] = to;
+            offsets[from+1]++;
+            if(from != to) offsets[to+1]++;
+        }
+        for(int v = 1; v < offsets.length; v++)
+            offsets[v] += offsets[v-1];
+
+        int[] edgeIds = new int[offsets[vertexCount+1]];
+        int[] next = new int[vertexCount+1];
+        System.arraycopy(offsets, 0, next, 0, vertexCount+1);
+        for (Edge e: edgeList) {
+            int from = e.getFromV().getId();
+            int to = e.getToV().getId();
+            edgeIds[next[from]++] = e.getId();
+            if(from != to) edgeIds[next[to]++] = e.getId();
+        }
+        return new IncidenceList(vertexCount, maxEdgeId, fromIds, toIds, offsets, edgeIds);
+    }
+
+    public int getVertexCount(){ return this.vertexCount; }
+
+    public int getMaxEdgeId(){ return this.maxEdgeId; }
+
+    public int getFrom(int edgeId){ return fromIds[edgeId]; }
+
+    public int getTo(int edgeId){ return toIds[edgeId]; }
+
+    public int begin(int v){ return offsets[v]; }
+
+    public int end(int v){ return offsets[v+1]; }
+
+    public int edgeId(int slot){ return edgeIds[slot]; }
+
+    // entry a(v,e) of the incidence matrix
+    public boolean isIncident(int v, int edgeId){
+        return fromIds[edgeId] == v || toIds[edgeId] == v;
+    }
+}
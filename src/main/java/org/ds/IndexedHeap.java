@@ -0,0 +1,148 @@
+package org.ds;
+
+
+import java.util.Arrays;
+
+/* Indexed d-ary min-heap over the ids 0..capacity-1 with long keys, all in primitive arrays
+ *      heap[i]:  id at heap slot i, children of slot i are d*i+1 .. d*i+d
+ *      pos[id]:  heap slot of id, -1 if id is not in the heap
+ *      keys[id]: key of id
+ *
+ * Every id is in the heap at most once, so decreaseKey replaces the "insert again & skip stale entries"
+ * pattern and the heap never holds more than one entry per vertex.
+ *      insert, decreaseKey:  O(log_d n)   (sift up, fewer levels than a binary heap)
+ *      extractMin:           O(d log_d n) (sift down)
+ * d = 4 keeps the children of a slot in one cache line and usually beats a binary heap.
+ * No allocation after construction, clear() only touches the ids still in the heap.
+ */
+public class IndexedHeap implements IntPriorityQueue {
+    private final int d;
+    private int[] heap;
+    private int[] pos;
+    private long[] keys;
+    private int size;
+
+    public IndexedHeap(int capacity, int d){
+        if(d < 2) throw new IllegalArgumentException("Heap arity must be at least 2, was " + d);
+        this.d = d;
+        this.heap = new int[Math.max(capacity, 1)];
+        this.pos = new int[Math.max(capacity, 1)];
+        this.keys = new long[Math.max(capacity, 1)];
+        Arrays.fill(pos, -1);
+    }
+
+    // room for the ids 0..capacity-1, the heap must be empty
+    public void ensureCapacity(int capacity){
+        if(pos.length >= capacity) return;
+        int old = pos.length;
+        heap = Arrays.copyOf(heap, capacity);
+        pos = Arrays.copyOf(pos, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        Arrays.fill(pos, old, capacity, -1);
+    }
+
+    public int getCapacity(){ return this.pos.length; }
+
+    public int size(){ return this.size; }
+
+    @Override
+    public boolean isEmpty(){ return size == 0; }
+
+    @Override
+    public boolean contains(int id){ return pos[id] != -1; }
+
+    // key of id (also after it was extracted, until it is inserted again)
+    public long getKey(int id){ return keys[id]; }
+
+    public void insert(int id, long key){
+        keys[id] = key;
+        heap[size] = id;
+        pos[id] = size;
+        siftUp(size++);
+    }
+
+    /* lowers the key of an id in the heap, keys that are not smaller are ignored */
+    public void decreaseKey(int id, long key){
+        if(key >= keys[id]) return;
+        keys[id] = key;
+        siftUp(pos[id]);
+    }
+
+    // insert if absent, else decreaseKey
+    public void insertOrDecrease(int id, long key){
+        if(pos[id] == -1) insert(id, key);
+        else decreaseKey(id, key);
+    }
+
+    // as IntPriorityQueue: the long key is (key << 32 | id), equal keys come out by ascending id
+    @Override
+    public void offer(int id, int key){
+        insertOrDecrease(id, ((long) key << 32) | id);
+    }
+
+    @Override
+    public int poll(){ return extractMin(); }
+
+    // id with the smallest key, the heap must not be empty
+    public int peek(){ return heap[0]; }
+
+    public long peekKey(){ return keys[heap[0]]; }
+
+    public int extractMin(){
+        int min = heap[0];
+        pos[min] = -1;
+        if(--size > 0){
+            heap[0] = heap[size];
+            pos[heap[0]] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    // empties the heap, O(size)
+    @Override
+    public void clear(){
+        for(int i = 0; i < size; i++) pos[heap[i]] = -1;
+        size = 0;
+    }
+
+    private void siftUp(int i){
+        int id = heap[i];
+        long key = keys[id];
+        while(i > 0){
+            int parent = (i - 1) / d;
+            int p = heap[parent];
+            if(keys[p] <= key) break;
+            heap[i] = p; // move parent down, id is written once at the end
+            pos[p] = i;
+            i = parent;
+        }
+        heap[i] = id;
+        pos[id] = i;
+    }
+
+    private void siftDown(int i){
+        int id = heap[i];
+        long key = keys[id];
+        while(true){
+            int first = d * i + 1;
+            if(first >= size) break;
+            int last = Math.min(first + d, size);
+            int best = first;
+            long bestKey = keys[heap[first]];
+            for(int c = first + 1; c < last; c++){ // smallest child
+                long k = keys[heap[c]];
+                if(k < bestKey){
+                    best = c;
+                    bestKey = k;
+                }
+            }
+            if(bestKey >= key) break;
+            heap[i] = heap[best];
+            pos[heap[i]] = i;
+            i = best;
+        }
+        heap[i] = id;
+        pos[id] = i;
+    }
+}
@@ -0,0 +1,21 @@
+package org.ds;
+
+/* Min-priority queue over the ids 0..capacity-1 with int keys and decrease-key (Dijkstra)
+ *      offer(id, key): insert id, or lower its key if it is queued already (higher keys are ignored)
+ *      poll():         remove & return an id with the smallest key
+ *
+ * Implementations: IndexedHeap (any keys, ties by id), DialQueue & RadixHeap (monotone: keys never
+ * drop below the key polled last, as in Dijkstra with non-negative weights).
+ */
+public interface IntPriorityQueue {
+
+    void offer(int id, int key);
+
+    int poll();
+
+    boolean isEmpty();
+
+    boolean contains(int id);
+
+    void clear();
+}
@@ -0,0 +1,60 @@
+package org.ds;
+
+/* Radix heap for monotone int keys (Dijkstra with non-negative weights of any size)
+ * Bucket 0 holds the keys equal to the key polled last, bucket b the keys whose highest bit differing
+ * from it is bit b-1, so there are only 33 buckets. When bucket 0 is empty, the first non empty bucket
+ * is emptied: its smallest key becomes the new last key and its ids move to lower buckets.
+ * An id moves down at most 32 times, offer is O(1) and poll O(log C) amortized (C: largest weight).
+ */
+public class RadixHeap extends BucketQueue {
+    private int last; // key polled last, lower bound of all queued keys
+
+    public RadixHeap(int capacity){
+        super(capacity, 33);
+    }
+
+    private int bucketOf(int key){
+        return key == last ? 0 : 32 - Integer.numberOfLeadingZeros(key ^ last);
+    }
+
+    @Override
+    public void offer(int id, int key){
+        if(bucket[id] != -1){
+            if(key >= keys[id]) return;
+            unlink(id);
+            size--;
+        }
+        if(key < last) throw new IllegalArgumentException("Key " + key + " is below the last polled key " + last);
+        keys[id] = key;
+        link(id, bucketOf(key));
+        size++;
+    }
+
+    @Override
+    public int poll(){
+        if(head[0] == -1){
+            int b = 1;
+            while(head[b] == -1) b++;
+            int min = Integer.MAX_VALUE;
+            for(int id = head[b]; id != -1; id = next[id]) min = Math.min(min, keys[id]);
+            last = min;
+            int id = head[b];
+            head[b] = -1;
+            while(id != -1){ // redistribute, every id lands in a lower bucket
+                int n = next[id];
+                link(id, bucketOf(keys[id]));
+                id = n;
+            }
+        }
+        int id = head[0];
+        unlink(id);
+        size--;
+        return id;
+    }
+
+    @Override
+    public void clear(){
+        super.clear();
+        last = 0;
+    }
+}
@@ -0,0 +1,32 @@
+package org.ds;
+
+
+/* Read-only view of a graph G = (V,E) as arcs grouped by their tail vertex (CSR layout)
+ * Vertices are 1..getVertexCount(), the arcs of v are the slots begin(v) .. end(v)-1
+ *
+ *  for(int i = g.begin(u); i < g.end(u); i++)
+ *      visit arc (u, g.target(i)) with weight g.weight(i)
+ *
+ * Implemented by the in-heap CSR arrays and by the memory-mapped store (org.io.MappedGraph),
+ * so algorithms written against this interface run on either backing store.
+ */
+public interface ReadOnlyGraph {
+
+    int getVertexCount();
+
+    boolean isDirected();
+
+    int getArcCount();
+
+    // first arc slot of vertex v
+    int begin(int v);
+
+    // one past the last arc slot of vertex v
+    int end(int v);
+
+    int target(int arc);
+
+    int weight(int arc);
+
+    int edgeId(int arc);
+}
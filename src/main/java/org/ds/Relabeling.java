@@ -0,0 +1,177 @@
+package org.ds;
+
+
+import java.util.Arrays;
+import java.util.Random;
+
+/* Vertex relabeling (permutation of the ids 1..n) for cache locality
+ * Ids usually come straight from the input file, so the neighbours of a vertex are scattered over
+ * the whole id range and every visit touches a new cache line of dist[], parent[], offsets[].
+ * Renumbering the vertices so that neighbours get close ids keeps those accesses together.
+ *
+ * Orderings:
+ *      - bfs:      ids in BFS discovery order, vertices of one BFS layer become contiguous
+ *      - rcm:      Reverse Cuthill-McKee, BFS from a low degree vertex visiting neighbours by ascending
+ *                  degree, then reversed -> small bandwidth (max |new(u) - new(v)| over all arcs)
+ *      - byDegree: descending degree, the hubs (touched most often) share the first cache lines
+ *
+ * Bidirectional mapping (index 0 unused like everywhere else):
+ *      toNew[oldId] = newId, toOld[newId] = oldId
+ * Run the algorithms on apply(g) and translate vertex ids in and out with toNew / toOld.
+ */
+public class Relabeling {
+    private final int[] toNew;
+    private final int[] toOld;
+
+    private Relabeling(int[] toOld){
+        this.toOld = toOld;
+        this.toNew = new int[toOld.length];
+        for(int v = 1; v < toOld.length; v++)
+            toNew[toOld[v]] = v;
+    }
+
+    /* Random order (Fisher-Yates), no locality at all, e.g. to simulate ids of an unordered input file */
+    public static Relabeling random(int vertexCount, Random rnd){
+        int[] toOld = new int[vertexCount+1];
+        for(int v = 1; v <= vertexCount; v++) toOld[v] = v;
+        for(int i = vertexCount; i > 1; i--){
+            int j = 1 + rnd.nextInt(i);
+            int tmp = toOld[i];
+            toOld[i] = toOld[j];
+            toOld[j] = tmp;
+        }
+        return new Relabeling(toOld);
+    }
+
+    /* BFS order over all components, each component starts at its smallest unvisited id */
+    public static Relabeling bfs(ReadOnlyGraph g){
+        return new Relabeling(bfsOrder(g, false));
+    }
+
+    /* Reverse Cuthill-McKee
+     * for each component (starting vertex: unvisited vertex of minimal degree)
+     *      BFS, neighbours of a vertex are enqueued by ascending degree
+     * reverse the whole order
+     */
+    public static Relabeling rcm(ReadOnlyGraph g){
+        int[] order = bfsOrder(g, true);
+        int n = g.getVertexCount();
+        for(int i = 1, j = n; i < j; i++, j--){
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return new Relabeling(order);
+    }
+
+    /* Descending out-degree, ties keep the original order */
+    public static Relabeling byDegree(ReadOnlyGraph g){
+        int n = g.getVertexCount();
+        // (degree << 32 | id) with inverted degree, so an ascending sort gives descending degree
+        long[] keys = new long[n];
+        for(int v = 1; v <= n; v++)
+            keys[v-1] = ((long) (Integer.MAX_VALUE - (g.end(v) - g.begin(v))) << 32) | v;
+        Arrays.sort(keys);
+        int[] order = new int[n+1];
+        for(int i = 0; i < n; i++)
+            order[i+1] = (int) keys[i];
+        return new Relabeling(order);
+    }
+
+    // order[1..n] = old ids in visiting order
+    private static int[] bfsOrder(ReadOnlyGraph g, boolean byDegree){
+        int n = g.getVertexCount();
+        int[] order = new int[n+1];
+        boolean[] visited = new boolean[n+1];
+        long[] sorted = new long[16]; // neighbours of one vertex packed as (degree << 32 | id)
+        int[] roots = byDegree ? byDegree(g).toOld : null;
+        int tail = 1;
+        for(int r = 1; r <= n; r++){
+            int root = byDegree ? roots[n + 1 - r] : r; // minimal degree first
+            if(visited[root]) continue;
+            visited[root] = true;
+            int head = tail;
+            order[tail++] = root;
+            while(head < tail){
+                int u = order[head++];
+                if(!byDegree){
+                    for(int i = g.begin(u); i < g.end(u); i++){
+                        int v = g.target(i);
+                        if(!visited[v]){
+                            visited[v] = true;
+                            order[tail++] = v;
+                        }
+                    }
+                    continue;
+                }
+                int count = 0;
+                for(int i = g.begin(u); i < g.end(u); i++){
+                    int v = g.target(i);
+                    if(visited[v]) continue;
+                    visited[v] = true;
+                    if(count == sorted.length) sorted = Arrays.copyOf(sorted, count * 2);
+                    sorted[count++] = ((long) (g.end(v) - g.begin(v)) << 32) | v;
+                }
+                Arrays.sort(sorted, 0, count);
+                for(int i = 0; i < count; i++)
+                    order[tail++] = (int) sorted[i];
+            }
+        }
+        return order;
+    }
+
+    /* Rebuilds g with the new ids: the arcs of new vertex u are the arcs of toOld[u] with relabeled targets,
+     * weights and edge ids stay with their arc
+     */
+    public CSR apply(ReadOnlyGraph g){
+        int n = g.getVertexCount();
+        int[] offsets = new int[n+2];
+        for(int u = 1; u <= n; u++)
+            offsets[u+1] = offsets[u] + g.end(toOld[u]) - g.begin(toOld[u]);
+
+        int arcCount = offsets[n+1];
+        int[] targets = new int[arcCount];
+        int[] weights = new int[arcCount];
+        int[] edgeIds = new int[arcCount];
+        int slot = 0;
+        for(int u = 1; u <= n; u++){
+            int old = toOld[u];
+            for(int i = g.begin(old); i < g.end(old); i++, slot++){
+                targets[slot] = toNew[g.target(i)];
+                weights[slot] = g.weight(i);
+                edgeIds[slot] = g.edgeId(i);
+            }
+        }
+        return new CSR(n, g.isDirected(), offsets, targets, weights, edgeIds);
+    }
+
+    public int toNew(int oldId){ return toNew[oldId]; }
+
+    public int toOld(int newId){ return toOld[newId]; }
+
+    /* per vertex results of a run on the relabeled graph (indexed by new id) back to original ids,
+     * values that are vertex ids themselves (e.g. parents) are translated too when isVertexId is set, 0 stays nil
+     */
+    public int[] toOriginal(int[] byNewId, boolean isVertexId){
+        int[] byOldId = new int[byNewId.length];
+        for(int u = 1; u < toOld.length && u < byNewId.length; u++){
+            int value = byNewId[u];
+            byOldId[toOld[u]] = isVertexId && value != 0 ? toOld[value] : value;
+        }
+        return byOldId;
+    }
+
+    // max |u - v| over all arcs (u,v) of g, small bandwidth = neighbours close in memory
+    public static int bandwidth(ReadOnlyGraph g){
+        int bandwidth = 0;
+        for(int u = 1; u <= g.getVertexCount(); u++)
+            for(int i = g.begin(u); i < g.end(u); i++)
+                bandwidth = Math.max(bandwidth, Math.abs(u - g.target(i)));
+        return bandwidth;
+    }
+
+    // raw arrays are handed out without copying, callers must not modify them
+    public int[] getToNew(){ return this.toNew; }
+
+    public int[] getToOld(){ return this.toOld; }
+}
@@ -0,0 +1,54 @@
+package org.ds;
+
+
+/* Disjoint sets over the vertex ids 1..n in two primitive arrays (index 0 unused)
+ *      parent[v]: parent of v in its tree, roots point to themselves
+ *      rank[v]:   upper bound of the tree height below root v
+ *
+ * - find with path halving: every visited node is hooked to its grandparent, no recursion
+ * - union by rank: the lower tree goes below the higher one, heights stay O(log n)
+ * Both together give near constant (inverse Ackermann) amortized time per operation.
+ */
+public class UnionFind {
+    private final int[] parent;
+    private final byte[] rank; // ranks never exceed log2(n) < 32
+    private int sets;
+
+    public UnionFind(int n){
+        this.parent = new int[n+1];
+        this.rank = new byte[n+1];
+        for(int v = 1; v <= n; v++)
+            parent[v] = v;
+        this.sets = n;
+    }
+
+    public int find(int v){
+        int[] p = parent;
+        while(p[v] != v){
+            p[v] = p[p[v]]; // halve the path
+            v = p[v];
+        }
+        return v;
+    }
+
+    /* merges the sets of u and v, false if they were in the same set already */
+    public boolean union(int u, int v){
+        int ru = find(u);
+        int rv = find(v);
+        if(ru == rv) return false;
+        if(rank[ru] < rank[rv]){
+            int tmp = ru; ru = rv; rv = tmp;
+        }
+        parent[rv] = ru;
+        if(rank[ru] == rank[rv]) rank[ru]++;
+        sets--;
+        return true;
+    }
+
+    public boolean connected(int u, int v){ return find(u) == find(v); }
+
+    // number of disjoint sets left
+    public int getSetCount(){ return this.sets; }
+
+    public int size(){ return this.parent.length - 1; }
+}
@@ -0,0 +1,46 @@
+package org.ds;
+
+
+import java.util.Arrays;
+
+/* |V| x |V| weight matrix stored row by row in a single flat int array
+ * entry w(i,j) is data[i*size + j], INF marks "no edge" (instead of a null Integer)
+ *
+ * - 4 bytes per entry, no pointer & boxed object per cell
+ * - a whole row is contiguous in memory, row scans (Floyd-Warshall, Dijkstra on dense graphs) stay in cache
+ */
+public class WeightMatrix {
+    public static final int INF = Integer.MAX_VALUE;
+
+    private final int size;
+    private final int[] data;
+
+    public WeightMatrix(int size){
+        long cellCount = (long) size * size;
+        if(cellCount > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Weight matrix with " + size + " rows does not fit into a single array");
+        this.size = size;
+        this.data = new int[(int) cellCount];
+        Arrays.fill(data, INF);
+    }
+
+    // copy with newSize rows & columns, entries of the old matrix are kept, new ones are INF
+    public WeightMatrix resize(int newSize){
+        WeightMatrix m = new WeightMatrix(newSize);
+        int n = Math.min(size, newSize);
+        for(int i = 0; i < n; i++)
+            System.arraycopy(data, i * size, m.data, i * newSize, n);
+        return m;
+    }
+
+    public int getSize(){ return this.size; }
+
+    public int get(int i, int j){ return data[i * size + j]; }
+
+    public void set(int i, int j, int weight){ data[i * size + j] = weight; }
+
+    public boolean hasEdge(int i, int j){ return data[i * size + j] != INF; }
+
+    // raw array is handed out without copying, row i starts at i*size
+    public int[] getData(){ return this.data; }
+}
@@ -0,0 +1,71 @@
+package org.io;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/* TSV / CSV / whitespace separated edge lists without a vertex count (e.g. SNAP datasets)
+ *      # comment           (also %)
+ *      u<TAB>v[<TAB>w]     or u,v[,w] or u v [w]   (weight last)
+ * - |V| is the largest id, a non-numeric first line (CSV column names) is skipped
+ * - 0-based files (smallest id 0) are shifted to the 1-based ids used everywhere else
+ * Detected by the extensions .tsv .csv .el .edges, and the fallback for anything else.
+ */
+public class DelimitedLoader implements GraphLoader {
+
+    @Override
+    public String getName(){ return "delimited"; }
+
+    @Override
+    public boolean accepts(String fileName, ByteBuffer head){
+        return GraphLoaders.hasExtension(fileName, ".tsv", ".csv", ".el", ".edges");
+    }
+
+    @Override
+    public EdgeArrays load(File file) throws IOException {
+        return new Parser().parse(file);
+    }
+
+    private static class Parser extends LineParser {
+        private int min = Integer.MAX_VALUE;
+        private int max = 0;
+
+        @Override
+        void line(NumberScanner s){
+            s.setCommaSeparated(true);
+            if(!s.hasToken() || s.peek() == '#' || s.peek() == '%') return; // blank or comment
+            int u = s.nextInt();
+            int v = s.failed() ? 0 : s.nextInt();
+            int w = EdgeArrays.NO_WEIGHT;
+            if(!s.failed() && s.hasToken()) w = s.nextInt();
+            if(!s.failed() && s.hasToken()){
+                edges.error(edges.lines, "more than 3 columns");
+                return;
+            }
+            if(s.failed()){
+                if(edges.lines > 1) edges.error(edges.lines, s.error()); // first line may be a header
+                return;
+            }
+            if(u < 0 || v < 0){
+                edges.error(edges.lines, "negative vertex id");
+                return;
+            }
+            edges.add(u, v, w);
+            min = Math.min(min, Math.min(u, v));
+            max = Math.max(max, Math.max(u, v));
+        }
+
+        @Override
+        void finish(){
+            if(min == 0){ // 0-based ids
+                for(int i = 0; i < edges.size; i++){
+                    edges.from[i]++;
+                    edges.to[i]++;
+                }
+                max++;
+            }
+            edges.vertexCount = max;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.io;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/* DIMACS files, shortest path (.gr, 9th DIMACS challenge) and edge (.col) flavour
+ *      c comment
+ *      p sp n m            problem line, n vertices, m arcs
+ *      a u v w             weighted arc u -> v
+ *      p edge n m          (edge flavour)
+ *      e u v               undirected edge
+ * sp files are directed, edge files undirected.
+ */
+public class DimacsLoader implements GraphLoader {
+
+    @Override
+    public String getName(){ return "dimacs"; }
+
+    @Override
+    public boolean accepts(String fileName, ByteBuffer head){
+        if(GraphLoaders.hasExtension(fileName, ".gr", ".dimacs", ".col")) return true;
+        NumberScanner s = new NumberScanner().reset(head, 0, head.limit());
+        return s.nextWordIs("c") || s.nextWordIs("p");
+    }
+
+    @Override
+    public EdgeArrays load(File file) throws IOException {
+        return new Parser().parse(file);
+    }
+
+    private static class Parser extends LineParser {
+        private boolean problem;
+
+        @Override
+        void line(NumberScanner s) throws IOException {
+            if(!s.hasToken() || s.nextWordIs("c")) return;
+            if(s.nextWordIs("p")){
+                if(s.nextWordIs("sp")) edges.directed = Boolean.TRUE;
+                else if(s.nextWordIs("edge") || s.nextWordIs("col")) edges.directed = Boolean.FALSE;
+                else s.skipToken();
+                edges.vertexCount = s.nextInt();
+                if(s.failed()) throw new IOException("Bad DIMACS problem line: " + s.error());
+                problem = true;
+                return;
+            }
+            boolean arc = s.nextWordIs("a");
+            if(!arc && !s.nextWordIs("e")){
+                edges.error(edges.lines, "unknown line type '" + (char) s.peek() + "'");
+                return;
+            }
+            if(!problem) throw new IOException("DIMACS edge before the problem line (p ...)");
+            int u = s.nextInt();
+            int v = s.nextInt();
+            int w = arc && s.hasToken() ? s.nextInt() : EdgeArrays.NO_WEIGHT;
+            if(s.failed()) edges.error(edges.lines, s.error());
+            else edge(u, v, w);
+        }
+
+        @Override
+        void finish() throws IOException {
+            if(!problem) throw new IOException("DIMACS file without problem line (p ...)");
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.io;
+
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+
+/* All pairs distance matrix in a memory-mapped file, for results that do not fit into the heap (Johnson)
+ * Row s holds d(s,1) .. d(s,n), Integer.MAX_VALUE where s does not reach v.
+ *
+ * File layout (little endian ints):
+ *      header: MAGIC | VERSION | vertexCount | 0
+ *      rows:   vertexCount rows of vertexCount ints, row s starts at byte 16 + (s-1) * vertexCount * 4
+ *
+ * - the file is mapped in segments of whole rows (at most 1 GB each), the OS writes pages back lazily
+ * - rows are independent, several threads may write different rows at the same time
+ */
+public class DistanceMatrixFile implements Closeable {
+    static final int MAGIC = 0x50535041; // "APSP"
+    static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final long SEGMENT_BYTES = 1L << 30;
+
+    private final FileChannel ch;
+    private final int vertexCount;
+    private final int rowsPerSegment;
+    private IntBuffer[] segments;       // null after close
+    private MappedByteBuffer[] mapped;
+
+    private DistanceMatrixFile(FileChannel ch, int vertexCount, boolean writable) throws IOException {
+        this.ch = ch;
+        this.vertexCount = vertexCount;
+        long rowBytes = Math.max(vertexCount, 1) * 4L;
+        this.rowsPerSegment = (int) Math.max(1, Math.min(SEGMENT_BYTES / rowBytes, Integer.MAX_VALUE));
+        int count = vertexCount == 0 ? 0 : (vertexCount + rowsPerSegment - 1) / rowsPerSegment;
+        this.segments = new IntBuffer[count];
+        this.mapped = new MappedByteBuffer[count];
+        FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        for(int i = 0; i < count; i++){
+            int rows = Math.min(rowsPerSegment, vertexCount - i * rowsPerSegment);
+            mapped[i] = ch.map(mode, HEADER_BYTES + i * rowsPerSegment * rowBytes, rows * rowBytes);
+            segments[i] = mapped[i].order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+    }
+
+    /* creates (or overwrites) the file for a matrix of vertexCount rows, all entries start at 0 */
+    public static DistanceMatrixFile create(File file, int vertexCount) throws IOException {
+        FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(vertexCount).putInt(0).flip();
+            ch.write(header, 0);
+            return new DistanceMatrixFile(ch, vertexCount, true);
+        } catch (IOException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    /* maps an existing matrix file read-only */
+    public static DistanceMatrixFile open(File file) throws IOException {
+        FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if(ch.read(header, 0) != HEADER_BYTES || header.getInt(0) != MAGIC)
+                throw new IOException("Not a distance matrix file (bad magic number)");
+            if(header.getInt(4) != VERSION)
+                throw new IOException("Unsupported distance matrix version " + header.getInt(4) + ", expected " + VERSION);
+            int n = header.getInt(8);
+            long expected = HEADER_BYTES + (long) n * n * 4;
+            if(ch.size() != expected)
+                throw new IOException("Distance matrix has the wrong size (" + ch.size() + " of " + expected + " bytes)");
+            return new DistanceMatrixFile(ch, n, false);
+        } catch (IOException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    public int getVertexCount(){ return this.vertexCount; }
+
+    // writes d(s,1..n) from dist[1..n]
+    public void writeRow(int s, int[] dist){
+        IntBuffer row = row(s);
+        row.put(dist, 1, vertexCount);
+    }
+
+    // reads d(s,1..n) into into[1..n]
+    public void readRow(int s, int[] into){
+        row(s).get(into, 1, vertexCount);
+    }
+
+    public int get(int s, int v){
+        return segments()[(s - 1) / rowsPerSegment].get(((s - 1) % rowsPerSegment) * vertexCount + v - 1);
+    }
+
+    // own view on row s, positioned at its first entry (views keep concurrent writers apart)
+    private IntBuffer row(int s){
+        IntBuffer row = segments()[(s - 1) / rowsPerSegment].duplicate();
+        row.position(((s - 1) % rowsPerSegment) * vertexCount);
+        return row;
+    }
+
+    private IntBuffer[] segments(){
+        if(segments == null) throw new IllegalStateException("Distance matrix file is closed");
+        return segments;
+    }
+
+    /* flushes written rows to disk and closes the file
+     * Java cannot unmap explicitly, the mappings are only released once the GC collects them. The buffers are
+     * dropped here, so they can go early and later reads & writes fail instead of going to a closed file.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if(!ch.isOpen()) return;
+            for(MappedByteBuffer m: mapped)
+                if(!m.isReadOnly()) m.force();
+        } finally {
+            segments = null;
+            mapped = null;
+            ch.close();
+        }
+    }
+}
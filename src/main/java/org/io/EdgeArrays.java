@@ -0,0 +1,160 @@
+package org.io;
+
+
+import org.ds.CSR;
+import org.ds.Graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/* Edges of a parsed edge list in primitive arrays, edge i (0-based) gets the id i+1
+ *      from[i], to[i]: end vertices (1..vertexCount)
+ *      weight[i]:      weight, NO_WEIGHT for lines without a weight
+ * Malformed lines are skipped and collected as "line N: reason" messages.
+ */
+public class EdgeArrays {
+    public static final int NO_WEIGHT = Integer.MIN_VALUE; // same sentinel as org.ds.GraphUpdate
+    static final int MAX_ERRORS = 100; // messages kept, the count goes on
+
+    int vertexCount;
+    int size;
+    int[] from;
+    int[] to;
+    int[] weight;
+    boolean hasWeights;
+    Boolean directed; // what the file format says, null if it does not tell
+
+    int lines; // lines seen by the parser (for line numbers of later chunks)
+    int errorCount;
+    final int[] errorLines = new int[MAX_ERRORS];
+    final String[] errorReasons = new String[MAX_ERRORS];
+
+    EdgeArrays(int vertexCount, int expectedSize){
+        int capacity = Math.max(expectedSize, 16);
+        this.vertexCount = vertexCount;
+        this.from = new int[capacity];
+        this.to = new int[capacity];
+        this.weight = new int[capacity];
+    }
+
+    void add(int u, int v, int w){
+        if(size == from.length){
+            int capacity = Math.max(16, size + (size >> 1));
+            from = Arrays.copyOf(from, capacity);
+            to = Arrays.copyOf(to, capacity);
+            weight = Arrays.copyOf(weight, capacity);
+        }
+        from[size] = u;
+        to[size] = v;
+        weight[size] = w;
+        size++;
+        if(w != NO_WEIGHT) hasWeights = true;
+    }
+
+    // drops the edges but keeps line & error counts (streaming batches)
+    void clearEdges(){
+        size = 0;
+    }
+
+    void error(int line, String reason){
+        if(errorCount < MAX_ERRORS){
+            errorLines[errorCount] = line;
+            errorReasons[errorCount] = reason;
+        }
+        errorCount++;
+    }
+
+    /* concatenates the chunks in file order, line numbers of later chunks are shifted by the lines before them
+     * A single chunk is returned as is. Otherwise the merged arrays are sized once from the chunk sizes and filled
+     * one column at a time, every chunk column is dropped as soon as it is copied: the peak is the chunks plus one
+     * merged column instead of the chunks plus all merged arrays.
+     */
+    static EdgeArrays merge(int vertexCount, int firstLine, List<EdgeArrays> chunks){
+        if(chunks.size() == 1){
+            EdgeArrays only = chunks.get(0);
+            for(int i = 0; i < Math.min(only.errorCount, MAX_ERRORS); i++)
+                only.errorLines[i] += firstLine;
+            only.lines += firstLine;
+            return only;
+        }
+        int total = 0;
+        for(EdgeArrays c: chunks) total += c.size;
+        EdgeArrays all = new EdgeArrays(vertexCount, 0);
+        all.from = new int[total];
+        int pos = 0;
+        for(EdgeArrays c: chunks){
+            System.arraycopy(c.from, 0, all.from, pos, c.size);
+            pos += c.size;
+            c.from = null;
+        }
+        all.to = new int[total];
+        pos = 0;
+        for(EdgeArrays c: chunks){
+            System.arraycopy(c.to, 0, all.to, pos, c.size);
+            pos += c.size;
+            c.to = null;
+        }
+        all.weight = new int[total];
+        pos = 0;
+        for(EdgeArrays c: chunks){
+            System.arraycopy(c.weight, 0, all.weight, pos, c.size);
+            pos += c.size;
+            c.weight = null;
+        }
+        all.size = total;
+
+        int line = firstLine;
+        for(EdgeArrays c: chunks){
+            all.hasWeights |= c.hasWeights;
+            int kept = Math.min(c.errorCount, MAX_ERRORS);
+            for(int i = 0; i < kept; i++) // chunk line numbers are relative to the chunk
+                all.error(line + c.errorLines[i], c.errorReasons[i]);
+            all.errorCount += c.errorCount - kept; // messages that were not kept
+            line += c.lines;
+        }
+        all.lines = line;
+        return all;
+    }
+
+    /* Graph with one edge per parsed line */
+    public Graph toGraph(boolean isDirected){
+        Graph g = new Graph(vertexCount, isDirected);
+        for(int i = 0; i < size; i++)
+            g.addEdge(from[i], to[i], i + 1, isDirected, weight[i] == NO_WEIGHT ? null : weight[i]);
+        g.setHasWeights(hasWeights);
+        return g;
+    }
+
+    /* CSR straight from the arrays, no Edge/Vertex objects are created */
+    public CSR toCSR(boolean isDirected){
+        return CSR.fromArrays(vertexCount, isDirected, from, to, weight, size);
+    }
+
+    public int getVertexCount(){ return this.vertexCount; }
+
+    public int size(){ return this.size; }
+
+    public boolean hasWeights(){ return this.hasWeights; }
+
+    // direction given by the file format (e.g. symmetric Matrix Market = undirected), null if it does not tell
+    public Boolean getDirected(){ return this.directed; }
+
+    // raw arrays are handed out without copying, only the first size() entries are used
+    public int[] getFrom(){ return this.from; }
+
+    public int[] getTo(){ return this.to; }
+
+    public int[] getWeight(){ return this.weight; }
+
+    public int getErrorCount(){ return this.errorCount; }
+
+    // "line N: reason" for the first MAX_ERRORS malformed lines
+    public List<String> getErrors(){
+        List<String> errors = new ArrayList<String>();
+        for(int i = 0; i < Math.min(errorCount, MAX_ERRORS); i++)
+            errors.add("line " + errorLines[i] + ": " + errorReasons[i]);
+        return errors;
+    }
+}
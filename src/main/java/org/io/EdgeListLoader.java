@@ -0,0 +1,34 @@
+package org.io;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/* The format of input/*.txt (first line |V|, then "u v" or "u w v"), parsed in parallel by EdgeListParser */
+public class EdgeListLoader implements GraphLoader {
+
+    @Override
+    public String getName(){ return "edgelist"; }
+
+    // first line holds a single number, the second line two or three
+    @Override
+    public boolean accepts(String fileName, ByteBuffer head){
+        NumberScanner s = new NumberScanner().reset(head, 0, head.limit());
+        s.nextInt();
+        if(s.failed() || s.hasToken()) return false;
+        s.nextLine();
+        int count = 0;
+        while(s.hasToken() && count < 4){
+            s.nextInt();
+            if(s.failed()) return false;
+            count++;
+        }
+        return count == 2 || count == 3 || !s.hasMore(); // a graph without edges has only the first line
+    }
+
+    @Override
+    public EdgeArrays load(File file) throws IOException {
+        return new EdgeListParser().parse(file);
+    }
+}
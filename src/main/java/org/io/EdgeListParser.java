@@ -0,0 +1,182 @@
+package org.io;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+
+/* Byte level parser for the edge list format of input/*.txt
+ *      n               first line: number of vertices (only its digits count)
+ *      u v             unweighted edge
+ *      u w v           weighted edge (weight in the middle)
+ * Numbers are separated by blanks or tabs, lines end with \n or \r\n.
+ *
+ * - works on the raw bytes of a memory-mapped file or any ByteBuffer, no String/Integer per number
+ * - edges go straight into primitive arrays (see EdgeArrays), edge i gets the id i+1
+ * - large files are cut into chunks at line boundaries, chunks are mapped & parsed in parallel and
+ *   concatenated in file order afterwards
+ * - malformed lines are skipped and reported (EdgeArrays.getErrors()), parsing goes on
+ */
+public class EdgeListParser {
+    static final int MIN_CHUNK = 8 << 20;  // below 8 MB a single thread is faster than forking
+    static final int MAX_CHUNK = 1 << 30;  // one mapping per chunk, a MappedByteBuffer holds at most 2 GB
+
+    private final int threads;
+
+    public EdgeListParser(){
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public EdgeListParser(int threads){
+        this.threads = Math.max(threads, 1);
+    }
+
+    /* Parses a whole file, chunks of at least MIN_CHUNK bytes are spread over the threads */
+    public EdgeArrays parse(File file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = ch.size();
+            ByteBuffer head = ch.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, 4096));
+            int headerEnd = lineEnd(head, 0, head.limit());
+            int vertexCount = parseHeader(head, 0, headerEnd);
+            long start = Math.min(headerEnd + 1L, size);
+
+            long body = size - start;
+            long chunkSize = Math.min(MAX_CHUNK, Math.max(MIN_CHUNK, (body + threads - 1) / threads));
+            List<long[]> bounds = new ArrayList<long[]>();
+            while(start < size){
+                long end = start + chunkSize >= size ? size : nextLine(ch, start + chunkSize);
+                bounds.add(new long[]{start, end});
+                start = end;
+            }
+            return parseChunks(ch, vertexCount, bounds);
+        }
+    }
+
+    /* Parses an edge list held in a buffer (e.g. a large direct ByteBuffer) on the calling thread,
+     * from position to limit, the buffer position is not changed
+     */
+    public EdgeArrays parse(ByteBuffer buf) throws IOException {
+        int headerEnd = lineEnd(buf, buf.position(), buf.limit());
+        int vertexCount = parseHeader(buf, buf.position(), headerEnd);
+        List<EdgeArrays> chunks = new ArrayList<EdgeArrays>();
+        chunks.add(parseChunk(buf, Math.min(headerEnd + 1, buf.limit()), buf.limit(), vertexCount));
+        return EdgeArrays.merge(vertexCount, 1, chunks);
+    }
+
+    private EdgeArrays parseChunks(final FileChannel ch, final int vertexCount, List<long[]> bounds) throws IOException {
+        List<EdgeArrays> chunks = new ArrayList<EdgeArrays>();
+        if(bounds.size() <= 1 || threads == 1){
+            for(long[] b: bounds)
+                chunks.add(parseChunk(ch.map(FileChannel.MapMode.READ_ONLY, b[0], b[1] - b[0]), 0, (int) (b[1] - b[0]), vertexCount));
+            return EdgeArrays.merge(vertexCount, 1, chunks);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, bounds.size()));
+        try {
+            List<Future<EdgeArrays>> results = new ArrayList<Future<EdgeArrays>>();
+            for(final long[] b: bounds){
+                results.add(pool.submit(new Callable<EdgeArrays>() {
+                    @Override
+                    public EdgeArrays call() throws IOException {
+                        int len = (int) (b[1] - b[0]);
+                        return parseChunk(ch.map(FileChannel.MapMode.READ_ONLY, b[0], len), 0, len, vertexCount);
+                    }
+                }));
+            }
+            for(Future<EdgeArrays> f: results) chunks.add(f.get()); // file order
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Parsing interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Parsing a chunk failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return EdgeArrays.merge(vertexCount, 1, chunks);
+    }
+
+    // position right after the first '\n' at or behind pos (or the end of the file)
+    static long nextLine(FileChannel ch, long pos) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(4096);
+        while(true){
+            window.clear();
+            int read = ch.read(window, pos);
+            if(read <= 0) return ch.size();
+            for(int i = 0; i < read; i++)
+                if(window.get(i) == '\n') return pos + i + 1;
+            pos += read;
+        }
+    }
+
+    // index of the '\n' ending the line that starts at pos, or end
+    static int lineEnd(ByteBuffer buf, int pos, int end){
+        while(pos < end && buf.get(pos) != '\n') pos++;
+        return pos;
+    }
+
+    // the digits of the first line form the vertex count
+    static int parseHeader(ByteBuffer buf, int start, int end) throws IOException {
+        long n = 0;
+        boolean digits = false;
+        for(int i = start; i < end; i++){
+            int c = buf.get(i);
+            if(c >= '0' && c <= '9'){
+                n = n * 10 + (c - '0');
+                digits = true;
+                if(n > Integer.MAX_VALUE - 2) throw new IOException("Vertex count in first line is too large");
+            }
+        }
+        if(!digits) throw new IOException("First line must hold the number of vertices");
+        return (int) n;
+    }
+
+    /* Parses the lines in [start, end) of buf, line numbers of reported errors start at 1 for this chunk */
+    static EdgeArrays parseChunk(ByteBuffer buf, int start, int end, int vertexCount){
+        // guess ~16 bytes per line, i.e. 12 bytes of arrays per 16 input bytes, the arrays grow if lines are shorter
+        EdgeArrays edges = new EdgeArrays(vertexCount, (end - start) / 16);
+        parseLines(buf, start, end, edges);
+        return edges;
+    }
+
+    /* Appends the edges of the lines in [start, end) of buf to edges, errors are numbered on from edges.lines
+     * Per line: up to three (signed) numbers, anything else is an error for that line only.
+     */
+    static void parseLines(ByteBuffer buf, int start, int end, EdgeArrays edges){
+        int vertexCount = edges.vertexCount;
+        int[] nr = new int[3];
+        for(NumberScanner s = new NumberScanner().reset(buf, start, end); s.hasMore(); s.nextLine()){
+            edges.lines++;
+            int count = 0;
+            String error = null;
+            while(s.hasToken()){
+                int value = s.nextInt();
+                if(s.failed()){ error = s.error(); break; }
+                if(count == 3){ error = "more than 3 numbers"; break; }
+                nr[count++] = value;
+            }
+
+            if(error == null){
+                if(count == 0) continue; // blank line
+                if(count == 1) error = "expected 'u v' or 'u w v'";
+            }
+            if(error == null){
+                int u = nr[0];
+                int v = count == 3 ? nr[2] : nr[1];
+                if(u < 1 || u > vertexCount || v < 1 || v > vertexCount)
+                    error = "vertex id out of range 1.." + vertexCount;
+                else
+                    edges.add(u, v, count == 3 ? nr[1] : EdgeArrays.NO_WEIGHT);
+            }
+            if(error != null) edges.error(edges.lines, error);
+        }
+    }
+}
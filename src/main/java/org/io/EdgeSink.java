@@ -0,0 +1,25 @@
+package org.io;
+
+
+import java.io.IOException;
+
+/* Receiver of a streamed edge list (see EdgeStream)
+ *      begin(n)                    once, after the vertex count line
+ *      edges(from, to, weight, ..) for every batch of at most batchSize edges, in input order
+ *      end()                       once, after the last batch
+ *      abort()                     instead of end() if the stream fails after begin(), releases what
+ *                                  begin() acquired (files, channels), must not throw
+ *
+ * The arrays of a batch are reused for the next one, a sink must copy what it wants to keep.
+ * Unweighted edges carry EdgeArrays.NO_WEIGHT, edge i of a batch has the id firstId + i.
+ */
+public interface EdgeSink {
+
+    void begin(int vertexCount) throws IOException;
+
+    void edges(int[] from, int[] to, int[] weight, int count, int firstId) throws IOException;
+
+    void end() throws IOException;
+
+    void abort();
+}
@@ -0,0 +1,145 @@
+package org.io;
+
+
+import org.App;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+
+/* Streaming ingestion of an edge list (same format as EdgeListParser) from any InputStream
+ *
+ *  new EdgeStream().read(System.in, sink);                 // stdin, plain or gzip
+ *  new EdgeStream(1 << 16).read(new File("g.txt.gz"), sink);
+ *
+ * - gzip input is recognised by its magic bytes (1f 8b) and decompressed on the fly
+ * - bytes are read into one fixed buffer, complete lines are parsed by the same byte level core as
+ *   EdgeListParser, a line cut at the buffer end is moved to the front and finished with the next read
+ * - edges are handed to the sink in batches of at most batchSize, the batch arrays are reused
+ * Memory stays constant (buffer + one batch) however large the input is.
+ * Malformed lines are logged and skipped like in Reader.
+ */
+public class EdgeStream {
+    private static final Logger logger = LogManager.getLogger(App.class);
+    static final int BUFFER_SIZE = 1 << 16;
+
+    private final int batchSize;
+
+    public EdgeStream(){
+        this(1 << 16);
+    }
+
+    public EdgeStream(int batchSize){
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    // wraps in into a GZIPInputStream if it starts with the gzip magic bytes
+    public static InputStream decompressed(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, BUFFER_SIZE);
+        buffered.mark(2);
+        int b1 = buffered.read();
+        int b2 = buffered.read();
+        buffered.reset();
+        if(b1 == 0x1f && b2 == 0x8b) return new GZIPInputStream(buffered, BUFFER_SIZE);
+        return buffered;
+    }
+
+    public long read(File file, EdgeSink sink) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return read(in, sink);
+        }
+    }
+
+    /* Streams all edges of in to sink, returns the number of edges, in is not closed */
+    public long read(InputStream in, EdgeSink sink) throws IOException {
+        in = decompressed(in);
+        byte[] bytes = new byte[BUFFER_SIZE];
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        int len = fill(in, bytes, 0);
+
+        // first line: vertex count
+        int headerEnd = EdgeListParser.lineEnd(buf, 0, len);
+        while(headerEnd == len && len == bytes.length){ // header longer than the buffer
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            buf = ByteBuffer.wrap(bytes);
+            len = fill(in, bytes, len);
+            headerEnd = EdgeListParser.lineEnd(buf, 0, len);
+        }
+        int vertexCount = EdgeListParser.parseHeader(buf, 0, headerEnd);
+        sink.begin(vertexCount);
+
+        EdgeArrays batch = new EdgeArrays(vertexCount, batchSize + BUFFER_SIZE / 4);
+        batch.lines = 1; // the header, so errors carry line numbers of the whole input
+        long total = 0;
+        boolean done = false;
+        try {
+            int start = Math.min(headerEnd + 1, len);
+            while(true){
+                boolean eof = len < bytes.length;
+                int end = len;
+                if(!eof){ // parse complete lines only, the rest waits for the next read
+                    while(end > start && bytes[end - 1] != '\n') end--;
+                    if(end == start && start == 0){ // a single line fills the whole buffer
+                        bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                        buf = ByteBuffer.wrap(bytes);
+                        len = fill(in, bytes, len);
+                        continue;
+                    }
+                }
+                int from = start;
+                while(from < end){
+                    // an edge line has at least 4 bytes ("1 2\n"), so a slice of (room-1)*4 bytes plus the line cut at
+                    // its end holds at most room edges and no batch gets larger than batchSize
+                    int room = batchSize - batch.size;
+                    long slice = Math.max((room - 1) * 4L, 1L);
+                    int to = from + slice >= end ? end : Math.min(EdgeListParser.lineEnd(buf, (int) (from + slice), end) + 1, end);
+                    EdgeListParser.parseLines(buf, from, to, batch);
+                    if(batch.size == batchSize) total = flush(sink, batch, total);
+                    from = to;
+                }
+                if(eof) break;
+                int rest = len - end; // cut line to the front
+                System.arraycopy(bytes, end, bytes, 0, rest);
+                start = 0;
+                len = fill(in, bytes, rest);
+            }
+            total = flush(sink, batch, total);
+            sink.end();
+            done = true;
+        } finally {
+            if(!done) sink.abort(); // failed before or inside end(): the sink cleans up, the exception goes on
+        }
+
+        for(String error: batch.getErrors())
+            logger.warn("Skipped malformed " + error);
+        if(batch.getErrorCount() > batch.getErrors().size())
+            logger.warn((batch.getErrorCount() - batch.getErrors().size()) + " more malformed lines");
+        return total;
+    }
+
+    private long flush(EdgeSink sink, EdgeArrays batch, long total) throws IOException {
+        if(batch.size == 0) return total;
+        sink.edges(batch.from, batch.to, batch.weight, batch.size, (int) (total + 1));
+        total += batch.size;
+        batch.clearEdges();
+        return total;
+    }
+
+    // reads until the buffer is full or the input ends, returns the new fill level
+    private static int fill(InputStream in, byte[] bytes, int len) throws IOException {
+        while(len < bytes.length){
+            int read = in.read(bytes, len, bytes.length - len);
+            if(read < 0) break;
+            len += read;
+        }
+        return len;
+    }
+}
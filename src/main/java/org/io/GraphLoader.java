@@ -0,0 +1,26 @@
+package org.io;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/* Loader for one graph file format, see GraphLoaders for detection & registration
+ * Further formats plug in by implementing this interface and either calling GraphLoaders.register()
+ * or listing the class in META-INF/services/org.io.GraphLoader (java.util.ServiceLoader).
+ */
+public interface GraphLoader {
+
+    // short name, e.g. "dimacs"
+    String getName();
+
+    /* true if this loader reads the file, decided from its name and its first bytes (head starts at 0)
+     * the extension is the stronger hint, sniffing is needed for files without a known extension
+     */
+    boolean accepts(String fileName, ByteBuffer head);
+
+    /* edges in file order with the ids 1..n, malformed lines are skipped and reported in the result,
+     * an IOException is thrown if the file is not in this format at all
+     */
+    EdgeArrays load(File file) throws IOException;
+}
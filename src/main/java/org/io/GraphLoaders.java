@@ -0,0 +1,71 @@
+package org.io;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/* Registry of the graph file formats & format detection
+ *
+ *  EdgeArrays edges = GraphLoaders.load(new File("USA-road-d.NY.gr"));
+ *  Graph g = edges.toGraph(edges.getDirected() != null ? edges.getDirected() : true);
+ *
+ * Detection asks every loader in order whether it accepts the file (name + first 4 KB):
+ *      registered / ServiceLoader loaders, Matrix Market, DIMACS, METIS, native edge list, delimited (fallback)
+ */
+public final class GraphLoaders {
+    static final int HEAD_BYTES = 4096;
+
+    private static final List<GraphLoader> loaders = new CopyOnWriteArrayList<GraphLoader>();
+
+    static {
+        for(GraphLoader loader: ServiceLoader.load(GraphLoader.class))
+            loaders.add(loader);
+        loaders.add(new MatrixMarketLoader());
+        loaders.add(new DimacsLoader());
+        loaders.add(new MetisLoader());
+        loaders.add(new EdgeListLoader());
+        loaders.add(new DelimitedLoader());
+    }
+
+    private GraphLoaders(){}
+
+    // added loaders are asked before the built-in ones
+    public static void register(GraphLoader loader){
+        loaders.add(0, loader);
+    }
+
+    // loader by name (e.g. "metis"), null if there is none
+    public static GraphLoader forName(String name){
+        for(GraphLoader loader: loaders)
+            if(loader.getName().equalsIgnoreCase(name)) return loader;
+        return null;
+    }
+
+    public static GraphLoader detect(File file) throws IOException {
+        ByteBuffer head;
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            head = ch.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(ch.size(), HEAD_BYTES));
+        }
+        for(GraphLoader loader: loaders)
+            if(loader.accepts(file.getName(), head.duplicate())) return loader;
+        return forName("delimited");
+    }
+
+    /* loads the file with the detected format */
+    public static EdgeArrays load(File file) throws IOException {
+        return detect(file).load(file);
+    }
+
+    static boolean hasExtension(String fileName, String... extensions){
+        String name = fileName.toLowerCase();
+        for(String ext: extensions)
+            if(name.endsWith(ext)) return true;
+        return false;
+    }
+}
@@ -0,0 +1,37 @@
+package org.io;
+
+
+import org.ds.Graph;
+
+/* Builds a Graph from a streamed edge list, one edge per parsed line with the streamed edge ids */
+public class GraphSink implements EdgeSink {
+    private final boolean isDirected;
+    private Graph g;
+
+    public GraphSink(boolean isDirected){
+        this.isDirected = isDirected;
+    }
+
+    @Override
+    public void begin(int vertexCount){
+        g = new Graph(vertexCount, isDirected);
+    }
+
+    @Override
+    public void edges(int[] from, int[] to, int[] weight, int count, int firstId){
+        for(int i = 0; i < count; i++){
+            boolean weighted = weight[i] != EdgeArrays.NO_WEIGHT;
+            g.addEdge(from[i], to[i], firstId + i, isDirected, weighted ? weight[i] : null);
+            if(weighted && !g.hasWeights()) g.setHasWeights(true);
+        }
+    }
+
+    @Override
+    public void end(){}
+
+    @Override
+    public void abort(){}
+
+    // the graph after end(), null before begin()
+    public Graph getGraph(){ return this.g; }
+}
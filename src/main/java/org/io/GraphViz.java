@@ -6,11 +6,24 @@ import guru.nidi.graphviz.engine.Graphviz;
 import guru.nidi.graphviz.model.MutableGraph;
 import guru.nidi.graphviz.model.MutableNode;
 
+import org.ds.CSR;
 import org.ds.Edge;
 import org.ds.Graph;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import static guru.nidi.graphviz.model.Factory.*;
 import static java.lang.String.valueOf;
@@ -18,6 +31,35 @@ import static java.lang.String.valueOf;
 
 public class GraphViz {
 
+    /* How big graphs are cut down to maxNodes vertices before rendering
+     *      DEGREE: the maxNodes vertices of highest degree
+     *      BFS:    the first maxNodes vertices reached by BFS from the vertex of highest degree
+     *              (further components are started from their highest degree vertex)
+     * Only edges between kept vertices are drawn.
+     */
+    public enum Sampling { DEGREE, BFS }
+
+    private final File outputDir;
+    private final File cacheDir;
+    private int maxNodes = 500;
+    private Sampling sampling = Sampling.BFS;
+    private ExecutorService queue;
+
+    public GraphViz(){
+        this(new File("example"));
+    }
+
+    /* Renders go to outputDir/name.png, rendered images are kept in outputDir/cache by content hash */
+    public GraphViz(File outputDir){
+        this.outputDir = outputDir;
+        this.cacheDir = new File(outputDir, "cache");
+    }
+
+    // graphs with more vertices are sampled down to maxNodes
+    public void setMaxNodes(int maxNodes){ this.maxNodes = Math.max(maxNodes, 1); }
+
+    public void setSampling(Sampling sampling){ this.sampling = sampling; }
+
     /* Resources:
      * graphviz.gitlab.io/_pages/doc/info/lang.html
      * github.com/nidi3/graphviz-java#user-content-how-it-works
@@ -25,21 +67,183 @@ public class GraphViz {
      */
     public void printGraph(String name, Graph graph, boolean directed) throws IOException {
         try {
-            MutableGraph g = mutGraph(name).setDirected(directed);
-            for (int i = 1; i < graph.getVertexCount() + 1; i++) {
-                g.add(mutNode(valueOf(i)));
-            }
-            for (int i = 0; i < graph.returnEdgeList().size(); i++) {
-                Edge e = graph.returnEdgeList().get(i);
-                int vFromId = e.getFromV().getId();
-                int vToId = e.getToV().getId();
-                MutableNode a = mutNode(valueOf(vFromId));
-                MutableNode b = mutNode(valueOf(vToId));
-                g.add(a.addLink(b));
-            }
-            Graphviz.fromGraph(g).render(Format.PNG).toFile(new File("example/" + name + ".png"));
+            render(name, snapshot(graph, directed));
         } catch(IOException e) {
             System.err.println("Something went wrong converting the graph to a .png file...");
         }
     }
+
+    /* Queues the render on a background thread and returns right away
+     * The graph is copied (and sampled) on the calling thread, later changes to it do not affect the image.
+     * All renders share one thread, the graphviz engine is not thread safe.
+     */
+    public synchronized Future<File> submit(final String name, Graph graph, boolean directed){
+        final Snapshot s = snapshot(graph, directed);
+        if(queue == null){
+            queue = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "graphviz-render");
+                    t.setDaemon(true); // never keeps the JVM alive
+                    return t;
+                }
+            });
+        }
+        return queue.submit(new Callable<File>() {
+            @Override
+            public File call() throws IOException {
+                return render(name, s);
+            }
+        });
+    }
+
+    // waits for all queued renders, the queue can be used again afterwards
+    public void awaitAll() throws IOException {
+        ExecutorService q;
+        synchronized (this) {
+            q = queue;
+            queue = null;
+        }
+        if(q == null) return;
+        q.shutdown();
+        try {
+            while(!q.awaitTermination(1, TimeUnit.MINUTES)) { /* keep waiting */ }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for renders", e);
+        }
+    }
+
+    /* Graph content to draw: kept vertices and the edges between them, hashed for the render cache */
+    private static class Snapshot {
+        boolean directed;
+        int[] nodes;
+        int[] from;
+        int[] to;
+        int edgeCount;
+        String hash;
+    }
+
+    private Snapshot snapshot(Graph graph, boolean directed){
+        int n = graph.getVertexCount();
+        List<Edge> edges = graph.returnEdgeList();
+        boolean[] keep = n > maxNodes ? sample(graph, n, edges) : null;
+
+        Snapshot s = new Snapshot();
+        s.directed = directed;
+        int count = 0;
+        for(int v = 1; v <= n; v++) if(keep == null || keep[v]) count++;
+        s.nodes = new int[count];
+        count = 0;
+        for(int v = 1; v <= n; v++) if(keep == null || keep[v]) s.nodes[count++] = v;
+        s.from = new int[edges.size()];
+        s.to = new int[edges.size()];
+        for(Edge e: edges){
+            int u = e.getFromV().getId(), v = e.getToV().getId();
+            if(keep != null && (!keep[u] || !keep[v])) continue;
+            s.from[s.edgeCount] = u;
+            s.to[s.edgeCount] = v;
+            s.edgeCount++;
+        }
+        s.hash = hash(s);
+        return s;
+    }
+
+    private boolean[] sample(Graph graph, int n, List<Edge> edges){
+        int[] degree = new int[n+1];
+        for(Edge e: edges){
+            degree[e.getFromV().getId()]++;
+            degree[e.getToV().getId()]++;
+        }
+        // vertices by descending degree, packed as (inverted degree << 32 | id)
+        long[] byDegree = new long[n];
+        for(int v = 1; v <= n; v++)
+            byDegree[v-1] = ((long) (Integer.MAX_VALUE - degree[v]) << 32) | v;
+        Arrays.sort(byDegree);
+
+        boolean[] keep = new boolean[n+1];
+        if(sampling == Sampling.DEGREE){
+            for(int i = 0; i < maxNodes; i++) keep[(int) byDegree[i]] = true;
+            return keep;
+        }
+        int[] queue = new int[maxNodes];
+        int kept = 0;
+        CSR csr = graph.exposeCSR(); // neighbourhoods for the BFS
+        for(int r = 0; r < n && kept < maxNodes; r++){
+            int root = (int) byDegree[r];
+            if(keep[root]) continue;
+            keep[root] = true;
+            int head = kept;
+            queue[kept++] = root;
+            while(head < kept && kept < maxNodes){
+                int u = queue[head++];
+                for(int i = csr.begin(u); i < csr.end(u) && kept < maxNodes; i++){
+                    int v = csr.target(i);
+                    if(!keep[v]){
+                        keep[v] = true;
+                        queue[kept++] = v;
+                    }
+                }
+            }
+        }
+        return keep;
+    }
+
+    // SHA-256 over direction, kept vertices and edges
+    private static String hash(Snapshot s){
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] buf = new byte[1 << 12];
+            int pos = 0;
+            buf[pos++] = (byte) (s.directed ? 1 : 0);
+            for(int pass = 0; pass < 2; pass++){
+                int len = pass == 0 ? s.nodes.length : s.edgeCount;
+                for(int i = 0; i < len; i++){
+                    if(pos + 8 > buf.length){
+                        md.update(buf, 0, pos);
+                        pos = 0;
+                    }
+                    pos = putInt(buf, pos, pass == 0 ? s.nodes[i] : s.from[i]);
+                    pos = putInt(buf, pos, pass == 0 ? -1 : s.to[i]); // -1 separates nodes from edges
+                }
+            }
+            md.update(buf, 0, pos);
+            StringBuilder hex = new StringBuilder();
+            for(byte b: md.digest()) hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JVM ships SHA-256
+        }
+    }
+
+    private static int putInt(byte[] buf, int pos, int value){
+        buf[pos++] = (byte) (value >>> 24);
+        buf[pos++] = (byte) (value >>> 16);
+        buf[pos++] = (byte) (value >>> 8);
+        buf[pos++] = (byte) value;
+        return pos;
+    }
+
+    /* Renders the snapshot into the cache (unless an image with the same hash exists) and copies it to name.png */
+    private File render(String name, Snapshot s) throws IOException {
+        File cached = new File(cacheDir, s.hash + ".png");
+        if(!cached.exists()){
+            MutableGraph g = mutGraph(name).setDirected(s.directed);
+            MutableNode[] nodes = new MutableNode[s.nodes.length == 0 ? 1 : s.nodes[s.nodes.length - 1] + 1];
+            for (int v: s.nodes) { // one node object per vertex, edges link the existing nodes
+                nodes[v] = mutNode(valueOf(v));
+                g.add(nodes[v]);
+            }
+            for (int i = 0; i < s.edgeCount; i++) {
+                nodes[s.from[i]].addLink(nodes[s.to[i]]);
+            }
+            File tmp = new File(cacheDir, s.hash + ".tmp.png");
+            Graphviz.fromGraph(g).render(Format.PNG).toFile(tmp);
+            Files.move(tmp.toPath(), cached.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        File out = new File(outputDir, name + ".png");
+        outputDir.mkdirs();
+        Files.copy(cached.toPath(), out.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return out;
+    }
 }
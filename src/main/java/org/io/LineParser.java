@@ -0,0 +1,56 @@
+package org.io;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/* Line loop shared by the text loaders, one instance per load (it holds the parse state)
+ * The file is mapped in windows of at most MAX_CHUNK bytes cut at line boundaries and handed to line()
+ * one line at a time through a NumberScanner, edges.lines is the current line number.
+ */
+abstract class LineParser {
+    final EdgeArrays edges = new EdgeArrays(0, 1024);
+
+    /* parses the line at the scanner position, the caller moves on to the next line afterwards */
+    abstract void line(NumberScanner s) throws IOException;
+
+    // called after the last line
+    void finish() throws IOException {}
+
+    EdgeArrays parse(File file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = ch.size();
+            NumberScanner s = new NumberScanner();
+            for(long pos = 0; pos < size; ){
+                long end = pos + EdgeListParser.MAX_CHUNK >= size ? size : EdgeListParser.nextLine(ch, pos + EdgeListParser.MAX_CHUNK);
+                ByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, pos, end - pos);
+                for(s.reset(buf, 0, buf.limit()); s.hasMore(); s.nextLine()){
+                    edges.lines++;
+                    line(s);
+                }
+                pos = end;
+            }
+        }
+        finish();
+        return edges;
+    }
+
+    // first byte of the line is c (after blanks)
+    static boolean startsWith(NumberScanner s, char c){
+        return s.hasToken() && s.peek() == c;
+    }
+
+    /* adds the edge if both ids are in 1..vertexCount, else reports the line, true if added */
+    boolean edge(int u, int v, int weight){
+        int n = edges.vertexCount;
+        if(u < 1 || u > n || v < 1 || v > n){
+            edges.error(edges.lines, "vertex id out of range 1.." + n);
+            return false;
+        }
+        edges.add(u, v, weight);
+        return true;
+    }
+}
@@ -0,0 +1,228 @@
+package org.io;
+
+
+import org.ds.Graph;
+import org.ds.ReadOnlyGraph;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+
+/* Off-heap graph store / binary snapshot, the CSR arrays live in a file that is memory-mapped read-only
+ * The OS pages the arrays in on demand and shares the pages between all JVMs that map the same file,
+ * the Java heap only holds the buffer objects (no Edge/Vertex objects, nothing for the GC to trace).
+ * Loading only maps the file, so even huge graphs open in milliseconds instead of being re-parsed.
+ *
+ * File layout (little endian ints), version 2:
+ *      header:  MAGIC | VERSION | flags | vertexCount | arcCount | payload CRC32 | 0 | header CRC32
+ *               flags bit 0: directed, bit 1: weighted
+ *      offsets: vertexCount+2 ints
+ *      targets: arcCount ints
+ *      weights: arcCount ints (only if weighted, else every weight is 1)
+ *      edgeIds: arcCount ints
+ *
+ * - the header CRC is checked on every load, the payload CRC (over everything behind the header) only on
+ *   load(file, true) since it has to read the whole file
+ * - save() writes to a temporary file first and renames it, a crash never leaves a half written snapshot
+ * - a single MappedByteBuffer can address at most 2 GB, so every array is mapped in segments of SEGMENT_INTS ints
+ */
+public class MappedGraph implements ReadOnlyGraph {
+    static final int MAGIC = 0x43535247; // "CSRG"
+    static final int VERSION = 2;
+    static final int HEADER_INTS = 8;
+    static final int FLAG_DIRECTED = 1;
+    static final int FLAG_WEIGHTED = 2;
+    private static final int SEGMENT_SHIFT = 28; // 2^28 ints = 1 GB per mapping
+    private static final int SEGMENT_INTS = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_INTS - 1;
+
+    private final int vertexCount;
+    private final int arcCount;
+    private final boolean isDirected;
+    private final boolean hasWeights;
+    private final IntBuffer[] offsets;
+    private final IntBuffer[] targets;
+    private final IntBuffer[] weights; // null if unweighted
+    private final IntBuffer[] edgeIds;
+
+    private MappedGraph(FileChannel ch, boolean verify) throws IOException {
+        if(ch.size() < HEADER_INTS * 4)
+            throw new IOException("Not a graph snapshot (file too small)");
+        ByteBuffer header = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_INTS * 4).order(ByteOrder.LITTLE_ENDIAN);
+        if(header.getInt(0) != MAGIC)
+            throw new IOException("Not a graph snapshot (bad magic number)");
+        if(header.getInt(4) != VERSION)
+            throw new IOException("Unsupported snapshot version " + header.getInt(4) + ", expected " + VERSION);
+        CRC32 crc = new CRC32();
+        ByteBuffer checked = header.duplicate();
+        checked.limit(28); // everything before the header CRC
+        crc.update(checked);
+        if((int) crc.getValue() != header.getInt(28))
+            throw new IOException("Snapshot header is corrupted (checksum mismatch)");
+        int flags = header.getInt(8);
+        this.isDirected = (flags & FLAG_DIRECTED) != 0;
+        this.hasWeights = (flags & FLAG_WEIGHTED) != 0;
+        this.vertexCount = header.getInt(12);
+        this.arcCount = header.getInt(16);
+
+        long pos = HEADER_INTS * 4L;
+        long expected = fileSize(vertexCount, arcCount, hasWeights);
+        if(ch.size() != expected)
+            throw new IOException("Snapshot has the wrong size (" + ch.size() + " of " + expected + " bytes)");
+        if(verify && (int) payloadChecksum(ch, pos, expected) != header.getInt(20))
+            throw new IOException("Snapshot is corrupted (checksum mismatch)");
+        this.offsets = map(ch, pos, vertexCount + 2);
+        pos += 4L * (vertexCount + 2);
+        this.targets = map(ch, pos, arcCount);
+        pos += 4L * arcCount;
+        this.weights = hasWeights ? map(ch, pos, arcCount) : null;
+        pos += hasWeights ? 4L * arcCount : 0;
+        this.edgeIds = map(ch, pos, arcCount);
+    }
+
+    // CRC32 of the bytes [from, to) of the file, read through mappings of at most 1 GB
+    static long payloadChecksum(FileChannel ch, long from, long to) throws IOException {
+        CRC32 crc = new CRC32();
+        for(long pos = from; pos < to; pos += 1 << 30)
+            crc.update(ch.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(1 << 30, to - pos)));
+        return crc.getValue();
+    }
+
+    // map count ints starting at byte position pos, one read-only buffer per segment
+    private static IntBuffer[] map(FileChannel ch, long pos, int count) throws IOException {
+        int segments = (int) (((long) count + SEGMENT_INTS - 1) >>> SEGMENT_SHIFT);
+        IntBuffer[] buffers = new IntBuffer[Math.max(segments, 1)];
+        for(int s = 0; s < buffers.length; s++){
+            long first = (long) s << SEGMENT_SHIFT;
+            long len = Math.min(SEGMENT_INTS, count - first);
+            buffers[s] = ch.map(FileChannel.MapMode.READ_ONLY, pos + 4 * first, 4 * len)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+        return buffers;
+    }
+
+    private static int get(IntBuffer[] buffers, int i){
+        return buffers[i >>> SEGMENT_SHIFT].get(i & SEGMENT_MASK);
+    }
+
+    /* Maps a snapshot written by save() read-only, only the header checksum is checked */
+    public static MappedGraph load(File file) throws IOException {
+        return load(file, false);
+    }
+
+    /* verify = true also reads the whole file once and checks the payload checksum */
+    public static MappedGraph load(File file, boolean verify) throws IOException {
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new MappedGraph(ch, verify); // the channel can be closed right after mapping
+        }
+    }
+
+    /* Snapshot of a built graph, its CSR & weight flag */
+    public static void save(Graph g, File file) throws IOException {
+        save(g.exposeCSR(), g.hasWeights(), file);
+    }
+
+    /* Writes any read-only graph (e.g. Graph.exposeCSR()) into the file layout above,
+     * hasWeights = false leaves out the weights array
+     */
+    public static void save(ReadOnlyGraph g, boolean hasWeights, File file) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer out = new Writer(ch, HEADER_INTS * 4L);
+            int n = g.getVertexCount();
+            int arcs = g.getArcCount();
+            out.put(0); // offsets[0], index 0 unused
+            for(int v = 1; v <= n; v++) out.put(g.begin(v));
+            out.put(arcs); // offsets[n+1]
+            for(int i = 0; i < arcs; i++) out.put(g.target(i));
+            if(hasWeights)
+                for(int i = 0; i < arcs; i++) out.put(g.weight(i));
+            for(int i = 0; i < arcs; i++) out.put(g.edgeId(i));
+            out.flush();
+
+            writeHeader(ch, g.isDirected(), hasWeights, n, arcs, (int) out.crc.getValue());
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // byte size of a snapshot
+    static long fileSize(int vertexCount, int arcCount, boolean hasWeights){
+        return HEADER_INTS * 4L + 4L * (vertexCount + 2) + (hasWeights ? 3 : 2) * 4L * arcCount;
+    }
+
+    /* writes the header at the start of ch (the payload is already written) and forces the file to disk */
+    static void writeHeader(FileChannel ch, boolean isDirected, boolean hasWeights, int vertexCount, int arcCount,
+                            int payloadCrc) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_INTS * 4).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION)
+                .putInt((isDirected ? FLAG_DIRECTED : 0) | (hasWeights ? FLAG_WEIGHTED : 0))
+                .putInt(vertexCount).putInt(arcCount).putInt(payloadCrc).putInt(0);
+        CRC32 crc = new CRC32();
+        crc.update(header.array(), 0, 28);
+        header.putInt((int) crc.getValue());
+        header.flip();
+        long pos = 0;
+        while(header.hasRemaining()) pos += ch.write(header, pos);
+        ch.force(true);
+    }
+
+    /* Buffered int writer behind the header, keeps the CRC32 of everything written */
+    private static class Writer {
+        private final FileChannel ch;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32 crc = new CRC32();
+        private long pos;
+
+        Writer(FileChannel ch, long pos){
+            this.ch = ch;
+            this.pos = pos;
+        }
+
+        void put(int value) throws IOException {
+            if(buf.remaining() < 4) flush();
+            buf.putInt(value);
+        }
+
+        void flush() throws IOException {
+            buf.flip();
+            crc.update(buf.duplicate());
+            while(buf.hasRemaining()) pos += ch.write(buf, pos);
+            buf.clear();
+        }
+    }
+
+    public boolean hasWeights(){ return this.hasWeights; }
+
+    @Override
+    public int getVertexCount(){ return this.vertexCount; }
+
+    @Override
+    public boolean isDirected(){ return this.isDirected; }
+
+    @Override
+    public int getArcCount(){ return this.arcCount; }
+
+    @Override
+    public int begin(int v){ return get(offsets, v); }
+
+    @Override
+    public int end(int v){ return get(offsets, v + 1); }
+
+    @Override
+    public int target(int arc){ return get(targets, arc); }
+
+    @Override
+    public int weight(int arc){ return weights == null ? 1 : get(weights, arc); }
+
+    @Override
+    public int edgeId(int arc){ return get(edgeIds, arc); }
+}
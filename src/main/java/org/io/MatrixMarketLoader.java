@@ -0,0 +1,84 @@
+package org.io;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/* Matrix Market coordinate files (.mtx), the sparse matrix is read as weighted adjacency matrix
+ *      %%MatrixMarket matrix coordinate <real|integer|pattern> <general|symmetric|skew-symmetric|hermitian>
+ *      % comments
+ *      rows cols entries
+ *      i j [value]         entry a(i,j) -> arc i -> j with weight value
+ * - |V| = max(rows, cols), pattern matrices are unweighted
+ * - real values are rounded to the int weights of the graph
+ * - general matrices are directed, symmetric ones store each edge once (undirected)
+ * - skew-symmetric ones store a(i,j) only, a(j,i) = -a(i,j): read as directed with both arcs, the reverse one negated
+ * Array (dense), complex and hermitian matrices are not supported.
+ */
+public class MatrixMarketLoader implements GraphLoader {
+
+    @Override
+    public String getName(){ return "matrixmarket"; }
+
+    @Override
+    public boolean accepts(String fileName, ByteBuffer head){
+        return GraphLoaders.hasExtension(fileName, ".mtx")
+                || new NumberScanner().reset(head, 0, head.limit()).nextWordIs("%%MatrixMarket");
+    }
+
+    @Override
+    public EdgeArrays load(File file) throws IOException {
+        return new Parser().parse(file);
+    }
+
+    private static class Parser extends LineParser {
+        private static final int PATTERN = 0, INTEGER = 1, REAL = 2;
+        private boolean banner;
+        private boolean size;
+        private boolean skew;
+        private int field;
+
+        @Override
+        void line(NumberScanner s) throws IOException {
+            if(!banner){
+                if(!s.nextWordIs("%%MatrixMarket") || !s.nextWordIs("matrix"))
+                    throw new IOException("Not a Matrix Market file (missing %%MatrixMarket matrix banner)");
+                if(!s.nextWordIs("coordinate"))
+                    throw new IOException("Only coordinate Matrix Market files are supported");
+                if(s.nextWordIs("pattern")) field = PATTERN;
+                else if(s.nextWordIs("integer")) field = INTEGER;
+                else if(s.nextWordIs("real") || s.nextWordIs("double")) field = REAL;
+                else throw new IOException("Unsupported Matrix Market field (complex?)");
+                if(s.nextWordIs("general")) edges.directed = true;
+                else if(s.nextWordIs("symmetric")) edges.directed = false;
+                else if(s.nextWordIs("skew-symmetric")) edges.directed = skew = true;
+                else throw new IOException("Unsupported Matrix Market symmetry (hermitian?), expected general, symmetric or skew-symmetric");
+                if(skew && field == PATTERN) throw new IOException("A pattern matrix can not be skew-symmetric");
+                banner = true;
+                return;
+            }
+            if(!s.hasToken() || s.peek() == '%') return; // blank or comment
+            if(!size){
+                int rows = s.nextInt();
+                int cols = s.nextInt();
+                if(s.failed()) throw new IOException("Bad Matrix Market size line: " + s.error());
+                edges.vertexCount = Math.max(rows, cols);
+                size = true;
+                return;
+            }
+            int i = s.nextInt();
+            int j = s.nextInt();
+            int w = EdgeArrays.NO_WEIGHT;
+            if(field == INTEGER) w = s.nextInt();
+            else if(field == REAL) w = (int) Math.round(s.nextDouble());
+            if(s.failed()) edges.error(edges.lines, s.error());
+            else if(edge(i, j, w) && skew && i != j) edge(j, i, -w);
+        }
+
+        @Override
+        void finish() throws IOException {
+            if(!size) throw new IOException("Matrix Market file without size line");
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.io;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/* METIS graph files (.graph / .metis), undirected adjacency lists
+ *      % comments
+ *      n m [fmt [ncon]]        fmt digits: vertex sizes | vertex weights | edge weights
+ *      line u (u = 1..n):      [size] [ncon vertex weights] v1 [w1] v2 [w2] ...
+ * - every undirected edge appears in the lists of both end vertices, it is kept once (u < v)
+ * - an empty line is a vertex without neighbours, vertex sizes & weights are skipped
+ * Only detected by extension, the header "n m" alone looks like any two-column edge list.
+ */
+public class MetisLoader implements GraphLoader {
+
+    @Override
+    public String getName(){ return "metis"; }
+
+    @Override
+    public boolean accepts(String fileName, ByteBuffer head){
+        return GraphLoaders.hasExtension(fileName, ".graph", ".metis");
+    }
+
+    @Override
+    public EdgeArrays load(File file) throws IOException {
+        return new Parser().parse(file);
+    }
+
+    private static class Parser extends LineParser {
+        private boolean header;
+        private boolean edgeWeights;
+        private int skip; // leading numbers per vertex line (size & vertex weights)
+        private int u;    // vertex of the current line
+        private long m;
+
+        @Override
+        void line(NumberScanner s) throws IOException {
+            if(startsWith(s, '%')) return;
+            if(!header){
+                if(!s.hasToken()) return;
+                int n = s.nextInt();
+                m = s.nextInt();
+                int fmt = s.hasToken() ? s.nextInt() : 0;
+                int ncon = s.hasToken() ? s.nextInt() : 1;
+                if(s.failed()) throw new IOException("Bad METIS header: " + s.error());
+                edgeWeights = fmt % 10 == 1;
+                skip = ((fmt / 100) % 10 == 1 ? 1 : 0) + ((fmt / 10) % 10 == 1 ? ncon : 0);
+                edges.vertexCount = n;
+                edges.directed = Boolean.FALSE;
+                header = true;
+                return;
+            }
+            u++;
+            if(u > edges.vertexCount){
+                if(s.hasToken()) edges.error(edges.lines, "more vertex lines than " + edges.vertexCount);
+                return;
+            }
+            for(int i = 0; i < skip && s.hasToken(); i++) s.skipToken();
+            while(s.hasToken()){
+                int v = s.nextInt();
+                int w = edgeWeights ? s.nextInt() : EdgeArrays.NO_WEIGHT;
+                if(s.failed()){
+                    edges.error(edges.lines, s.error());
+                    return;
+                }
+                if(u < v) edge(u, v, w);
+                else if(v < 1 || v > edges.vertexCount) edges.error(edges.lines, "vertex id out of range 1.." + edges.vertexCount);
+            }
+        }
+
+        @Override
+        void finish() throws IOException {
+            if(!header) throw new IOException("METIS file without header");
+            if(edges.size != m)
+                edges.error(edges.lines, "header announces " + m + " edges, found " + edges.size);
+        }
+    }
+}
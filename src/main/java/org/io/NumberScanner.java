@@ -0,0 +1,160 @@
+package org.io;
+
+
+import java.nio.ByteBuffer;
+
+/* Zero allocation tokenizer over the bytes [start, end) of a buffer, the core of all text loaders
+ *
+ *  for(s.reset(buf, start, end); s.hasMore(); s.nextLine())
+ *      while(s.hasToken())
+ *          int x = s.nextInt();
+ *          if(s.failed()) -> s.error() tells why, skip the line
+ *
+ * - tokens are separated by blanks and tabs (and commas with setCommaSeparated), lines end with \n or \r\n
+ * - numbers are parsed straight from the bytes, no String/Integer is created on the happy path
+ * - a failed parse sets an error (cleared by nextLine), the position is left at the bad byte
+ */
+public final class NumberScanner {
+    private ByteBuffer buf;
+    private int pos;
+    private int end;
+    private boolean commas;
+    private String error;
+
+    public NumberScanner reset(ByteBuffer buf, int start, int end){
+        this.buf = buf;
+        this.pos = start;
+        this.end = end;
+        this.error = null;
+        return this;
+    }
+
+    // ',' separates tokens as well (CSV)
+    public void setCommaSeparated(boolean commas){ this.commas = commas; }
+
+    // bytes left, the position is at the start of a line after reset / nextLine
+    public boolean hasMore(){ return pos < end; }
+
+    public int position(){ return this.pos; }
+
+    private boolean isBlank(int c){
+        return c == ' ' || c == '\t' || (commas && c == ',');
+    }
+
+    private boolean isTokenEnd(int c){
+        return isBlank(c) || c == '\n' || c == '\r';
+    }
+
+    /* skips blanks, true if the current line has another token */
+    public boolean hasToken(){
+        int c = 0;
+        while(pos < end && isBlank(c = buf.get(pos))) pos++;
+        return pos < end && c != '\n' && c != '\r';
+    }
+
+    // current byte without consuming it, -1 at the end of the line
+    public int peek(){
+        if(pos >= end) return -1;
+        int c = buf.get(pos);
+        return c == '\n' || c == '\r' ? -1 : c;
+    }
+
+    /* signed decimal int, the token has to end after the digits */
+    public int nextInt(){
+        hasToken();
+        int c = pos < end ? buf.get(pos) : -1;
+        boolean negative = c == '-';
+        if(negative || c == '+') pos++;
+        long value = 0;
+        int digitsStart = pos;
+        while(pos < end && (c = buf.get(pos)) >= '0' && c <= '9'){
+            value = value * 10 + (c - '0');
+            if(value > Integer.MAX_VALUE + 1L) return fail("number out of range");
+            pos++;
+        }
+        if(pos == digitsStart) return fail(unexpected());
+        if(pos < end && !isTokenEnd(buf.get(pos))) return fail(unexpected());
+        value = negative ? -value : value;
+        if(value > Integer.MAX_VALUE) return fail("number out of range");
+        return (int) value;
+    }
+
+    /* decimal number with optional fraction and exponent (1, -2.5, 3e4, .5E-2) */
+    public double nextDouble(){
+        hasToken();
+        int c = pos < end ? buf.get(pos) : -1;
+        boolean negative = c == '-';
+        if(negative || c == '+') pos++;
+        long mantissa = 0;
+        int exponent = 0;
+        int digits = 0;
+        while(pos < end && (c = buf.get(pos)) >= '0' && c <= '9'){
+            if(mantissa < 100000000000000000L) mantissa = mantissa * 10 + (c - '0');
+            else exponent++; // beyond 17 digits only the magnitude counts
+            digits++;
+            pos++;
+        }
+        if(pos < end && buf.get(pos) == '.'){
+            pos++;
+            while(pos < end && (c = buf.get(pos)) >= '0' && c <= '9'){
+                if(mantissa < 100000000000000000L){
+                    mantissa = mantissa * 10 + (c - '0');
+                    exponent--;
+                }
+                digits++;
+                pos++;
+            }
+        }
+        if(digits == 0) return fail(unexpected());
+        if(pos < end && ((c = buf.get(pos)) == 'e' || c == 'E')){
+            pos++;
+            int e = nextInt();
+            if(failed()) return 0;
+            exponent += e;
+        } else if(pos < end && !isTokenEnd(buf.get(pos))) {
+            return fail(unexpected());
+        }
+        double value = exponent == 0 ? mantissa : mantissa * Math.pow(10, exponent);
+        return negative ? -value : value;
+    }
+
+    /* consumes the next token if it equals word (ignoring case) */
+    public boolean nextWordIs(String word){
+        hasToken();
+        int len = word.length();
+        if(pos + len > end) return false;
+        for(int i = 0; i < len; i++)
+            if(Character.toLowerCase(buf.get(pos + i)) != Character.toLowerCase(word.charAt(i))) return false;
+        if(pos + len < end && !isTokenEnd(buf.get(pos + len))) return false;
+        pos += len;
+        return true;
+    }
+
+    // skips the next token, whatever it is
+    public void skipToken(){
+        hasToken();
+        while(pos < end && !isTokenEnd(buf.get(pos))) pos++;
+    }
+
+    /* moves to the start of the next line and clears the error */
+    public void nextLine(){
+        while(pos < end && buf.get(pos) != '\n') pos++;
+        pos++;
+        error = null;
+    }
+
+    public boolean failed(){ return error != null; }
+
+    // reason of the last failed parse on this line, null if there was none
+    public String error(){ return this.error; }
+
+    private int fail(String reason){
+        error = reason;
+        return 0;
+    }
+
+    private String unexpected(){
+        int c = peek();
+        return c == -1 ? "number expected" : "unexpected character '" + (char) c + "'";
+    }
+}
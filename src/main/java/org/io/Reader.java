@@ -4,6 +4,7 @@ package org.io;
 import org.App;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.ds.CSR;
 import org.ds.Graph;
 
 import java.io.*;
@@ -12,57 +13,35 @@ import java.io.*;
 public class Reader {
     private static final Logger logger = LogManager.getLogger(App.class);
 
+    /* Reads a graph file into a Graph, the format is detected (see GraphLoaders, input/*.txt: EdgeListParser),
+     * returns null if the file can not be read, malformed lines are logged and skipped
+     */
     public Graph readFile(final String path, boolean isDirected) {
-        File input = null;
-        Graph g = null;
+        EdgeArrays edges = readEdges(path);
+        return edges == null ? null : edges.toGraph(isDirected);
+    }
+
+    /* Same, but straight into CSR arrays without Edge/Vertex objects (for large inputs) */
+    public CSR readCSR(final String path, boolean isDirected) {
+        EdgeArrays edges = readEdges(path);
+        return edges == null ? null : edges.toCSR(isDirected);
+    }
 
-        if (path.length() != 0 && path != null) {
-            input = new File(path);
-        } else {
+    public EdgeArrays readEdges(final String path) {
+        if (path == null || path.length() == 0) {
             logger.error("Can't open file from this path...");
-            System.exit(-1);
+            return null;
         }
         try {
-            LineNumberReader reader = new LineNumberReader(new FileReader(input));
-            String currentLine;
-            Integer nrArr[] = new Integer[3];
-            int id = 0;
-
-            while ((currentLine = reader.readLine()) != null) {
-                if (reader.getLineNumber() == 1) {  // first line is always number of vertices in G(V,E)
-                    String vStr = "";
-                    for(int i = 0; i < currentLine.length(); i++){
-                        if(Character.isDigit(currentLine.charAt(i))){ // if is digit
-                            vStr += currentLine.charAt(i); // append character
-                        }
-                    }
-                    g = new Graph(Integer.valueOf(vStr), isDirected);
-                } else {
-                    id++;
-                    String nrStr = "";
-                    int nrCount = 0;
-
-                    for(int i = 0; i < currentLine.length(); i++){
-                        if(Character.isDigit(currentLine.charAt(i)) || currentLine.charAt(i) == '-'){ // if is digit
-                            nrStr += currentLine.charAt(i); // append character
-                        }
-                        if(currentLine.charAt(i) == ' '){
-                            nrArr[nrCount] = Integer.valueOf(nrStr);
-                            nrStr = "";
-                            nrCount++;
-                        }
-                    }
-                    nrArr[nrCount] = Integer.valueOf(nrStr);
-                    if(nrArr[2] != null) {
-                        g.addEdge(nrArr[0], nrArr[2], id, isDirected, nrArr[1]);
-                        if(!g.hasWeights()) g.setHasWeights(true);
-                    }
-                    else g.addEdge(nrArr[0], nrArr[1], id, isDirected, null);
-                }
-            }
+            EdgeArrays edges = GraphLoaders.load(new File(path));
+            for (String error: edges.getErrors())
+                logger.warn("Skipped malformed " + error + " in " + path);
+            if (edges.getErrorCount() > edges.getErrors().size())
+                logger.warn((edges.getErrorCount() - edges.getErrors().size()) + " more malformed lines in " + path);
+            return edges;
         } catch (IOException e) {
-            logger.error("Catched IO exception...");
+            logger.error("Can't read " + path + ": " + e.getMessage());
+            return null;
         }
-        return g;
     }
 }
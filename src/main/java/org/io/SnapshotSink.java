@@ -0,0 +1,155 @@
+package org.io;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+
+/* Writes a streamed edge list straight into a snapshot file (see MappedGraph) without holding the edges
+ * The CSR layout needs the degrees before the first arc can be placed, so it takes two passes:
+ *  1) every batch is appended to a spool file (from, to, weight), degrees are counted on the fly
+ *  2) end(): prefix sums give the offsets, the spool is replayed and every arc is written into its slot
+ *     of the memory-mapped snapshot, then the checksums & the header are written
+ * Heap use is O(V) (degrees / next free slot per vertex), the edges only live on disk.
+ */
+public class SnapshotSink implements EdgeSink {
+    private static final int SEGMENT_SHIFT = 30; // 1 GB per writable mapping
+
+    private final File file;
+    private final boolean isDirected;
+    private File spoolFile;
+    private FileChannel spool;
+    private ByteBuffer spoolBuf;
+    private int vertexCount;
+    private int[] offsets;
+    private long arcCount;
+    private boolean hasWeights;
+
+    public SnapshotSink(File file, boolean isDirected){
+        this.file = file;
+        this.isDirected = isDirected;
+    }
+
+    @Override
+    public void begin(int vertexCount) throws IOException {
+        this.vertexCount = vertexCount;
+        this.offsets = new int[vertexCount+2];
+        this.spoolFile = File.createTempFile("edges", ".spool", file.getAbsoluteFile().getParentFile());
+        try {
+            this.spool = FileChannel.open(spoolFile.toPath(), StandardOpenOption.WRITE, StandardOpenOption.READ);
+        } finally {
+            if(spool == null) spoolFile.delete();
+        }
+        this.spoolBuf = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public void edges(int[] from, int[] to, int[] weight, int count, int firstId) throws IOException {
+        for(int i = 0; i < count; i++){
+            if(spoolBuf.remaining() < 12) flushSpool();
+            spoolBuf.putInt(from[i]).putInt(to[i]).putInt(weight[i]);
+            offsets[from[i]+1]++;
+            arcCount++;
+            if(!isDirected){ // Edge undirected, arc back as well
+                offsets[to[i]+1]++;
+                arcCount++;
+            }
+            if(weight[i] != EdgeArrays.NO_WEIGHT) hasWeights = true;
+        }
+        if(arcCount > Integer.MAX_VALUE) throw new IOException("Too many arcs for a snapshot: " + arcCount);
+    }
+
+    private void flushSpool() throws IOException {
+        spoolBuf.flip();
+        while(spoolBuf.hasRemaining()) spool.write(spoolBuf);
+        spoolBuf.clear();
+    }
+
+    @Override
+    public void end() throws IOException {
+        flushSpool();
+        for(int v = 1; v < offsets.length; v++)
+            offsets[v] += offsets[v-1];
+        int arcs = (int) arcCount;
+        long size = MappedGraph.fileSize(vertexCount, arcs, hasWeights);
+        long offsetsPos = MappedGraph.HEADER_INTS * 4L;
+        long targetsPos = offsetsPos + 4L * (vertexCount + 2);
+        long weightsPos = targetsPos + 4L * arcs;
+        long edgeIdsPos = weightsPos + (hasWeights ? 4L * arcs : 0);
+
+        File tmp = new File(file.getPath() + ".tmp");
+        try (RandomAccessFile raf = new RandomAccessFile(tmp, "rw"); FileChannel ch = raf.getChannel()) {
+            raf.setLength(0);
+            raf.setLength(size);
+            MappedByteBuffer[] out = new MappedByteBuffer[(int) ((size - 1) >>> SEGMENT_SHIFT) + 1];
+            for(int s = 0; s < out.length; s++){
+                long start = (long) s << SEGMENT_SHIFT;
+                out[s] = ch.map(FileChannel.MapMode.READ_WRITE, start, Math.min(1L << SEGMENT_SHIFT, size - start));
+                out[s].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            for(int v = 0; v < offsets.length; v++)
+                put(out, offsetsPos + 4L * v, offsets[v]);
+
+            int[] next = offsets; // offsets are written, reuse the array as next free slot per vertex
+            spool.position(0);
+            spoolBuf.clear();
+            int id = 0;
+            while(spool.read(spoolBuf) > 0 || spoolBuf.position() > 0){
+                spoolBuf.flip();
+                while(spoolBuf.remaining() >= 12){
+                    int u = spoolBuf.getInt(), v = spoolBuf.getInt(), w = spoolBuf.getInt();
+                    id++;
+                    int slot = next[u]++;
+                    put(out, targetsPos + 4L * slot, v);
+                    if(hasWeights) put(out, weightsPos + 4L * slot, w == EdgeArrays.NO_WEIGHT ? 1 : w);
+                    put(out, edgeIdsPos + 4L * slot, id);
+                    if(!isDirected){
+                        slot = next[v]++;
+                        put(out, targetsPos + 4L * slot, u);
+                        if(hasWeights) put(out, weightsPos + 4L * slot, w == EdgeArrays.NO_WEIGHT ? 1 : w);
+                        put(out, edgeIdsPos + 4L * slot, id);
+                    }
+                }
+                spoolBuf.compact();
+                if(spoolBuf.position() > 0 && spool.position() == spool.size())
+                    throw new IOException("Spool file is truncated");
+            }
+            for(MappedByteBuffer b: out) b.force();
+            int crc = (int) MappedGraph.payloadChecksum(ch, offsetsPos, size);
+            MappedGraph.writeHeader(ch, isDirected, hasWeights, vertexCount, arcs, crc);
+        } finally {
+            spool.close();
+            Files.delete(spoolFile.toPath());
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // the spool and a half written snapshot are deleted, an existing snapshot at file is left as it was
+    @Override
+    public void abort(){
+        if(spool != null){
+            try {
+                spool.close();
+            } catch (IOException e){
+                // closing failed as well, deleting below is all that is left
+            }
+        }
+        if(spoolFile != null) spoolFile.delete();
+        new File(file.getPath() + ".tmp").delete();
+    }
+
+    // ints never straddle two mappings, every position is a multiple of 4
+    private static void put(MappedByteBuffer[] out, long pos, int value){
+        out[(int) (pos >>> SEGMENT_SHIFT)].putInt((int) (pos & ((1L << SEGMENT_SHIFT) - 1)), value);
+    }
+
+    public File getFile(){ return this.file; }
+}
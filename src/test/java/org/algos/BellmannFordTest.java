@@ -0,0 +1,55 @@
+package org.algos;
+
+import org.ds.CSR;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class BellmannFordTest {
+
+    @Test
+    public void everyModeMatchesReference(){
+        Random rnd = new Random(31);
+        for(int t = 0; t < 400; t++){
+            int n = 1 + rnd.nextInt(t < 390 ? 100 : 3000); // the last ones span several parallel chunks
+            int m = rnd.nextInt(8 * n + 1);
+            CSR g = TestGraphs.random(rnd, n, m, true, -rnd.nextInt(20), 1 + rnd.nextInt(100));
+            check(g, 1 + rnd.nextInt(n), "run " + t);
+        }
+    }
+
+    // an undirected edge is an arc each way, a negative one reachable from s is a cycle of two arcs
+    @Test
+    public void undirectedNegativeEdgeIsACycle(){
+        Random rnd = new Random(32);
+        for(int t = 0; t < 100; t++){
+            int n = 2 + rnd.nextInt(50);
+            check(TestGraphs.random(rnd, n, rnd.nextInt(3 * n + 1), false, -5, 30), 1 + rnd.nextInt(n), "run " + t);
+        }
+    }
+
+    private static void check(CSR g, int s, String run){
+        int[] expected = TestGraphs.bellmanFord(g, s);
+        for(BellmannFord.Mode mode: BellmannFord.Mode.values()){
+            BellmannFord bf = new BellmannFord(g, s);
+            bf.setVerbose(false);
+            bf.setMode(mode);
+            bf.setThreads(3);
+            boolean ok = bf.bellmannFord(s);
+            String what = mode + " " + run;
+            assertEquals(what, expected != null, ok);
+            if(!ok){
+                TestGraphs.assertNegativeCycle(g, bf.getNegativeCycle());
+                continue;
+            }
+            assertEquals(what, 0, bf.getNegativeCycle().length);
+            for(int v = 1; v <= g.getVertexCount(); v++){
+                assertEquals(what + ", vertex " + v, expected[v], bf.getDistance(v));
+                int p = bf.getParent(v);
+                if(v != s && p != 0) assertEquals(what + ", parent of " + v, expected[v], expected[p] + TestGraphs.arcWeight(g, p, v));
+            }
+        }
+    }
+}
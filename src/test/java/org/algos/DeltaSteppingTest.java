@@ -0,0 +1,33 @@
+package org.algos;
+
+import org.ds.CSR;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class DeltaSteppingTest {
+
+    @Test
+    public void matchesBellmanFord(){
+        Random rnd = new Random(21);
+        for(int t = 0; t < 300; t++){
+            int n = 1 + rnd.nextInt(t < 280 ? 200 : 5000); // the last ones have frontiers large enough to split
+            int maxWeight = 1 + rnd.nextInt(t % 3 == 0 ? 5 : 1000);
+            CSR g = TestGraphs.random(rnd, n, rnd.nextInt(4 * n + 1), rnd.nextBoolean(), 0, maxWeight);
+            int s = 1 + rnd.nextInt(n);
+            DeltaStepping ds = new DeltaStepping(g, 1 + rnd.nextInt(4));
+            if(rnd.nextBoolean()) ds.setDelta(1 + rnd.nextInt(2 * maxWeight));
+            ds.run(s);
+            int[] expected = TestGraphs.bellmanFord(g, s);
+            for(int v = 1; v <= n; v++)
+                assertEquals("run " + t + ", delta " + ds.getDelta() + ", vertex " + v, expected[v], ds.getDistance(v));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeWeights(){
+        new DeltaStepping(CSR.fromArrays(2, true, new int[]{1}, new int[]{2}, new int[]{-1}, 1), 1);
+    }
+}
@@ -0,0 +1,108 @@
+package org.algos;
+
+import org.ds.CSR;
+import org.ds.CompressedGraph;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class DepthFirstSearchTest {
+
+    @Test
+    public void sameTimesAsRecursiveDfs(){
+        Random rnd = new Random(5);
+        for(int t = 0; t < 200; t++){
+            int n = 1 + rnd.nextInt(60);
+            CSR g = randomGraph(rnd, n, rnd.nextInt(3 * n + 1));
+            int[][] expected = recursiveTimes(g);
+            DepthFirstSearch dfs = new DepthFirstSearch(g);
+            assertArrayEquals("run " + t, expected[2], run(dfs, n));
+            int[][] ws = times(dfs, n);
+            assertArrayEquals("discovered, run " + t, expected[0], ws[0]);
+            assertArrayEquals("finished, run " + t, expected[1], ws[1]);
+            assertArrayEquals("parents, run " + t, expected[3], ws[2]);
+        }
+    }
+
+    // compressed lists are sorted, so the reference runs on the decoded CSR with the same order
+    @Test
+    public void compressedMatchesCsr(){
+        Random rnd = new Random(6);
+        for(int t = 0; t < 200; t++){
+            int n = 1 + rnd.nextInt(60);
+            CompressedGraph cg = CompressedGraph.compress(randomGraph(rnd, n, rnd.nextInt(3 * n + 1)), rnd.nextBoolean());
+            DepthFirstSearch plain = new DepthFirstSearch(cg.toCSR()), compressed = new DepthFirstSearch(cg);
+            assertArrayEquals("run " + t, run(plain, n), run(compressed, n));
+            int[][] expectedTimes = times(plain, n), got = times(compressed, n);
+            for(int k = 0; k < 3; k++) assertArrayEquals("run " + t, expectedTimes[k], got[k]);
+        }
+    }
+
+    // one path through all vertices, a recursive visit would need a call per vertex
+    @Test
+    public void longPathNeedsNoThreadStack(){
+        int n = 1000000;
+        int[] from = new int[n - 1], to = new int[n - 1];
+        for(int i = 0; i < n - 1; i++){
+            from[i] = i + 1;
+            to[i] = i + 2;
+        }
+        CSR path = CSR.fromArrays(n, true, from, to, null, n - 1);
+        int[] topSort = run(new DepthFirstSearch(path), n);
+        for(int i = 0; i < n; i++) assertEquals(i + 1, topSort[i]);
+        topSort = run(new DepthFirstSearch(CompressedGraph.compress(path, false)), n);
+        for(int i = 0; i < n; i++) assertEquals(i + 1, topSort[i]);
+    }
+
+    private static int[] run(DepthFirstSearch dfs, int n){
+        dfs.setVerbose(false);
+        return dfs.topSort();
+    }
+
+    // discovery, finishing times & parents of the last run of dfs
+    private static int[][] times(DepthFirstSearch dfs, int n){
+        int[][] times = new int[3][n + 1];
+        for(int v = 1; v <= n; v++){
+            times[0][v] = dfs.getDiscovered(v);
+            times[1][v] = dfs.getFinished(v);
+            times[2][v] = dfs.getParent(v);
+        }
+        return times;
+    }
+
+    private static CSR randomGraph(Random rnd, int n, int m){
+        int[] from = new int[m], to = new int[m], w = new int[m];
+        for(int i = 0; i < m; i++){
+            from[i] = 1 + rnd.nextInt(n);
+            to[i] = 1 + rnd.nextInt(n);
+            w[i] = rnd.nextInt(10);
+        }
+        return CSR.fromArrays(n, true, from, to, w, m);
+    }
+
+    /* textbook recursive DFS: [discovered, finished, topological order, parents] */
+    private static int[][] recursiveTimes(CSR g){
+        int n = g.getVertexCount();
+        int[][] r = {new int[n + 1], new int[n + 1], new int[n], new int[n + 1]};
+        int[] state = {0, n}; // time, next free slot of the order from the back
+        for(int v = 1; v <= n; v++)
+            if(r[0][v] == 0) recurse(g, v, r, state);
+        return r;
+    }
+
+    private static void recurse(CSR g, int u, int[][] r, int[] state){
+        r[0][u] = ++state[0];
+        for(int i = g.begin(u); i < g.end(u); i++){
+            int v = g.target(i);
+            if(r[0][v] == 0){
+                r[3][v] = u;
+                recurse(g, v, r, state);
+            }
+        }
+        r[1][u] = ++state[0];
+        r[2][--state[1]] = u;
+    }
+}
@@ -0,0 +1,84 @@
+package org.algos;
+
+import org.ds.CSR;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class DijkstraTest {
+
+    @Test
+    public void heapMatchesBellmanFord(){
+        Random rnd = new Random(10);
+        for(int t = 0; t < 300; t++){
+            int n = 1 + rnd.nextInt(200);
+            CSR g = TestGraphs.random(rnd, n, rnd.nextInt(4 * n + 1), rnd.nextBoolean(), 0, rnd.nextInt(1000));
+            int s = 1 + rnd.nextInt(n);
+            Dijkstra d = new Dijkstra(g, s);
+            d.setQueue(Dijkstra.Queue.HEAP);
+            d.dijkstra();
+            assertArrayEquals("run " + t, TestGraphs.bellmanFord(g, s), distances(d, n));
+        }
+    }
+
+    // negative weights are only allowed on the heap, AUTO falls back to it
+    @Test
+    public void autoPicksHeapForNegativeWeights(){
+        CSR g = CSR.fromArrays(3, true, new int[]{1, 2}, new int[]{2, 3}, new int[]{4, -1}, 2);
+        Dijkstra d = new Dijkstra(g, 1);
+        assertEquals(Dijkstra.Queue.HEAP, d.getQueue());
+        d.dijkstra();
+        assertEquals(3, d.getDistance(3));
+        assertEquals(2, d.getParent(3));
+    }
+
+    // small weights pick DIAL under AUTO, large ones RADIX, RADIX is forced on small ones as well
+    @Test
+    public void bucketQueuesMatchBellmanFord(){
+        Random rnd = new Random(11);
+        for(int t = 0; t < 300; t++){
+            int n = 1 + rnd.nextInt(200);
+            boolean small = t % 2 == 0;
+            int maxWeight = small ? rnd.nextInt(Dijkstra.DIAL_MAX_WEIGHT + 1) : rnd.nextInt(1000000);
+            CSR g = TestGraphs.random(rnd, n, rnd.nextInt(4 * n + 1), rnd.nextBoolean(), 0, maxWeight);
+            int s = 1 + rnd.nextInt(n);
+            int[] expected = TestGraphs.bellmanFord(g, s);
+            Dijkstra.Queue[] queues = small
+                    ? new Dijkstra.Queue[]{Dijkstra.Queue.AUTO, Dijkstra.Queue.DIAL, Dijkstra.Queue.RADIX}
+                    : new Dijkstra.Queue[]{Dijkstra.Queue.AUTO, Dijkstra.Queue.RADIX};
+            for(Dijkstra.Queue queue: queues){
+                Dijkstra d = new Dijkstra(g, s);
+                d.setQueue(queue);
+                d.dijkstra();
+                assertArrayEquals(queue + " run " + t, expected, distances(d, n));
+            }
+        }
+    }
+
+    // a forced DIAL queue would need a bucket per weight up to the largest one
+    @Test(expected = IllegalStateException.class)
+    public void dialRejectsLargeWeights(){
+        CSR g = CSR.fromArrays(2, true, new int[]{1}, new int[]{2}, new int[]{Integer.MAX_VALUE - 1}, 1);
+        Dijkstra d = new Dijkstra(g, 1);
+        d.setQueue(Dijkstra.Queue.DIAL);
+        d.dijkstra();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void bucketQueuesRejectNegativeWeights(){
+        CSR g = CSR.fromArrays(2, true, new int[]{1}, new int[]{2}, new int[]{-1}, 1);
+        Dijkstra d = new Dijkstra(g, 1);
+        d.setQueue(Dijkstra.Queue.RADIX);
+        d.dijkstra();
+    }
+
+    private static int[] distances(Dijkstra d, int n){
+        int[] dist = new int[n + 1];
+        dist[0] = TestGraphs.INF;
+        for(int v = 1; v <= n; v++) dist[v] = d.getDistance(v);
+        return dist;
+    }
+}
@@ -0,0 +1,140 @@
+package org.algos;
+
+import org.ds.WeightMatrix;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FloydWarshallTest {
+
+    // sizes around the 64 x 64 tiles, negative weights come from potentials so there is no negative cycle
+    @Test
+    public void tiledMatchesPlainLoop(){
+        Random rnd = new Random(41);
+        int[] sizes = {1, 2, 17, 63, 64, 65, 100, 128, 129, 150};
+        for(int t = 0; t < 30; t++){
+            int n = sizes[t % sizes.length];
+            WeightMatrix w = random(rnd, n, rnd.nextDouble(), t % 2 == 1);
+            int[] expected = plain(w).getData();
+            for(int threads = 1; threads <= 4; threads++){
+                FloydWarshall fw = new FloydWarshall(w);
+                fw.setThreads(threads);
+                assertArrayEquals("n " + n + ", threads " + threads, expected, fw.floydwarshall().getData());
+                assertFalse(fw.hasNegativeCycle());
+            }
+        }
+    }
+
+    // reduced weights of 0 give zero weight cycles, the tiled order used to leave the next pointers in a circle there
+    @Test
+    public void pathsAreShortest(){
+        Random rnd = new Random(43);
+        for(int t = 0; t < 20; t++){
+            int n = 1 + rnd.nextInt(150);
+            WeightMatrix w = random(rnd, n, rnd.nextDouble(), true);
+            FloydWarshall fw = new FloydWarshall(w);
+            fw.setTrackPaths(true);
+            WeightMatrix d = fw.floydwarshall();
+            assertArrayEquals(plain(w).getData(), d.getData());
+            for(int i = 1; i <= n; i++){
+                for(int j = 1; j <= n; j++){
+                    int[] path = fw.getPath(i, j);
+                    if(!d.hasEdge(i, j)){
+                        assertEquals(0, path.length);
+                        continue;
+                    }
+                    assertEquals(i, path[0]);
+                    assertEquals(j, path[path.length - 1]);
+                    long length = 0;
+                    for(int p = 0; p + 1 < path.length; p++){
+                        assertTrue(w.hasEdge(path[p], path[p + 1]));
+                        length += w.get(path[p], path[p + 1]);
+                    }
+                    assertEquals("path " + i + " -> " + j, d.get(i, j), length);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void negativeCycleShowsOnDiagonal(){
+        Random rnd = new Random(42);
+        WeightMatrix w = random(rnd, 90, 0.1, false);
+        w.set(70, 5, -1000);
+        w.set(5, 70, 10);
+        FloydWarshall fw = new FloydWarshall(w);
+        fw.floydwarshall();
+        assertTrue(fw.hasNegativeCycle());
+    }
+
+    // same text as the String concatenation of printMat before, X for no path
+    @Test
+    public void writeMatPinsTheMatrixText() throws IOException {
+        WeightMatrix w = new WeightMatrix(4);
+        for(int i = 1; i < 4; i++) w.set(i, i, 0);
+        w.set(1, 2, 5);
+        w.set(2, 3, -2);
+        w.set(3, 1, 12);
+        StringBuilder out = new StringBuilder();
+        new FloydWarshall(w).writeMat(w, out);
+        assertEquals("\tv1\tv2\tv3\t\n"
+                + "v1\t0\t5\tX\t\n"
+                + "v2\tX\t0\t-2\t\n"
+                + "v3\t12\tX\t0\t\n", out.toString());
+
+        Random rnd = new Random(44);
+        for(int t = 0; t < 10; t++){
+            WeightMatrix m = random(rnd, 1 + rnd.nextInt(40), rnd.nextDouble(), true);
+            out.setLength(0);
+            new FloydWarshall(m).writeMat(m, out);
+            String colIndexes = "";
+            for(int i = 1; i < m.getSize(); i++)
+                colIndexes = colIndexes + "v" + i + "\t";
+            String text = "\t" + colIndexes + "\n";
+            for(int i = 1; i < m.getSize(); i++){
+                String colValues = "";
+                for(int j = 1; j < m.getSize(); j++)
+                    if(!m.hasEdge(i, j)) colValues = colValues + "X\t";
+                    else colValues = colValues + m.get(i, j) + "\t";
+                text = text + "v" + i + "\t" + colValues + "\n";
+            }
+            assertEquals(text, out.toString());
+        }
+    }
+
+    // the verbose run is the untiled k loop, its printed matrices are dropped
+    private static WeightMatrix plain(WeightMatrix w){
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {}
+        }));
+        try {
+            FloydWarshall fw = new FloydWarshall(w);
+            fw.setVerbose(true);
+            return fw.floydwarshall();
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    private static WeightMatrix random(Random rnd, int n, double density, boolean negative){
+        int[] potential = new int[n + 1];
+        for(int v = 1; v <= n; v++) potential[v] = negative ? rnd.nextInt(50) : 0;
+        WeightMatrix w = new WeightMatrix(n + 1);
+        for(int i = 1; i <= n; i++){
+            w.set(i, i, 0);
+            for(int j = 1; j <= n; j++)
+                if(i != j && rnd.nextDouble() < density) w.set(i, j, rnd.nextInt(100) + potential[i] - potential[j]);
+        }
+        return w;
+    }
+}
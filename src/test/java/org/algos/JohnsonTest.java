@@ -0,0 +1,117 @@
+package org.algos;
+
+import org.ds.CSR;
+import org.io.DistanceMatrixFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JohnsonTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void sinkRowsMatchBellmanFord() throws IOException {
+        Random rnd = new Random(51);
+        for(int t = 0; t < 100; t++){
+            final CSR g = acyclicNegative(rnd, 1 + rnd.nextInt(80));
+            final int n = g.getVertexCount();
+            final int[][] rows = new int[n + 1][];
+            Johnson johnson = new Johnson(g, 1 + rnd.nextInt(4));
+            assertTrue(johnson.run(new DistanceSink() {
+                @Override
+                public void accept(int s, int[] dist, int[] parent) {
+                    int[] expected = TestGraphs.bellmanFord(g, s);
+                    for(int v = 1; v <= n; v++){
+                        if(v == s || parent[v] == 0) continue;
+                        assertEquals(expected[v], expected[parent[v]] + TestGraphs.arcWeight(g, parent[v], v));
+                    }
+                    synchronized (rows){
+                        rows[s] = dist.clone();
+                    }
+                }
+            }));
+            for(int s = 1; s <= n; s++) assertArrayEquals("run " + t + ", row " + s, reference(g, s), Arrays.copyOfRange(rows[s], 1, n + 1));
+        }
+    }
+
+    @Test
+    public void fileRowsMatchBellmanFord() throws IOException {
+        Random rnd = new Random(52);
+        for(int t = 0; t < 50; t++){
+            CSR g = acyclicNegative(rnd, 1 + rnd.nextInt(80));
+            int n = g.getVertexCount();
+            File f = new File(tmp.getRoot(), "d" + t);
+            assertTrue(new Johnson(g, 1 + rnd.nextInt(4)).run(f));
+            DistanceMatrixFile matrix = DistanceMatrixFile.open(f);
+            try {
+                assertEquals(n, matrix.getVertexCount());
+                int[] row = new int[n + 1];
+                for(int s = 1; s <= n; s++){
+                    int[] expected = reference(g, s);
+                    matrix.readRow(s, row);
+                    assertArrayEquals("run " + t + ", row " + s, expected, Arrays.copyOfRange(row, 1, n + 1));
+                    int v = 1 + rnd.nextInt(n);
+                    assertEquals(expected[v - 1], matrix.get(s, v));
+                }
+            } finally {
+                matrix.close();
+            }
+        }
+    }
+
+    @Test
+    public void negativeCycleStopsBeforeAnyRow() throws IOException {
+        Random rnd = new Random(53);
+        for(int t = 0; t < 50; t++){
+            int n = 2 + rnd.nextInt(50);
+            CSR g = TestGraphs.random(rnd, n, 2 * n, true, -20, 20);
+            boolean cyclic = false;
+            for(int s = 1; s <= n && !cyclic; s++) cyclic = TestGraphs.bellmanFord(g, s) == null;
+            if(!cyclic) continue;
+            Johnson johnson = new Johnson(g, 2);
+            assertFalse(johnson.run(new DistanceSink() {
+                @Override
+                public void accept(int s, int[] dist, int[] parent) {
+                    fail("row " + s + " despite a negative cycle");
+                }
+            }));
+            TestGraphs.assertNegativeCycle(g, johnson.getNegativeCycle());
+            assertNull(johnson.getPotentials());
+            File f = new File(tmp.getRoot(), "c" + t);
+            assertFalse(johnson.run(f));
+            assertFalse(f.exists());
+        }
+    }
+
+    // negative weights w + p(u) - p(v) with w >= 0, i.e. no negative cycle
+    private static CSR acyclicNegative(Random rnd, int n){
+        int m = rnd.nextInt(4 * n + 1);
+        int[] p = new int[n + 1];
+        for(int v = 1; v <= n; v++) p[v] = rnd.nextInt(30);
+        int[] from = new int[m], to = new int[m], w = new int[m];
+        for(int i = 0; i < m; i++){
+            from[i] = 1 + rnd.nextInt(n);
+            to[i] = 1 + rnd.nextInt(n);
+            w[i] = rnd.nextInt(50) + p[from[i]] - p[to[i]];
+        }
+        return CSR.fromArrays(n, true, from, to, w, m);
+    }
+
+    // d(s, 1..n), index 0 of a row is not part of it
+    private static int[] reference(CSR g, int s){
+        return Arrays.copyOfRange(TestGraphs.bellmanFord(g, s), 1, g.getVertexCount() + 1);
+    }
+}
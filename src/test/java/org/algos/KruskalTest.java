@@ -0,0 +1,81 @@
+package org.algos;
+
+import org.ds.CSR;
+import org.ds.UnionFind;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class KruskalTest {
+
+    // the last graphs have more than FILTER_THRESHOLD edges, so FILTER really partitions
+    @Test
+    public void filterPicksSameArcsAsSort(){
+        Random rnd = new Random(61);
+        for(int t = 0; t < 200; t++){
+            int n = 1 + rnd.nextInt(t < 170 ? 60 : 3000);
+            CSR g = TestGraphs.random(rnd, n, rnd.nextInt(8 * n + 1), false, -rnd.nextInt(100), 1 + rnd.nextInt(t % 3 == 0 ? 5 : 1000));
+            Kruskal kruskal = new Kruskal();
+            int[] sorted = kruskal.MSTKruskal(g);
+            kruskal.setMode(Kruskal.Mode.FILTER);
+            assertArrayEquals("run " + t, sorted, kruskal.MSTKruskal(g));
+            assertForest(g, sorted);
+        }
+    }
+
+    // a path 1-2-...-n first keeps the graph connected, so Prim from 1 spans it, MST weight = sum of the keys
+    @Test
+    public void weightMatchesEveryPrimHeap(){
+        Random rnd = new Random(62);
+        for(int t = 0; t < 200; t++){
+            int n = 2 + rnd.nextInt(t < 170 ? 60 : 3000);
+            int m = n - 1 + rnd.nextInt(8 * n + 1);
+            int range = 1 + rnd.nextInt(t % 3 == 0 ? 5 : 1000); // small ranges give many ties
+            int[] from = new int[m], to = new int[m], w = new int[m];
+            for(int i = 0; i < m; i++){
+                from[i] = i < n - 1 ? i + 1 : 1 + rnd.nextInt(n);
+                to[i] = i < n - 1 ? i + 2 : 1 + rnd.nextInt(n);
+                w[i] = rnd.nextInt(range) - range / 2;
+            }
+            CSR g = CSR.fromArrays(n, false, from, to, w, m);
+            for(Kruskal.Mode mode: Kruskal.Mode.values()){
+                Kruskal kruskal = new Kruskal();
+                kruskal.setMode(mode);
+                int[] mst = kruskal.MSTKruskal(g);
+                assertEquals(n - 1, mst.length);
+                long weight = 0;
+                for(int arc: mst) weight += g.weight(arc);
+                for(Prim.Heap heap: Prim.Heap.values()){
+                    Prim prim = new Prim();
+                    prim.setHeap(heap);
+                    prim.setVerbose(false);
+                    prim.MSTPrim(g, 1);
+                    long keys = 0;
+                    for(int v = 2; v <= n; v++) keys += prim.getKey(v);
+                    assertEquals(mode + " vs " + heap + ", run " + t, weight, keys);
+                }
+            }
+        }
+    }
+
+    // no chosen arc closes a cycle and every other edge has its ends in one tree
+    private static void assertForest(CSR g, int[] mst){
+        int n = g.getVertexCount();
+        UnionFind chosen = new UnionFind(n);
+        for(int arc: mst)
+            assertTrue("arc " + arc + " closes a cycle", chosen.union(source(g, arc), g.target(arc)));
+        for(int u = 1; u <= n; u++)
+            for(int i = g.begin(u); i < g.end(u); i++)
+                assertTrue(chosen.connected(u, g.target(i)));
+    }
+
+    private static int source(CSR g, int arc){
+        int u = 1;
+        while(g.end(u) <= arc) u++;
+        return u;
+    }
+}
@@ -0,0 +1,62 @@
+package org.algos;
+
+import org.ds.CSR;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ShortestPathQueryTest {
+
+    @Test
+    public void singlePairQueriesMatchBellmanFord(){
+        Random rnd = new Random(12);
+        for(int t = 0; t < 300; t++){
+            int n = 1 + rnd.nextInt(150);
+            CSR g = TestGraphs.random(rnd, n, rnd.nextInt(3 * n + 1), rnd.nextBoolean(), 0, 1 + rnd.nextInt(100));
+            Dijkstra d = new Dijkstra(g, 1);
+            for(int q = 0; q < 5; q++){
+                int s = 1 + rnd.nextInt(n), target = 1 + rnd.nextInt(n);
+                int expected = TestGraphs.bellmanFord(g, s)[target];
+                assertAnswer(g, s, target, expected, d.shortestPath(s, target));
+                assertAnswer(g, s, target, expected, d.shortestPathBidirectional(s, target));
+            }
+        }
+    }
+
+    @Test
+    public void aStarOnGridMatchesBellmanFord(){
+        Random rnd = new Random(13);
+        for(int t = 0; t < 100; t++){
+            int width = 1 + rnd.nextInt(20), height = 1 + rnd.nextInt(20);
+            int minWeight = 1 + rnd.nextInt(5);
+            CSR g = TestGraphs.grid(rnd, width, height, minWeight, minWeight + rnd.nextInt(50));
+            Dijkstra d = new Dijkstra(g, 1);
+            Heuristic h = new GridHeuristic(width, minWeight);
+            for(int q = 0; q < 5; q++){
+                int s = 1 + rnd.nextInt(width * height), target = 1 + rnd.nextInt(width * height);
+                assertAnswer(g, s, target, TestGraphs.bellmanFord(g, s)[target], d.shortestPathAStar(s, target, h));
+            }
+        }
+    }
+
+    @Test
+    public void sourceIsTarget(){
+        CSR g = CSR.fromArrays(3, true, new int[]{1, 2}, new int[]{2, 3}, new int[]{4, 1}, 2);
+        Dijkstra d = new Dijkstra(g, 1);
+        assertAnswer(g, 2, 2, 0, d.shortestPath(2, 2));
+        assertAnswer(g, 2, 2, 0, d.shortestPathBidirectional(2, 2));
+        assertAnswer(g, 3, 1, TestGraphs.INF, d.shortestPathBidirectional(3, 1));
+    }
+
+    private static void assertAnswer(CSR g, int s, int t, int expected, ShortestPath answer){
+        assertEquals(s + " -> " + t, expected, answer.getDistance());
+        if(expected == TestGraphs.INF){
+            assertFalse(answer.isReachable());
+            return;
+        }
+        TestGraphs.assertPath(g, s, t, expected, answer.getPath());
+    }
+}
@@ -0,0 +1,52 @@
+package org.algos;
+
+import org.ds.UnionFind;
+import org.io.EdgeStream;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class StreamingComponentsTest {
+
+    // components of the stream against a union-find over the same edges, several batch sizes
+    @Test
+    public void matchesUnionFindOverAllEdges() throws IOException {
+        Random rnd = new Random(8);
+        for(int t = 0; t < 10; t++){
+            int n = 1 + rnd.nextInt(3000), m = rnd.nextInt(2 * n);
+            UnionFind reference = new UnionFind(n);
+            StringBuilder text = new StringBuilder().append(n).append('\n');
+            for(int i = 0; i < m; i++){
+                int u = 1 + rnd.nextInt(n), v = 1 + rnd.nextInt(n);
+                reference.union(u, v);
+                text.append(u).append(' ').append(v).append('\n');
+            }
+            StreamingComponents components = new StreamingComponents();
+            long read = new EdgeStream(1 + rnd.nextInt(500)).read(
+                    new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.US_ASCII)), components);
+            assertEquals(m, read);
+            assertEquals(m, components.getEdgeCount());
+            assertEquals(reference.getSetCount(), components.getComponentCount());
+            for(int i = 0; i < 100; i++){
+                int u = 1 + rnd.nextInt(n), v = 1 + rnd.nextInt(n);
+                assertEquals(reference.connected(u, v), components.connected(u, v));
+                assertEquals(components.component(u) == components.component(v), components.connected(u, v));
+            }
+        }
+    }
+
+    // directed edges count as undirected
+    @Test
+    public void directedEdgesGiveWeakComponents() throws IOException {
+        StreamingComponents components = new StreamingComponents();
+        new EdgeStream().read(new ByteArrayInputStream("5\n1 2\n3 2\n5 4\n".getBytes(StandardCharsets.US_ASCII)), components);
+        assertEquals(2, components.getComponentCount());
+        assertEquals(true, components.connected(1, 3));
+        assertEquals(false, components.connected(3, 4));
+    }
+}
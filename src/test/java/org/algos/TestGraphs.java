@@ -0,0 +1,93 @@
+package org.algos;
+
+import org.ds.CSR;
+import org.ds.ReadOnlyGraph;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/* Random inputs and textbook reference algorithms for the tests of this package */
+final class TestGraphs {
+    static final int INF = Integer.MAX_VALUE;
+
+    private TestGraphs(){}
+
+    /* m random arcs (self loops & parallel arcs included), weights in [minWeight, maxWeight] */
+    static CSR random(Random rnd, int n, int m, boolean directed, int minWeight, int maxWeight){
+        int[] from = new int[m], to = new int[m], w = new int[m];
+        for(int i = 0; i < m; i++){
+            from[i] = 1 + rnd.nextInt(n);
+            to[i] = 1 + rnd.nextInt(n);
+            w[i] = minWeight + rnd.nextInt(maxWeight - minWeight + 1);
+        }
+        return CSR.fromArrays(n, directed, from, to, w, m);
+    }
+
+    /* undirected width x height grid, id = row * width + column + 1 (see GridHeuristic) */
+    static CSR grid(Random rnd, int width, int height, int minWeight, int maxWeight){
+        int m = (width - 1) * height + width * (height - 1);
+        int[] from = new int[m], to = new int[m], w = new int[m];
+        int k = 0;
+        for(int r = 0; r < height; r++){
+            for(int c = 0; c < width; c++){
+                int v = r * width + c + 1;
+                if(c + 1 < width){ from[k] = v; to[k] = v + 1; w[k++] = minWeight + rnd.nextInt(maxWeight - minWeight + 1); }
+                if(r + 1 < height){ from[k] = v; to[k] = v + width; w[k++] = minWeight + rnd.nextInt(maxWeight - minWeight + 1); }
+            }
+        }
+        return CSR.fromArrays(width * height, false, from, to, w, m);
+    }
+
+    /* plain Bellman-Ford on longs: d(s, v) with INF for unreachable, null if a negative cycle is reachable from s */
+    static int[] bellmanFord(ReadOnlyGraph g, int s){
+        int n = g.getVertexCount();
+        long[] d = new long[n + 1];
+        java.util.Arrays.fill(d, Long.MAX_VALUE);
+        d[s] = 0;
+        for(int round = 0; round <= n; round++){
+            boolean changed = false;
+            for(int u = 1; u <= n; u++){
+                if(d[u] == Long.MAX_VALUE) continue;
+                for(int i = g.begin(u); i < g.end(u); i++){
+                    if(d[u] + g.weight(i) < d[g.target(i)]){
+                        d[g.target(i)] = d[u] + g.weight(i);
+                        changed = true;
+                    }
+                }
+            }
+            if(!changed) break;
+            if(round == n) return null; // still relaxing after |V| rounds
+        }
+        int[] dist = new int[n + 1];
+        for(int v = 0; v <= n; v++) dist[v] = d[v] == Long.MAX_VALUE ? INF : (int) d[v];
+        return dist;
+    }
+
+    // weight of the lightest arc u -> v, fails if there is none
+    static int arcWeight(ReadOnlyGraph g, int u, int v){
+        long best = Long.MAX_VALUE;
+        for(int i = g.begin(u); i < g.end(u); i++)
+            if(g.target(i) == v) best = Math.min(best, g.weight(i));
+        assertTrue("no arc " + u + " -> " + v, best != Long.MAX_VALUE);
+        return (int) best;
+    }
+
+    // path runs from s to t along arcs of g and has the given length
+    static void assertPath(ReadOnlyGraph g, int s, int t, int distance, int[] path){
+        assertEquals(s, path[0]);
+        assertEquals(t, path[path.length - 1]);
+        long length = 0;
+        for(int i = 0; i + 1 < path.length; i++) length += arcWeight(g, path[i], path[i + 1]);
+        assertEquals(distance, length);
+    }
+
+    // the cycle (in arc order, last vertex back to the first) exists in g and is negative
+    static void assertNegativeCycle(ReadOnlyGraph g, int[] cycle){
+        assertTrue("empty cycle", cycle.length > 0);
+        long length = 0;
+        for(int i = 0; i < cycle.length; i++) length += arcWeight(g, cycle[i], cycle[(i + 1) % cycle.length]);
+        assertTrue("cycle of length " + length, length < 0);
+    }
+}
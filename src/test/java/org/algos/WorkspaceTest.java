@@ -0,0 +1,76 @@
+package org.algos;
+
+import org.ds.CSR;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class WorkspaceTest {
+
+    // runs on the same thread share the workspace, a later run (on a larger graph, so the arrays grow) must not
+    // change what the getters of an earlier instance return
+    @Test
+    public void resultsBelongToTheirRun(){
+        Random rnd = new Random(7);
+        CSR small = TestGraphs.random(rnd, 50, 200, false, 1, 20);
+        CSR large = TestGraphs.random(rnd, 5000, 20000, true, 1, 20);
+
+        Prim prim = new Prim();
+        prim.setVerbose(false);
+        prim.MSTPrim(small, 1);
+        Dijkstra dijkstra = new Dijkstra(small, 1);
+        dijkstra.setVerbose(false);
+        dijkstra.dijkstra();
+        BellmannFord bf = new BellmannFord(small, 2);
+        bf.setVerbose(false);
+        bf.bellmannFord(2);
+        BreadthFirstSearch bfs = new BreadthFirstSearch(small);
+        bfs.setVerbose(false);
+        bfs.initTree(3);
+        bfs.buildTree();
+        DepthFirstSearch dfs = new DepthFirstSearch(small);
+        dfs.setVerbose(false);
+        dfs.depthSearch();
+        int[][] before = results(prim, dijkstra, bf, bfs, dfs, 50);
+
+        Prim prim2 = new Prim();
+        prim2.setVerbose(false);
+        prim2.MSTPrim(large, 7);
+        Dijkstra dijkstra2 = new Dijkstra(large, 9);
+        dijkstra2.setVerbose(false);
+        dijkstra2.dijkstra();
+        DepthFirstSearch dfs2 = new DepthFirstSearch(large);
+        dfs2.setVerbose(false);
+        dfs2.topSort();
+
+        int[][] after = results(prim, dijkstra, bf, bfs, dfs, 50);
+        for(int k = 0; k < before.length; k++) assertArrayEquals("result " + k, before[k], after[k]);
+        assertArrayEquals(TestGraphs.bellmanFord(small, 1), distances(dijkstra, 50));
+    }
+
+    private static int[][] results(Prim prim, Dijkstra dijkstra, BellmannFord bf, BreadthFirstSearch bfs, DepthFirstSearch dfs, int n){
+        int[][] r = new int[10][n + 1];
+        for(int v = 1; v <= n; v++){
+            r[0][v] = prim.getKey(v);
+            r[1][v] = prim.getParent(v);
+            r[2][v] = dijkstra.getDistance(v);
+            r[3][v] = dijkstra.getParent(v);
+            r[4][v] = bf.getDistance(v);
+            r[5][v] = bf.getParent(v);
+            r[6][v] = bfs.getDistance(v);
+            r[7][v] = bfs.getParent(v);
+            r[8][v] = dfs.getDiscovered(v);
+            r[9][v] = dfs.getFinished(v);
+        }
+        return r;
+    }
+
+    private static int[] distances(Dijkstra d, int n){
+        int[] dist = new int[n + 1];
+        dist[0] = TestGraphs.INF;
+        for(int v = 1; v <= n; v++) dist[v] = d.getDistance(v);
+        return dist;
+    }
+}
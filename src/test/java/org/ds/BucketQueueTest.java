@@ -0,0 +1,81 @@
+package org.ds;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BucketQueueTest {
+
+    @Test
+    public void dialPollsSmallestKey(){
+        Random rnd = new Random(71);
+        for(int t = 0; t < 200; t++){
+            int maxWeight = rnd.nextInt(50);
+            check(new DialQueue(100, maxWeight), rnd, 100, maxWeight);
+        }
+    }
+
+    @Test
+    public void radixHeapPollsSmallestKey(){
+        Random rnd = new Random(72);
+        for(int t = 0; t < 200; t++){
+            int maxWeight = t % 2 == 0 ? rnd.nextInt(50) : rnd.nextInt(Integer.MAX_VALUE / 4);
+            check(new RadixHeap(100), rnd, 100, maxWeight);
+        }
+    }
+
+    // a ring of maxWeight+1 buckets only holds keys up to the last polled key + maxWeight
+    @Test(expected = IllegalArgumentException.class)
+    public void dialRejectsKeysBeyondTheRing(){
+        DialQueue q = new DialQueue(10, 5);
+        q.offer(1, 3);
+        q.poll();
+        q.offer(2, 9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void radixHeapRejectsKeysBelowTheLastPolled(){
+        RadixHeap q = new RadixHeap(10);
+        q.offer(1, 7);
+        q.poll();
+        q.offer(2, 6);
+    }
+
+    /* Dijkstra-like use: keys in [last polled, last polled + maxWeight], some lowered again (decrease-key),
+     * the clear in between reuses the queue. A plain array is the reference.
+     */
+    private static void check(IntPriorityQueue q, Random rnd, int capacity, int maxWeight){
+        for(int round = 0; round < 2; round++){
+            q.clear();
+            long[] expected = new long[capacity]; // key of a queued id, -1 if not queued
+            Arrays.fill(expected, -1);
+            int queued = 0;
+            long last = 0;
+            for(int step = 0; step < 500; step++){
+                if(queued == 0 || rnd.nextInt(3) != 0){
+                    int id = rnd.nextInt(capacity);
+                    long key = last + rnd.nextInt((int) Math.min(maxWeight, Integer.MAX_VALUE - 1 - last) + 1); // stays an int
+                    q.offer(id, (int) key);
+                    if(expected[id] == -1) queued++;
+                    if(expected[id] == -1 || key < expected[id]) expected[id] = key;
+                    assertTrue(q.contains(id));
+                } else {
+                    long min = Long.MAX_VALUE;
+                    for(long k: expected) if(k != -1) min = Math.min(min, k);
+                    int id = q.poll();
+                    assertEquals(min, expected[id]);
+                    assertFalse(q.contains(id));
+                    expected[id] = -1;
+                    queued--;
+                    last = min;
+                }
+                assertEquals(queued == 0, q.isEmpty());
+            }
+        }
+    }
+}
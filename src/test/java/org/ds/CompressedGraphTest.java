@@ -0,0 +1,56 @@
+package org.ds;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class CompressedGraphTest {
+
+    @Test
+    public void decodesSortedNeighbourLists(){
+        Random rnd = new Random(3);
+        for(int t = 0; t < 200; t++){
+            int n = 1 + rnd.nextInt(300), m = rnd.nextInt(5 * n + 1);
+            int[] from = new int[m], to = new int[m], w = new int[m];
+            for(int i = 0; i < m; i++){
+                from[i] = 1 + rnd.nextInt(n);
+                to[i] = 1 + rnd.nextInt(n);
+                w[i] = rnd.nextInt(2001) - 1000;
+            }
+            CSR g = CSR.fromArrays(n, rnd.nextBoolean(), from, to, w, m);
+            boolean withWeights = rnd.nextBoolean();
+            CSR decoded = CompressedGraph.compress(g, withWeights).toCSR();
+            for(int v = 1; v <= n; v++){
+                assertArrayEquals("run " + t + ", vertex " + v, arcs(g, v, withWeights), arcs(decoded, v, withWeights));
+            }
+        }
+    }
+
+    // gaps of one byte and no degree in front: a path 1 -> 2 -> ... -> n takes one byte per arc
+    @Test
+    public void oneBytePerSmallGap(){
+        int n = 1000;
+        int[] from = new int[n - 1], to = new int[n - 1];
+        for(int i = 0; i < n - 1; i++){
+            from[i] = i + 1;
+            to[i] = i + 2;
+        }
+        CompressedGraph cg = CompressedGraph.compress(CSR.fromArrays(n, true, from, to, null, n - 1), false);
+        assertEquals(n - 1 + 4L * (n + 2), cg.getByteCount());
+    }
+
+    // (target, weight) of the arcs of v, sorted
+    private static long[] arcs(ReadOnlyGraph g, int v, boolean withWeights){
+        long[] arcs = new long[g.end(v) - g.begin(v)];
+        for(int i = 0; i < arcs.length; i++){
+            int arc = g.begin(v) + i;
+            arcs[i] = ((long) g.target(arc) << 32) | (withWeights ? g.weight(arc) & 0xffffffffL : 1);
+        }
+        Arrays.sort(arcs);
+        return arcs;
+    }
+}
@@ -0,0 +1,142 @@
+package org.ds;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EdgeIndexTest {
+
+    /* An edge list with swap-remove (the last edge moves into the freed position, as in Graph) next to its
+     * index: few vertices give many parallel edges, adds & removes make the table grow and shift entries back.
+     */
+    @Test
+    public void matchesEdgeListUnderUpdates(){
+        Random rnd = new Random(91);
+        for(int t = 0; t < 100; t++){
+            boolean directed = t % 2 == 0;
+            int n = 2 + rnd.nextInt(12);
+            EdgeIndex index = new EdgeIndex(1 + rnd.nextInt(8), directed);
+            List<int[]> edges = new ArrayList<int[]>(); // (u, v, weight) at its edge list position
+            for(int step = 0; step < 600; step++){
+                int op = rnd.nextInt(10);
+                if(op < 5 || edges.isEmpty()){
+                    int[] e = {1 + rnd.nextInt(n), 1 + rnd.nextInt(n), rnd.nextInt(20) - 5};
+                    index.add(e[0], e[1], edges.size(), e[2]);
+                    edges.add(e);
+                } else if(op < 9){
+                    int pos = rnd.nextInt(edges.size()), last = edges.size() - 1;
+                    int[] e = edges.get(pos);
+                    index.remove(e[0], e[1], pos);
+                    if(pos != last){
+                        int[] moved = edges.get(last);
+                        index.move(moved[0], moved[1], last, pos);
+                        edges.set(pos, moved);
+                    }
+                    edges.remove(last);
+                } else {
+                    int pos = rnd.nextInt(edges.size());
+                    int[] e = edges.get(pos);
+                    e[2] = rnd.nextInt(20) - 5;
+                    index.setWeight(e[0], e[1], pos, e[2]);
+                }
+                if(step % 10 == 0) check(index, edges, n, directed, "run " + t + ", step " + step);
+            }
+            check(index, edges, n, directed, "run " + t);
+        }
+    }
+
+    /* Pairs a, c with home slot 7 (the last of 8) and b with home 0 sit in slots 7, 0 and 1. Removing a frees
+     * slot 7: b is at its home and stays, c has to shift back across the end of the table into slot 7.
+     */
+    @Test
+    public void backwardShiftWrapsAround(){
+        EdgeIndex index = new EdgeIndex(4, true); // 8 slots, grows at the 5th pair
+        int[][] last = pairsWithHome(7, 8, 2);
+        int[] a = last[0], b = pairsWithHome(0, 8, 1)[0], c = last[1];
+        index.add(a[0], a[1], 0, 0);
+        index.add(b[0], b[1], 1, 0);
+        index.add(c[0], c[1], 2, 0);
+        index.remove(a[0], a[1], 0);
+        assertFalse(index.hasEdge(a[0], a[1]));
+        assertEquals(1, index.find(b[0], b[1]));
+        assertEquals(2, index.find(c[0], c[1]));
+        index.remove(b[0], b[1], 1);
+        assertEquals(2, index.find(c[0], c[1]));
+        assertEquals(1, index.size());
+    }
+
+    // the parallel edge with the smallest weight, also after it is removed, moved or reweighted
+    @Test
+    public void lightestParallelEdge(){
+        EdgeIndex index = new EdgeIndex(4, false);
+        index.add(3, 1, 0, 7);
+        index.add(1, 3, 1, 2);
+        index.add(3, 1, 2, 5);
+        assertEquals(1, index.find(3, 1));
+        assertEquals(2, index.getWeight(1, 3));
+        index.remove(1, 3, 1);
+        assertEquals(2, index.find(1, 3));
+        index.move(3, 1, 2, 1); // swap-remove: position 2 moved to 1
+        assertEquals(1, index.find(3, 1));
+        assertEquals(5, index.getWeight(3, 1));
+        index.setWeight(1, 3, 0, 1);
+        assertEquals(0, index.find(1, 3));
+        int[] all = index.findAll(1, 3);
+        Arrays.sort(all);
+        assertArrayEquals(new int[]{0, 1}, all);
+    }
+
+    private static void check(EdgeIndex index, List<int[]> edges, int n, boolean directed, String what){
+        int pairs = 0;
+        for(int u = 1; u <= n; u++){
+            for(int v = 1; v <= n; v++){
+                List<Integer> expected = new ArrayList<Integer>();
+                int lightest = WeightMatrix.INF;
+                for(int i = 0; i < edges.size(); i++){
+                    int[] e = edges.get(i);
+                    if((e[0] == u && e[1] == v) || (!directed && e[0] == v && e[1] == u)){
+                        expected.add(i);
+                        lightest = Math.min(lightest, e[2]);
+                    }
+                }
+                if(!expected.isEmpty() && (directed || u <= v)) pairs++;
+                String pair = what + ", pair " + u + " " + v;
+                assertEquals(pair, !expected.isEmpty(), index.hasEdge(u, v));
+                assertEquals(pair, lightest, index.getWeight(u, v));
+                int found = index.find(u, v);
+                if(expected.isEmpty()) assertEquals(pair, -1, found);
+                else {
+                    assertTrue(pair, expected.contains(found));
+                    assertEquals(pair, lightest, edges.get(found)[2]);
+                }
+                int[] all = index.findAll(u, v);
+                Arrays.sort(all);
+                int[] expectedAll = new int[expected.size()];
+                for(int i = 0; i < expectedAll.length; i++) expectedAll[i] = expected.get(i);
+                assertArrayEquals(pair, expectedAll, all);
+            }
+        }
+        assertEquals(what, pairs, index.size());
+    }
+
+    // directed pairs whose home slot in a table of the given size is home (same hash as EdgeIndex)
+    private static int[][] pairsWithHome(int home, int slots, int count){
+        int[][] pairs = new int[count][];
+        int found = 0;
+        for(int u = 1; found < count; u++){
+            for(int v = 1; v <= 100 && found < count; v++){
+                long key = ((long) u << 32) | v;
+                if(((int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & (slots - 1)) == home) pairs[found++] = new int[]{u, v};
+            }
+        }
+        return pairs;
+    }
+}
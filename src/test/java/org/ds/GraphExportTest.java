@@ -0,0 +1,146 @@
+package org.ds;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class GraphExportTest {
+
+    // 1 -> 2 (5), 2 -> 3 (no weight), 3 -> 1 (-2), self loop 2 -> 2 (7), vertex 4 isolated
+    private static Graph small(boolean directed){
+        Graph g = new Graph(4, directed);
+        g.addEdge(1, 2, 5);
+        g.addEdge(2, 3, null);
+        g.addEdge(3, 1, -2);
+        g.addEdge(2, 2, 7);
+        return g;
+    }
+
+    @Test
+    public void dot() throws IOException {
+        assertEquals("digraph {\n\t1 -> 2;\n\t2 -> 3;\n\t3 -> 1;\n\t2 -> 2;\n}", write(small(true), "dot", true));
+        assertEquals("graph {\n\t1 -- 2;\n\t2 -- 3;\n\t3 -- 1;\n\t2 -- 2;\n}", write(small(false), "dot", false));
+        assertEquals(write(small(true), "dot", true), small(true).convertDOT(true));
+    }
+
+    @Test
+    public void edgeList() throws IOException {
+        assertEquals("Edge 1\tv1 -(5)-> v2\nEdge 2\tv2 -(null)-> v3\nEdge 3\tv3 -(-2)-> v1\nEdge 4\tv2 -(7)-> v2\n",
+                write(small(true), "edges", true));
+        assertEquals("Edge 1\tv1 -(5)- v2\nEdge 2\tv2 -(null)- v3\nEdge 3\tv3 -(-2)- v1\nEdge 4\tv2 -(7)- v2\n",
+                write(small(false), "edges", false));
+        assertEquals("4\n1 5 2\n2 3\n3 -2 1\n2 7 2\n", write(small(true), "export", true));
+    }
+
+    @Test
+    public void adjacency() throws IOException {
+        assertEquals("\tv1\tv2\tv3\tv4\t\n"
+                + "v1\t0\t1\t1\t0\t\n"
+                + "v2\t1\t1\t1\t0\t\n"
+                + "v3\t1\t1\t0\t0\t\n"
+                + "v4\t0\t0\t0\t0\t\n", write(small(true), "adjMatrix", true));
+        assertEquals("\te1\te2\te3\te4\t\n"
+                + "v1\t1\t0\t1\t0\t\n"
+                + "v2\t1\t1\t0\t1\t\n"
+                + "v3\t0\t1\t1\t0\t\n"
+                + "v4\t0\t0\t0\t0\t\n", write(small(true), "incMatrix", true));
+        assertEquals("\n[V1]: V1->V2->\n[V2]: V2->V3->V2->\n[V3]: V3->V1->\n[V4]: ", write(small(true), "adjList", true));
+        assertEquals("\n[V1]: V1->V2->V3->\n[V2]: V2->V1->V3->V2->V2->\n[V3]: V3->V2->V1->\n[V4]: ",
+                write(small(false), "adjList", false));
+    }
+
+    // the streamed text is the text the String concatenation of the print methods gave before
+    @Test
+    public void matchesTheStringBuildingOutput() throws IOException {
+        Random rnd = new Random(13);
+        for(int t = 0; t < 20; t++){
+            boolean directed = t % 2 == 0;
+            int n = 1 + rnd.nextInt(30), m = rnd.nextInt(60);
+            Graph g = new Graph(n, directed);
+            for(int i = 0; i < m; i++)
+                g.addEdge(1 + rnd.nextInt(n), 1 + rnd.nextInt(n), rnd.nextInt(4) == 0 ? null : rnd.nextInt(200) - 50);
+            assertEquals(oldDOT(g, directed), write(g, "dot", directed));
+            assertEquals(oldEdgeList(g, directed), write(g, "edges", directed));
+            assertEquals(oldAdjMatrix(g), write(g, "adjMatrix", directed));
+            assertEquals(oldIncMatrix(g), write(g, "incMatrix", directed));
+            assertEquals(oldAdjList(g), write(g, "adjList", directed));
+        }
+    }
+
+    private static String write(Graph g, String format, boolean directed) throws IOException {
+        StringBuilder out = new StringBuilder();
+        switch (format) {
+            case "dot": g.writeDOT(directed, out); break;
+            case "edges": g.writeEdgeList(directed, out); break;
+            case "export": g.exportEdgeList(out); break;
+            case "adjMatrix": g.writeAdjMatrix(out); break;
+            case "incMatrix": g.writeIncMatrix(out); break;
+            case "adjList": g.writeAdjList(out); break;
+        }
+        return out.toString();
+    }
+
+    /* The print methods as they were before the exporters, System.out.println(x) -> x + "\n" */
+
+    private static String oldDOT(Graph g, boolean isDirected){
+        String dotFormat = isDirected ? "digraph {\n" : "graph {\n";
+        for(Edge e: g.returnEdgeList())
+            dotFormat = dotFormat + "\t" + e.getFromV().getId() + (isDirected ? " -> " : " -- ") + e.getToV().getId() + ";\n";
+        return dotFormat + "}";
+    }
+
+    private static String oldEdgeList(Graph g, boolean directed){
+        String arrow = directed ? "-> " : "- ";
+        String text = "";
+        for(Edge e: g.returnEdgeList())
+            text = text + "Edge " + e.getId() + "\t"
+                    + "v" + e.getFromV().getId() + " -(" + e.getWeight() + ")" + arrow + "v" + e.getToV().getId() + "\n";
+        return text;
+    }
+
+    private static String oldAdjMatrix(Graph g){
+        int[][] adjMat = g.exposeAdjMatrix();
+        String colIndexes = "";
+        for(int i = 1; i < g.getAdjColSize(); i++)
+            colIndexes = colIndexes + "v" + i + "\t";
+        String text = "\t" + colIndexes + "\n";
+        for(int i = 1; i < g.getAdjRowSize(); i++){
+            String colValues = "";
+            for(int j = 1; j < g.getAdjColSize(); j++)
+                colValues = colValues + adjMat[i][j] + "\t";
+            text = text + "v" + i + "\t" + colValues + "\n";
+        }
+        return text;
+    }
+
+    private static String oldIncMatrix(Graph g){
+        int[][] incMat = g.exposeIncMatrix();
+        String colIndexes = "";
+        for(int i = 1; i < incMat[0].length; i++)
+            colIndexes = colIndexes + "e" + i + "\t";
+        String text = "\t" + colIndexes + "\n";
+        for(int i = 1; i < incMat.length; i++){
+            String colValues = "";
+            for(int j = 1; j < incMat[i].length; j++)
+                colValues = colValues + incMat[i][j] + "\t";
+            text = text + "v" + i + "\t" + colValues + "\n";
+        }
+        return text;
+    }
+
+    private static String oldAdjList(Graph g){
+        LinkedList<Vertex>[] adjList = g.exposeAdjList();
+        String text = "";
+        for(int i = 1; i < adjList.length; i++){
+            text = text + "\n[V" + i + "]: ";
+            if(adjList[i] != null)
+                for(Vertex v: adjList[i])
+                    text = text + "V" + v.getId() + "->";
+        }
+        return text;
+    }
+}
@@ -0,0 +1,133 @@
+package org.ds;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/* Random updates on a graph with every representation built, after each step all incrementally kept
+ * representations must equal the ones of a graph rebuilt from the resulting edge list.
+ */
+public class GraphUpdateTest {
+    private static final int STEPS = 300;
+
+    @Test
+    public void directedWeighted(){ run(1, true, true); }
+
+    @Test
+    public void undirectedWeighted(){ run(2, false, true); }
+
+    @Test
+    public void directedUnweighted(){ run(3, true, false); }
+
+    @Test
+    public void undirectedUnweighted(){ run(4, false, false); }
+
+    private void run(long seed, boolean directed, boolean weighted){
+        Random rnd = new Random(seed);
+        Graph g = new Graph(6, directed);
+        g.createDataStructs();
+        for(int step = 0; step < STEPS; step++){
+            int n = g.getVertexCount();
+            int u = 1 + rnd.nextInt(n), v = 1 + rnd.nextInt(n); // self loops & parallel edges included
+            int op = rnd.nextInt(10);
+            if(op < 4) g.addEdge(u, v, weight(rnd, weighted));
+            else if(op < 6) g.removeEdge(u, v);
+            else if(op < 7) removeAnyEdge(g, rnd);
+            else if(op < 8 && weighted) g.updateWeight(u, v, weight(rnd, true));
+            else if(op < 9 && n < 30) g.addVertex();
+            else g.applyBatch(randomBatch(g, rnd, weighted));
+            assertSameAsRebuild(g, "step " + step);
+        }
+    }
+
+    private static Integer weight(Random rnd, boolean weighted){
+        return weighted ? rnd.nextInt(20) - 5 : null;
+    }
+
+    // removes an existing edge, so the backward shift in the edge index & the swap in the edge list get exercised
+    private static void removeAnyEdge(Graph g, Random rnd){
+        List<Edge> edges = g.returnEdgeList();
+        if(edges.isEmpty()) return;
+        Edge e = edges.get(rnd.nextInt(edges.size()));
+        g.removeEdge(e.getFromV().getId(), e.getToV().getId());
+    }
+
+    // small batches keep the adjacency list, large ones drop it for a rebuild
+    private static GraphUpdate randomBatch(Graph g, Random rnd, boolean weighted){
+        GraphUpdate batch = new GraphUpdate();
+        int size = rnd.nextBoolean() ? 1 + rnd.nextInt(3) : 10 + rnd.nextInt(30);
+        int n = g.getVertexCount();
+        for(int i = 0; i < size; i++){
+            int u = 1 + rnd.nextInt(n), v = 1 + rnd.nextInt(n);
+            switch (rnd.nextInt(4)) {
+                case 0: batch.addEdge(u, v, weight(rnd, weighted)); break;
+                case 1: batch.removeEdge(u, v); break;
+                case 2: if(weighted) batch.updateWeight(u, v, weight(rnd, true)); break;
+                default: if(n < 30){ batch.addVertex(); n++; } break;
+            }
+        }
+        return batch;
+    }
+
+    private static void assertSameAsRebuild(Graph g, String step){
+        int n = g.getVertexCount();
+        Graph r = new Graph(n, g.isDirected());
+        for(Edge e: g.returnEdgeList())
+            r.addEdge(e.getFromV().getId(), e.getToV().getId(), e.getId(), e.isDirected(), e.getWeight());
+        r.createDataStructs();
+
+        int[][] adj = g.exposeAdjMatrix(), rAdj = r.exposeAdjMatrix();
+        Integer[][] w = g.exposeWeightAdjMatrix(), rW = r.exposeWeightAdjMatrix();
+        BitMatrix bits = g.exposeAdjBitMatrix(), rBits = r.exposeAdjBitMatrix();
+        WeightMatrix mat = g.exposeWeightMatrix(), rMat = r.exposeWeightMatrix();
+        assertEquals(step, r.getAdjRowSize(), g.getAdjRowSize());
+        for(int i = 1; i <= n; i++){
+            assertArrayEquals(step + " adjacency row " + i, rAdj[i], adj[i]);
+            assertArrayEquals(step + " weight row " + i, rW[i], w[i]);
+            for(int j = 1; j <= n; j++){
+                String at = step + " (" + i + "," + j + ")";
+                assertEquals(at, rBits.get(i, j), bits.get(i, j));
+                assertEquals(at, rMat.get(i, j), mat.get(i, j));
+                assertEquals(at, r.hasEdge(i, j), g.hasEdge(i, j));
+                assertEquals(at, r.getWeight(i, j), g.getWeight(i, j));
+                int[] ids = g.findEdgeIds(i, j), rIds = r.findEdgeIds(i, j);
+                Arrays.sort(ids);
+                Arrays.sort(rIds);
+                assertArrayEquals(at, rIds, ids);
+            }
+        }
+        assertSameAdjList(g.exposeAdjList(), r.exposeAdjList(), step);
+    }
+
+    // same head & same neighbour copies per vertex, the order of the copies may differ
+    private static void assertSameAdjList(LinkedList<Vertex>[] list, LinkedList<Vertex>[] rebuilt, String step){
+        assertEquals(step, rebuilt.length, list.length);
+        for(int v = 1; v < list.length; v++){
+            if(rebuilt[v] == null){
+                assertNull(step + " list of " + v, list[v]);
+                continue;
+            }
+            assertNotNull(step + " list of " + v, list[v]);
+            assertEquals(step, rebuilt[v].getFirst().getId(), list[v].getFirst().getId());
+            assertEquals(step + " neighbours of " + v, copies(rebuilt[v]), copies(list[v]));
+        }
+    }
+
+    private static List<String> copies(LinkedList<Vertex> list){
+        List<String> copies = new ArrayList<String>();
+        for(Vertex v: list.subList(1, list.size()))
+            copies.add(v.getId() + "/" + v.getEdge().getId());
+        Collections.sort(copies);
+        return copies;
+    }
+}
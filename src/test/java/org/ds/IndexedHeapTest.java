@@ -0,0 +1,83 @@
+package org.ds;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IndexedHeapTest {
+
+    // random inserts, decrease-keys & extracts for several arities, a plain array is the reference
+    @Test
+    public void extractsInKeyOrder(){
+        Random rnd = new Random(81);
+        for(int t = 0; t < 200; t++){
+            int capacity = 1 + rnd.nextInt(200);
+            IndexedHeap heap = new IndexedHeap(capacity, 2 + rnd.nextInt(7));
+            long[] expected = new long[capacity]; // key of an id in the heap, -1 if absent
+            Arrays.fill(expected, -1);
+            int size = 0;
+            for(int step = 0; step < 1000; step++){
+                int id = rnd.nextInt(capacity);
+                int op = rnd.nextInt(3);
+                if(op == 0 && expected[id] == -1){
+                    long key = rnd.nextInt(1000);
+                    heap.insert(id, key);
+                    expected[id] = key;
+                    size++;
+                } else if(op == 1 && expected[id] != -1){
+                    long key = rnd.nextInt(1000);
+                    heap.decreaseKey(id, key); // larger keys are ignored
+                    expected[id] = Math.min(expected[id], key);
+                } else if(op == 2 && size > 0){
+                    long min = Long.MAX_VALUE;
+                    for(long k: expected) if(k != -1) min = Math.min(min, k);
+                    assertEquals(min, heap.peekKey());
+                    int extracted = heap.extractMin();
+                    assertEquals(min, expected[extracted]);
+                    assertFalse(heap.contains(extracted));
+                    expected[extracted] = -1;
+                    size--;
+                }
+                assertEquals(size, heap.size());
+                if(expected[id] != -1) assertEquals(expected[id], heap.getKey(id));
+                assertEquals(expected[id] != -1, heap.contains(id));
+            }
+        }
+    }
+
+    // IntPriorityQueue view: equal keys come out by ascending id
+    @Test
+    public void offerBreaksTiesById(){
+        IndexedHeap heap = new IndexedHeap(10, 4);
+        heap.offer(7, 5);
+        heap.offer(3, 5);
+        heap.offer(9, 2);
+        heap.offer(3, 8); // higher key, ignored
+        heap.offer(5, 5);
+        assertEquals(9, heap.poll());
+        assertEquals(3, heap.poll());
+        assertEquals(5, heap.poll());
+        assertEquals(7, heap.poll());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void clearAndGrowKeepTheHeapUsable(){
+        IndexedHeap heap = new IndexedHeap(4, 4);
+        heap.insert(1, 10);
+        heap.insert(2, 20);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(1));
+        heap.ensureCapacity(100);
+        heap.insert(99, 3);
+        heap.insert(1, 4);
+        assertEquals(99, heap.extractMin());
+        assertEquals(1, heap.extractMin());
+    }
+}
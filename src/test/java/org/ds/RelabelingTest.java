@@ -0,0 +1,138 @@
+package org.ds;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RelabelingTest {
+
+    @Test
+    public void bfsIsABijectionThatRoundTrips(){
+        Random rnd = new Random(1);
+        for(int t = 0; t < 20; t++){
+            CSR g = random(rnd, t % 2 == 0);
+            Relabeling r = Relabeling.bfs(g);
+            assertRoundTrip(g, r);
+            assertEquals(1, r.toOld(1)); // the first component starts at the smallest id
+        }
+    }
+
+    @Test
+    public void rcmIsABijectionThatRoundTrips(){
+        Random rnd = new Random(2);
+        for(int t = 0; t < 20; t++){
+            CSR g = random(rnd, t % 2 == 0);
+            assertRoundTrip(g, Relabeling.rcm(g));
+        }
+    }
+
+    @Test
+    public void byDegreeIsABijectionThatRoundTrips(){
+        Random rnd = new Random(3);
+        for(int t = 0; t < 20; t++){
+            CSR g = random(rnd, t % 2 == 0);
+            Relabeling r = Relabeling.byDegree(g);
+            assertRoundTrip(g, r);
+            for(int u = 2; u <= g.getVertexCount(); u++)
+                assertTrue(g.degree(r.toOld(u - 1)) >= g.degree(r.toOld(u)));
+        }
+    }
+
+    @Test
+    public void randomIsABijectionThatRoundTrips(){
+        Random rnd = new Random(4);
+        for(int t = 0; t < 20; t++){
+            CSR g = random(rnd, t % 2 == 0);
+            assertRoundTrip(g, Relabeling.random(g.getVertexCount(), rnd));
+        }
+    }
+
+    /* - toOld is a permutation of 1..n and toNew its inverse
+     * - apply() keeps every arc with its weight and edge id
+     * - BFS results on the relabeled graph, translated by toOriginal, are the results on g
+     */
+    private static void assertRoundTrip(CSR g, Relabeling r){
+        int n = g.getVertexCount();
+        boolean[] seen = new boolean[n+1];
+        for(int u = 1; u <= n; u++){
+            int old = r.toOld(u);
+            assertTrue(old >= 1 && old <= n);
+            assertTrue("id " + old + " given twice", !seen[old]);
+            seen[old] = true;
+            assertEquals(u, r.toNew(old));
+        }
+        assertEquals(n + 1, r.getToNew().length);
+        assertEquals(n + 1, r.getToOld().length);
+
+        CSR h = r.apply(g);
+        assertEquals(g.isDirected(), h.isDirected());
+        assertEquals(g.getArcCount(), h.getArcCount());
+        assertEquals(arcs(g, null), arcs(h, r));
+
+        for(int s = 1; s <= n; s += 7){
+            int[][] expected = bfs(g, s);
+            int[][] relabeled = bfs(h, r.toNew(s));
+            int[] dist = r.toOriginal(relabeled[0], false);
+            int[] parent = r.toOriginal(relabeled[1], true);
+            assertArrayEquals(expected[0], dist);
+            for(int v = 1; v <= n; v++){
+                if(v == s || dist[v] < 0) assertEquals(0, parent[v]);
+                else assertEquals(dist[v] - 1, dist[parent[v]]);
+            }
+        }
+    }
+
+    // arcs as sorted "from to weight id" in original ids
+    private static List<String> arcs(CSR g, Relabeling r){
+        List<String> arcs = new ArrayList<>();
+        for(int u = 1; u <= g.getVertexCount(); u++)
+            for(int i = g.begin(u); i < g.end(u); i++){
+                int from = r == null ? u : r.toOld(u), to = r == null ? g.target(i) : r.toOld(g.target(i));
+                arcs.add(from + " " + to + " " + g.weight(i) + " " + g.edgeId(i));
+            }
+        String[] sorted = arcs.toArray(new String[0]);
+        Arrays.sort(sorted);
+        return Arrays.asList(sorted);
+    }
+
+    // {hop distance (-1 unreached), parent (0 for s and unreached)}
+    private static int[][] bfs(CSR g, int s){
+        int n = g.getVertexCount();
+        int[] dist = new int[n+1], parent = new int[n+1], queue = new int[n];
+        Arrays.fill(dist, -1);
+        dist[0] = 0;
+        dist[s] = 0;
+        int head = 0, tail = 0;
+        queue[tail++] = s;
+        while(head < tail){
+            int u = queue[head++];
+            for(int i = g.begin(u); i < g.end(u); i++){
+                int v = g.target(i);
+                if(dist[v] >= 0) continue;
+                dist[v] = dist[u] + 1;
+                parent[v] = u;
+                queue[tail++] = v;
+            }
+        }
+        return new int[][]{dist, parent};
+    }
+
+    // sparse enough to leave several components and isolated vertices
+    private static CSR random(Random rnd, boolean directed){
+        int n = 1 + rnd.nextInt(200), m = rnd.nextInt(n + n / 2);
+        int[] from = new int[m], to = new int[m], w = new int[m];
+        for(int i = 0; i < m; i++){
+            from[i] = 1 + rnd.nextInt(n);
+            to[i] = 1 + rnd.nextInt(n);
+            w[i] = 1 + rnd.nextInt(100);
+        }
+        return CSR.fromArrays(n, directed, from, to, w, m);
+    }
+}
@@ -0,0 +1,34 @@
+package org.io;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.io.Fixtures.edge;
+import static org.io.Fixtures.edges;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class DelimitedLoaderTest {
+
+    // CSV header skipped, CRLF, comment & blank lines, 0-based ids shifted to 1-based
+    @Test
+    public void zeroBasedCsv() throws IOException {
+        EdgeArrays e = new DelimitedLoader().load(Fixtures.file("zero-based.csv"));
+        assertNull(e.getDirected());
+        assertEquals(3, e.getVertexCount());
+        assertArrayEquals(new int[][]{edge(1, 2, 5), edge(2, 3, -3)}, edges(e));
+        assertEquals(3, e.getErrorCount());
+        assertEquals("line 6: more than 3 columns", e.getErrors().get(0));
+        assertEquals("line 7: unexpected character 'x'", e.getErrors().get(1));
+        assertEquals("line 8: number out of range", e.getErrors().get(2));
+    }
+
+    @Test
+    public void tabSeparated() throws IOException {
+        EdgeArrays e = new DelimitedLoader().load(Fixtures.file("sniff-delimited"));
+        assertEquals(3, e.getVertexCount());
+        assertArrayEquals(new int[][]{edge(1, 2), edge(2, 3)}, edges(e));
+    }
+}
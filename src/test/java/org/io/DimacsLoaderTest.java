@@ -0,0 +1,43 @@
+package org.io;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.io.Fixtures.edge;
+import static org.io.Fixtures.edges;
+import static org.io.Fixtures.errorLines;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DimacsLoaderTest {
+
+    // CRLF lines and comments, bad lines are reported and skipped: id out of range, letter, int overflow
+    @Test
+    public void shortestPathFile() throws IOException {
+        EdgeArrays e = new DimacsLoader().load(Fixtures.file("road.gr"));
+        assertTrue(e.getDirected());
+        assertEquals(4, e.getVertexCount());
+        assertArrayEquals(new int[][]{edge(1, 2, 7), edge(2, 3, -2), edge(3, 4, Integer.MAX_VALUE)}, edges(e));
+        assertArrayEquals(new int[]{8, 9, 10}, errorLines(e));
+        assertEquals("line 8: vertex id out of range 1..4", e.getErrors().get(0));
+        assertEquals("line 9: unexpected character 'x'", e.getErrors().get(1));
+        assertEquals("line 10: number out of range", e.getErrors().get(2));
+    }
+
+    @Test
+    public void edgeFileIsUndirected() throws IOException {
+        EdgeArrays e = new DimacsLoader().load(Fixtures.file("triangle.col"));
+        assertFalse(e.getDirected());
+        assertFalse(e.hasWeights());
+        assertArrayEquals(new int[][]{edge(1, 2), edge(2, 3)}, edges(e));
+    }
+
+    // an edge list has no problem line
+    @Test(expected = IOException.class)
+    public void rejectsFileWithoutProblemLine() throws IOException {
+        new DimacsLoader().load(Fixtures.file("sniff-edgelist"));
+    }
+}
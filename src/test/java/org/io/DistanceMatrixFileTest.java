@@ -0,0 +1,48 @@
+package org.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class DistanceMatrixFileTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void rowsSurviveCloseAndOpen() throws IOException {
+        File f = tmp.newFile();
+        DistanceMatrixFile out = DistanceMatrixFile.create(f, 3);
+        out.writeRow(1, new int[]{0, 0, 4, Integer.MAX_VALUE});
+        out.writeRow(2, new int[]{0, -2, 0, 7});
+        out.writeRow(3, new int[]{0, 1, 2, 0});
+        out.close();
+
+        DistanceMatrixFile in = DistanceMatrixFile.open(f);
+        int[] row = new int[4];
+        in.readRow(2, row);
+        assertArrayEquals(new int[]{0, -2, 0, 7}, row);
+        assertEquals(Integer.MAX_VALUE, in.get(1, 3));
+        assertEquals(2, in.get(3, 2));
+        in.close();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void readAfterCloseFails() throws IOException {
+        DistanceMatrixFile m = DistanceMatrixFile.create(tmp.newFile(), 2);
+        m.close();
+        m.get(1, 1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void writeAfterCloseFails() throws IOException {
+        DistanceMatrixFile m = DistanceMatrixFile.create(tmp.newFile(), 2);
+        m.close();
+        m.writeRow(1, new int[3]);
+    }
+}
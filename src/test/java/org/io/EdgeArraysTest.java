@@ -0,0 +1,60 @@
+package org.io;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class EdgeArraysTest {
+
+    // the body cut into chunks at line boundaries & merged equals the body parsed in one piece
+    @Test
+    public void mergedChunksEqualOneChunk(){
+        Random rnd = new Random(3);
+        for(int t = 0; t < 50; t++){
+            StringBuilder body = new StringBuilder();
+            int lines = rnd.nextInt(400);
+            for(int i = 0; i < lines; i++){
+                switch (rnd.nextInt(8)) {
+                    case 0: body.append("oops\n"); break;          // error
+                    case 1: body.append(rnd.nextInt(30)).append(" 99999\n"); break; // out of range
+                    case 2: body.append('\n'); break;
+                    case 3: body.append(1 + rnd.nextInt(20)).append(' ').append(1 + rnd.nextInt(20)).append('\n'); break;
+                    default: body.append(1 + rnd.nextInt(20)).append(' ').append(rnd.nextInt(50) - 10).append(' ')
+                            .append(1 + rnd.nextInt(20)).append('\n');
+                }
+            }
+            ByteBuffer buf = ByteBuffer.wrap(body.toString().getBytes(StandardCharsets.US_ASCII));
+            List<EdgeArrays> whole = new ArrayList<EdgeArrays>();
+            whole.add(EdgeListParser.parseChunk(buf, 0, buf.limit(), 20));
+            EdgeArrays expected = EdgeArrays.merge(20, 1, whole);
+            assertSame(whole.get(0), expected); // a single chunk is not copied
+
+            List<EdgeArrays> chunks = new ArrayList<EdgeArrays>();
+            int start = 0;
+            while(start < buf.limit()){
+                int end = Math.min(buf.limit(), start + rnd.nextInt(200));
+                end = Math.min(buf.limit(), EdgeListParser.lineEnd(buf, end, buf.limit()) + 1);
+                chunks.add(EdgeListParser.parseChunk(buf, start, end, 20));
+                start = end;
+            }
+            EdgeArrays merged = EdgeArrays.merge(20, 1, chunks);
+            assertEquals(expected.size(), merged.size());
+            assertArrayEquals(Arrays.copyOf(expected.getFrom(), expected.size()), Arrays.copyOf(merged.getFrom(), merged.size()));
+            assertArrayEquals(Arrays.copyOf(expected.getTo(), expected.size()), Arrays.copyOf(merged.getTo(), merged.size()));
+            assertArrayEquals(Arrays.copyOf(expected.getWeight(), expected.size()), Arrays.copyOf(merged.getWeight(), merged.size()));
+            assertEquals(expected.hasWeights(), merged.hasWeights());
+            assertEquals(expected.getErrorCount(), merged.getErrorCount());
+            assertEquals(expected.getErrors(), merged.getErrors());
+            assertEquals(expected.lines, merged.lines);
+        }
+    }
+}
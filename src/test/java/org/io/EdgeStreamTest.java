@@ -0,0 +1,182 @@
+package org.io;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class EdgeStreamTest {
+
+    @Test
+    public void gzipAndPlainInputGiveTheSameEdges() throws IOException {
+        Random rnd = new Random(12);
+        String text = edgeList(rnd, 50, 20000, true);
+        Recorder plain = new Recorder();
+        Recorder gzip = new Recorder();
+        assertEquals(20000, new EdgeStream().read(plain(text), plain));
+        assertEquals(20000, new EdgeStream().read(gzip(text), gzip));
+        assertEquals(50, gzip.vertexCount);
+        assertEdges(plain.edges, gzip.edges);
+        assertEquals(1, gzip.ends);
+    }
+
+    @Test
+    public void decompressedLeavesPlainBytesAlone() throws IOException {
+        InputStream in = EdgeStream.decompressed(plain("3\n1 2\n"));
+        byte[] bytes = new byte[6];
+        assertEquals(6, in.read(bytes));
+        assertArrayEquals("3\n1 2\n".getBytes(StandardCharsets.US_ASCII), bytes);
+    }
+
+    // every batch holds at most batchSize edges, ids run on without gaps, whatever the line lengths
+    @Test
+    public void batchesStayWithinTheBatchSize() throws IOException {
+        Random rnd = new Random(5);
+        String text = edgeList(rnd, 100000, 30000, true);
+        List<int[]> expected = null;
+        for(int batchSize: new int[]{1, 2, 3, 7, 100, 1 << 16}){
+            Recorder r = new Recorder();
+            assertEquals(30000, new EdgeStream(batchSize).read(plain(text), r));
+            assertTrue(r.maxBatch <= batchSize);
+            assertTrue(r.minBatch > 0);
+            assertEquals(30001, r.nextId);
+            if(expected == null) expected = r.edges;
+            else assertEdges(expected, r.edges);
+        }
+    }
+
+    // the input is several times the read buffer, lines are cut at every buffer end
+    @Test
+    public void linesCutAtTheBufferEndAreFinished() throws IOException {
+        Random rnd = new Random(9);
+        for(int t = 0; t < 5; t++){
+            int m = EdgeStream.BUFFER_SIZE / 4 + rnd.nextInt(EdgeStream.BUFFER_SIZE);
+            List<int[]> edges = new ArrayList<>();
+            StringBuilder text = new StringBuilder("1000\n");
+            for(int i = 0; i < m; i++){
+                int[] e = {1 + rnd.nextInt(1000), 1 + rnd.nextInt(1000), rnd.nextInt(100000)};
+                edges.add(e);
+                text.append(e[0]).append(' ').append(e[2]).append(' ').append(e[1]).append('\n');
+            }
+            Recorder r = new Recorder();
+            assertEquals(m, new EdgeStream(1000).read(plain(text.toString()), r));
+            assertEdges(edges, r.edges);
+        }
+    }
+
+    @Test
+    public void unweightedLinesCarryNoWeight() throws IOException {
+        Recorder r = new Recorder();
+        assertEquals(2, new EdgeStream().read(plain("3\n1 2\n2 3"), r));
+        assertArrayEquals(new int[]{1, 2, EdgeArrays.NO_WEIGHT}, r.edges.get(0));
+        assertArrayEquals(new int[]{2, 3, EdgeArrays.NO_WEIGHT}, r.edges.get(1));
+    }
+
+    @Test
+    public void malformedLinesAreSkipped() throws IOException {
+        Recorder r = new Recorder();
+        assertEquals(2, new EdgeStream().read(plain("3\n1 2\nx y\n2 3\n"), r));
+        assertEquals(1, r.ends);
+    }
+
+    @Test(expected = IOException.class)
+    public void missingVertexCountIsRejected() throws IOException {
+        new EdgeStream().read(plain("x\n1 2\n"), new Recorder());
+    }
+
+    // a stream failing after begin() ends with abort() instead of end()
+    @Test
+    public void failingStreamAbortsTheSink() {
+        Recorder r = new Recorder();
+        try {
+            new EdgeStream(10).read(failing(edgeList(new Random(3), 10, 50000, false)), r);
+            fail();
+        } catch (IOException e){
+            assertEquals("disk gone", e.getMessage());
+        }
+        assertEquals(10, r.vertexCount);
+        assertEquals(0, r.ends);
+        assertEquals(1, r.aborts);
+    }
+
+    static void assertEdges(List<int[]> expected, List<int[]> actual){
+        assertEquals(expected.size(), actual.size());
+        for(int i = 0; i < expected.size(); i++)
+            assertArrayEquals(expected.get(i), actual.get(i));
+    }
+
+    // "n\n" then m lines "u v" or "u w v"
+    static String edgeList(Random rnd, int n, int m, boolean weighted){
+        StringBuilder text = new StringBuilder().append(n).append('\n');
+        for(int i = 0; i < m; i++){
+            text.append(1 + rnd.nextInt(n)).append(' ');
+            if(weighted) text.append(rnd.nextInt(1000)).append(' ');
+            text.append(1 + rnd.nextInt(n)).append('\n');
+        }
+        return text.toString();
+    }
+
+    static InputStream plain(String text){
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static InputStream gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.US_ASCII));
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+
+    // hands out the first half of text, then fails
+    static InputStream failing(String text){
+        final byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        return new InputStream() {
+            int pos;
+
+            @Override
+            public int read() throws IOException {
+                if(pos >= bytes.length / 2) throw new IOException("disk gone");
+                return bytes[pos++];
+            }
+        };
+    }
+
+    // keeps every edge as {from, to, weight} and checks the batch ids
+    static class Recorder implements EdgeSink {
+        final List<int[]> edges = new ArrayList<>();
+        int vertexCount = -1, ends, aborts, nextId = 1;
+        int maxBatch, minBatch = Integer.MAX_VALUE;
+
+        @Override
+        public void begin(int vertexCount){ this.vertexCount = vertexCount; }
+
+        @Override
+        public void edges(int[] from, int[] to, int[] weight, int count, int firstId){
+            assertEquals(nextId, firstId);
+            for(int i = 0; i < count; i++)
+                edges.add(new int[]{from[i], to[i], weight[i]});
+            nextId += count;
+            maxBatch = Math.max(maxBatch, count);
+            minBatch = Math.min(minBatch, count);
+        }
+
+        @Override
+        public void end(){ ends++; }
+
+        @Override
+        public void abort(){ aborts++; }
+    }
+}
@@ -0,0 +1,36 @@
+package org.io;
+
+import java.io.File;
+import java.net.URISyntaxException;
+
+/* Input files under src/test/resources/org/io */
+final class Fixtures {
+
+    private Fixtures(){}
+
+    static File file(String name){
+        try {
+            return new File(Fixtures.class.getResource(name).toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // edges of e as rows {from, to, weight}
+    static int[][] edges(EdgeArrays e){
+        int[][] rows = new int[e.size()][];
+        for(int i = 0; i < e.size(); i++) rows[i] = new int[]{e.getFrom()[i], e.getTo()[i], e.getWeight()[i]};
+        return rows;
+    }
+
+    static int[] edge(int u, int v, int w){ return new int[]{u, v, w}; }
+
+    static int[] edge(int u, int v){ return new int[]{u, v, EdgeArrays.NO_WEIGHT}; }
+
+    // line numbers of the reported errors
+    static int[] errorLines(EdgeArrays e){
+        int[] lines = new int[e.getErrors().size()];
+        for(int i = 0; i < lines.length; i++) lines[i] = Integer.parseInt(e.getErrors().get(i).split("[ :]")[1]);
+        return lines;
+    }
+}
@@ -0,0 +1,53 @@
+package org.io;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class GraphLoadersTest {
+
+    @Test
+    public void detectsByExtension() throws IOException {
+        assertEquals("dimacs", detect("road.gr"));
+        assertEquals("dimacs", detect("triangle.col"));
+        assertEquals("metis", detect("weighted.graph"));
+        assertEquals("matrixmarket", detect("real.mtx"));
+        assertEquals("delimited", detect("zero-based.csv"));
+    }
+
+    // files without an extension are recognised by their first bytes, anything else is a delimited list
+    @Test
+    public void sniffsWithoutExtension() throws IOException {
+        assertEquals("dimacs", detect("sniff-dimacs"));
+        assertEquals("matrixmarket", detect("sniff-mtx"));
+        assertEquals("edgelist", detect("sniff-edgelist"));
+        assertEquals("delimited", detect("sniff-delimited"));
+    }
+
+    @Test
+    public void loadsWithTheDetectedFormat() throws IOException {
+        EdgeArrays e = GraphLoaders.load(Fixtures.file("sniff-dimacs"));
+        assertEquals(2, e.getVertexCount());
+        assertEquals(1, e.size());
+        assertEquals(3, e.getWeight()[0]);
+        e = GraphLoaders.load(Fixtures.file("sniff-edgelist")); // "u w v" lines
+        assertEquals(3, e.getVertexCount());
+        assertEquals(2, e.size());
+        assertEquals(3, e.getTo()[1]);
+        assertEquals(4, e.getWeight()[1]);
+    }
+
+    @Test
+    public void forName(){
+        assertSame(MetisLoader.class, GraphLoaders.forName("METIS").getClass());
+        assertNull(GraphLoaders.forName("graphml"));
+    }
+
+    private static String detect(String name) throws IOException {
+        return GraphLoaders.detect(Fixtures.file(name)).getName();
+    }
+}
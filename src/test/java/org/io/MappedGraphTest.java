@@ -0,0 +1,81 @@
+package org.io;
+
+import org.ds.CSR;
+import org.ds.Graph;
+import org.ds.GraphUpdate;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MappedGraphTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void weightsAddedThroughUpdatesSurviveSaveAndLoad() throws IOException {
+        Graph g = new Graph(3, true);
+        g.addEdge(1, 2, 7);
+        g.addEdge(2, 3, 9);
+        assertTrue(g.hasWeights());
+        assertRoundTrip(g);
+    }
+
+    @Test
+    public void weightsAddedThroughBatchSurviveSaveAndLoad() throws IOException {
+        Graph g = new Graph(2, false);
+        g.applyBatch(new GraphUpdate().addVertex().addEdge(1, 2, 5).addEdge(2, 3, -4));
+        assertTrue(g.hasWeights());
+        assertRoundTrip(g);
+    }
+
+    @Test
+    public void reweightingAnUnweightedEdgeMakesTheGraphWeighted() throws IOException {
+        Graph g = new Graph(3, true);
+        g.addEdge(1, 2, null);
+        g.addEdge(2, 3, null);
+        assertFalse(g.hasWeights());
+        g.updateWeight(2, 3, 6);
+        assertTrue(g.hasWeights());
+        assertRoundTrip(g);
+    }
+
+    @Test
+    public void unweightedGraphStaysUnweighted() throws IOException {
+        Graph g = new Graph(3, false);
+        g.addEdge(1, 2, null);
+        g.addEdge(1, 3, null);
+        assertFalse(g.hasWeights());
+        File f = tmp.newFile();
+        MappedGraph.save(g, f);
+        MappedGraph loaded = MappedGraph.load(f, true);
+        assertFalse(loaded.hasWeights());
+        assertEquals(1, loaded.weight(0));
+    }
+
+    private void assertRoundTrip(Graph g) throws IOException {
+        File f = tmp.newFile();
+        MappedGraph.save(g, f);
+        MappedGraph loaded = MappedGraph.load(f, true);
+        CSR csr = g.exposeCSR();
+        assertTrue(loaded.hasWeights());
+        assertEquals(csr.isDirected(), loaded.isDirected());
+        assertEquals(csr.getVertexCount(), loaded.getVertexCount());
+        assertEquals(csr.getArcCount(), loaded.getArcCount());
+        for(int v = 1; v <= csr.getVertexCount(); v++){
+            assertEquals(csr.begin(v), loaded.begin(v));
+            assertEquals(csr.end(v), loaded.end(v));
+        }
+        for(int i = 0; i < csr.getArcCount(); i++){
+            assertEquals(csr.target(i), loaded.target(i));
+            assertEquals(csr.weight(i), loaded.weight(i));
+            assertEquals(csr.edgeId(i), loaded.edgeId(i));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.io;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.io.Fixtures.edge;
+import static org.io.Fixtures.edges;
+import static org.io.Fixtures.errorLines;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MatrixMarketLoaderTest {
+
+    @Test
+    public void symmetricIsUndirected() throws IOException {
+        EdgeArrays e = load("symmetric.mtx");
+        assertFalse(e.getDirected());
+        assertArrayEquals(new int[][]{edge(2, 1, 5), edge(3, 1, -7)}, edges(e));
+    }
+
+    // a(j,i) = -a(i,j): both arcs, the reverse one negated
+    @Test
+    public void skewSymmetricAddsNegatedReverseArcs() throws IOException {
+        EdgeArrays e = load("skew.mtx");
+        assertTrue(e.getDirected());
+        assertEquals(3, e.getVertexCount());
+        assertArrayEquals(new int[][]{edge(2, 1, 5), edge(1, 2, -5), edge(3, 1, -7), edge(1, 3, 7)}, edges(e));
+    }
+
+    // CRLF, comments, |V| = max(rows, cols), real values rounded, entries outside the matrix reported
+    @Test
+    public void realGeneralMatrix() throws IOException {
+        EdgeArrays e = load("real.mtx");
+        assertTrue(e.getDirected());
+        assertEquals(4, e.getVertexCount());
+        assertArrayEquals(new int[][]{edge(1, 2, 2), edge(3, 4, -2)}, edges(e));
+        assertArrayEquals(new int[]{6}, errorLines(e));
+    }
+
+    @Test
+    public void patternMatrixHasNoWeights() throws IOException {
+        EdgeArrays e = load("sniff-mtx");
+        assertFalse(e.hasWeights());
+        assertArrayEquals(new int[][]{edge(2, 1)}, edges(e));
+    }
+
+    @Test(expected = IOException.class)
+    public void hermitianIsRejected() throws IOException {
+        load("hermitian.mtx");
+    }
+
+    private static EdgeArrays load(String name) throws IOException {
+        return new MatrixMarketLoader().load(Fixtures.file(name));
+    }
+}
@@ -0,0 +1,34 @@
+package org.io;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.io.Fixtures.edge;
+import static org.io.Fixtures.edges;
+import static org.io.Fixtures.errorLines;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class MetisLoaderTest {
+
+    // fmt 011 with ncon 2: two vertex weights skipped per line, then (neighbour, weight), every edge kept once
+    @Test
+    public void vertexAndEdgeWeights() throws IOException {
+        EdgeArrays e = new MetisLoader().load(Fixtures.file("weighted.graph"));
+        assertFalse(e.getDirected());
+        assertEquals(5, e.getVertexCount());
+        assertArrayEquals(new int[][]{edge(1, 2, 3), edge(2, 4, 5), edge(4, 5, 1)}, edges(e));
+        assertEquals(0, e.getErrorCount());
+    }
+
+    // fmt 100: the vertex size in front of every list is skipped, neighbour 7 is outside 1..3
+    @Test
+    public void vertexSizes() throws IOException {
+        EdgeArrays e = new MetisLoader().load(Fixtures.file("sizes.graph"));
+        assertFalse(e.hasWeights());
+        assertArrayEquals(new int[][]{edge(1, 2), edge(2, 3)}, edges(e));
+        assertArrayEquals(new int[]{4}, errorLines(e));
+    }
+}
@@ -0,0 +1,124 @@
+package org.io;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class NumberScannerTest {
+
+    @Test
+    public void intsAtTheEdgesOfTheRange(){
+        NumberScanner s = scan("-2147483648 2147483647 +7 0");
+        assertEquals(Integer.MIN_VALUE, s.nextInt());
+        assertEquals(Integer.MAX_VALUE, s.nextInt());
+        assertEquals(7, s.nextInt());
+        assertEquals(0, s.nextInt());
+        assertFalse(s.failed());
+        assertFalse(s.hasToken());
+    }
+
+    @Test
+    public void overflowFails(){
+        for(String token: new String[]{"2147483648", "-2147483649", "99999999999999999999"}){
+            NumberScanner s = scan(token);
+            s.nextInt();
+            assertEquals(token, "number out of range", s.error());
+        }
+    }
+
+    @Test
+    public void badTokensFail(){
+        NumberScanner s = scan("12x");
+        s.nextInt();
+        assertEquals("unexpected character 'x'", s.error());
+        s = scan("-");
+        s.nextInt();
+        assertEquals("number expected", s.error());
+        s = scan("1.5");
+        s.nextInt();
+        assertEquals("unexpected character '.'", s.error());
+    }
+
+    @Test
+    public void doubles(){
+        NumberScanner s = scan("1 -2.5 3e4 .5E-2 +0.25");
+        assertEquals(1, s.nextDouble(), 0);
+        assertEquals(-2.5, s.nextDouble(), 0);
+        assertEquals(3e4, s.nextDouble(), 0);
+        assertEquals(.5e-2, s.nextDouble(), 1e-15);
+        assertEquals(0.25, s.nextDouble(), 0);
+        assertFalse(s.failed());
+        s = scan("1e");
+        s.nextDouble();
+        assertTrue(s.failed());
+    }
+
+    // \r\n ends a line like \n, the error of a line is cleared by nextLine
+    @Test
+    public void crlfLines(){
+        NumberScanner s = scan("1 2\r\nx\r\n\r\n3\t4\r\n");
+        assertEquals(1, s.nextInt());
+        assertEquals(2, s.nextInt());
+        assertFalse(s.hasToken());
+        s.nextLine();
+        s.nextInt();
+        assertTrue(s.failed());
+        s.nextLine();
+        assertNull(s.error());
+        assertFalse(s.hasToken()); // blank line
+        s.nextLine();
+        assertEquals(3, s.nextInt());
+        assertEquals(4, s.nextInt());
+        assertFalse(s.hasToken());
+        s.nextLine();
+        assertFalse(s.hasMore());
+    }
+
+    @Test
+    public void commasSeparateOnlyWhenAsked(){
+        NumberScanner s = scan("1,2, 3");
+        s.nextInt();
+        assertEquals("unexpected character ','", s.error());
+        s = scan("1,2, 3");
+        s.setCommaSeparated(true);
+        assertEquals(1, s.nextInt());
+        assertEquals(2, s.nextInt());
+        assertEquals(3, s.nextInt());
+    }
+
+    // whole tokens only, case does not matter
+    @Test
+    public void words(){
+        NumberScanner s = scan("%%matrixmarket Matrix coordinates");
+        assertTrue(s.nextWordIs("%%MatrixMarket"));
+        assertFalse(s.nextWordIs("mat"));
+        assertTrue(s.nextWordIs("MATRIX"));
+        assertFalse(s.nextWordIs("coordinate"));
+        s.skipToken();
+        assertFalse(s.hasToken());
+    }
+
+    // only the bytes [start, end) are scanned
+    @Test
+    public void window(){
+        ByteBuffer buf = bytes("11 22 33");
+        NumberScanner s = new NumberScanner().reset(buf, 3, 5);
+        assertEquals(22, s.nextInt());
+        assertFalse(s.hasMore());
+    }
+
+    private static NumberScanner scan(String text){
+        ByteBuffer buf = bytes(text);
+        return new NumberScanner().reset(buf, 0, buf.limit());
+    }
+
+    private static ByteBuffer bytes(String text){
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+    }
+}
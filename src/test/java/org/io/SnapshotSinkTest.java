@@ -0,0 +1,88 @@
+package org.io;
+
+import org.ds.CSR;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.io.EdgeStreamTest.edgeList;
+import static org.io.EdgeStreamTest.failing;
+import static org.io.EdgeStreamTest.plain;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class SnapshotSinkTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    // the two-pass spool gives the same CSR as building it in memory
+    @Test
+    public void snapshotMatchesTheInMemoryCSR() throws IOException {
+        Random rnd = new Random(21);
+        for(boolean directed: new boolean[]{true, false}){
+            for(boolean weighted: new boolean[]{true, false}){
+                // more than one spool buffer (1 MB = 87381 edges)
+                String text = edgeList(rnd, 2000, 100000, weighted);
+                EdgeArrays edges = new EdgeListParser().parse(ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII)));
+                File f = new File(tmp.getRoot(), "g" + directed + weighted + ".snap");
+                new EdgeStream(4096).read(plain(text), new SnapshotSink(f, directed));
+
+                MappedGraph loaded = MappedGraph.load(f, true);
+                CSR csr = CSR.fromArrays(edges.getVertexCount(), directed, edges.getFrom(), edges.getTo(),
+                        edges.getWeight(), edges.size());
+                assertEquals(directed, loaded.isDirected());
+                assertEquals(weighted, loaded.hasWeights());
+                assertEquals(csr.getVertexCount(), loaded.getVertexCount());
+                assertEquals(csr.getArcCount(), loaded.getArcCount());
+                for(int v = 1; v <= csr.getVertexCount() + 1; v++)
+                    assertEquals(csr.begin(v), loaded.begin(v));
+                for(int i = 0; i < csr.getArcCount(); i++){
+                    assertEquals(csr.target(i), loaded.target(i));
+                    assertEquals(csr.weight(i), loaded.weight(i));
+                    assertEquals(csr.edgeId(i), loaded.edgeId(i));
+                }
+                assertNoLeftovers();
+            }
+        }
+    }
+
+    @Test
+    public void failingStreamLeavesNoSpoolBehind() throws IOException {
+        File f = new File(tmp.getRoot(), "g.snap");
+        try {
+            new EdgeStream(100).read(failing(edgeList(new Random(4), 100, 200000, true)), new SnapshotSink(f, true));
+            fail();
+        } catch (IOException e){
+            assertEquals("disk gone", e.getMessage());
+        }
+        assertArrayEquals(new String[0], tmp.getRoot().list());
+    }
+
+    // a failed rewrite keeps the old snapshot
+    @Test
+    public void failingStreamKeepsTheOldSnapshot() throws IOException {
+        File f = new File(tmp.getRoot(), "g.snap");
+        new EdgeStream().read(plain("3\n1 2\n2 3\n"), new SnapshotSink(f, false));
+        try {
+            new EdgeStream().read(failing(edgeList(new Random(6), 3, 200000, false)), new SnapshotSink(f, false));
+            fail();
+        } catch (IOException e){
+            assertEquals("disk gone", e.getMessage());
+        }
+        assertNoLeftovers();
+        assertEquals(4, MappedGraph.load(f, true).getArcCount());
+    }
+
+    private void assertNoLeftovers(){
+        for(String name: tmp.getRoot().list())
+            assertFalse(name, name.endsWith(".spool") || name.endsWith(".tmp"));
+    }
+}